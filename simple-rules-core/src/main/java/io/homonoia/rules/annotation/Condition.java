@@ -41,4 +41,13 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 public @interface Condition {
 
+  /**
+   * Whether the condition is pure: its result only depends on the values of its parameters
+   * annotated with {@link Fact}, which can then be cached across fires by the
+   * {@link io.homonoia.rules.core.ConditionCache} of the engine. The values of these facts must be
+   * immutable.
+   *
+   * @return true if the condition is pure
+   */
+  boolean pure() default false;
 }
@@ -0,0 +1,330 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Condition} combining other conditions with a boolean operator, created with
+ * {@link Condition#and(Condition)}, {@link Condition#or(Condition)}, {@link Condition#not(Condition)},
+ * {@link Condition#allOf(Condition...)} and {@link Condition#anyOf(Condition...)}. Compound
+ * conditions form a tree that can be inspected with {@link #getOperator()} and
+ * {@link #getOperands()}.
+ * <p>
+ * The tree is {@link #simplify() simplified} and flattened into a single plan the first time it is
+ * evaluated: nested operators are merged, duplicate operands are removed and constants are folded.
+ * Operands are evaluated in the order they were declared, so that an operand can guard the
+ * evaluation of the next ones (like a null check). Evaluating cheaper operands first is an opt-in
+ * (see {@link #orderByCost()}) for conditions that are independent from each other and free of
+ * side effects.
+ */
+public final class CompoundCondition implements Condition {
+
+  /**
+   * Boolean operators of compound conditions.
+   */
+  public enum Operator {
+    AND, OR, NOT
+  }
+
+  private static final Comparator<Condition> BY_COST = Comparator.comparingInt(
+      CompoundCondition::cost);
+
+  private final Operator operator;
+  private final List<Condition> operands;
+  private final boolean orderedByCost;
+  private final int hashCode;
+  private volatile Plan plan;
+
+  private CompoundCondition(Operator operator, List<Condition> operands) {
+    this(operator, operands, false);
+  }
+
+  private CompoundCondition(Operator operator, List<Condition> operands, boolean orderedByCost) {
+    this.operator = operator;
+    this.operands = Collections.unmodifiableList(operands);
+    this.orderedByCost = orderedByCost;
+    this.hashCode = Objects.hash(operator, operands);
+  }
+
+  static CompoundCondition allOf(Condition... conditions) {
+    return new CompoundCondition(Operator.AND, operands(conditions));
+  }
+
+  static CompoundCondition anyOf(Condition... conditions) {
+    return new CompoundCondition(Operator.OR, operands(conditions));
+  }
+
+  static CompoundCondition not(Condition condition) {
+    return new CompoundCondition(Operator.NOT, operands(condition));
+  }
+
+  private static List<Condition> operands(Condition... conditions) {
+    Objects.requireNonNull(conditions, "conditions must not be null");
+    for (Condition condition : conditions) {
+      Objects.requireNonNull(condition, "condition must not be null");
+    }
+    return new ArrayList<>(Arrays.asList(conditions));
+  }
+
+  public Operator getOperator() {
+    return operator;
+  }
+
+  public List<Condition> getOperands() {
+    return operands;
+  }
+
+  /**
+   * Return an equivalent condition whose operands, at every level of the tree, are evaluated by
+   * increasing cost (the number of conditions they evaluate in the worst case) once it is
+   * simplified. Operands of the same cost keep their order. The combined conditions must be
+   * independent from each other and free of side effects, since they may then be evaluated in a
+   * different order than declared.
+   *
+   * @return the condition evaluating its cheaper operands first
+   */
+  public CompoundCondition orderByCost() {
+    return orderedByCost ? this : new CompoundCondition(operator, new ArrayList<>(operands), true);
+  }
+
+  /**
+   * Return an equivalent condition in which nested operators of the same kind are merged,
+   * duplicate operands are removed, and double negations and constants ({@link Condition#TRUE} and
+   * {@link Condition#FALSE}) are folded. An operand combined with its own negation is folded as
+   * well. Operands keep their declared order, unless this condition is
+   * {@link #orderByCost() ordered by cost}.
+   *
+   * @return the simplified condition, which may not be a compound condition
+   */
+  public Condition simplify() {
+    return simplify(this, orderedByCost);
+  }
+
+  @Override
+  public boolean evaluate(Facts facts) {
+    Plan plan = this.plan;
+    if (plan == null) {
+      plan = new Plan(simplify());
+      this.plan = plan;
+    }
+    return plan.evaluate(facts);
+  }
+
+  private static Condition simplify(Condition condition, boolean byCost) {
+    if (!(condition instanceof CompoundCondition)) {
+      return condition;
+    }
+    CompoundCondition compoundCondition = (CompoundCondition) condition;
+    if (compoundCondition.operator == Operator.NOT) {
+      return negate(simplify(compoundCondition.operands.get(0), byCost));
+    }
+    Operator operator = compoundCondition.operator;
+    Condition absorbing = operator == Operator.AND ? FALSE : TRUE;
+    Condition neutral = operator == Operator.AND ? TRUE : FALSE;
+    Set<Condition> operands = new LinkedHashSet<>();
+    for (Condition operand : compoundCondition.operands) {
+      Condition simplified = simplify(operand, byCost);
+      if (simplified == absorbing) {
+        return absorbing;
+      }
+      if (simplified == neutral) {
+        continue;
+      }
+      if (simplified instanceof CompoundCondition
+          && ((CompoundCondition) simplified).operator == operator) {
+        operands.addAll(((CompoundCondition) simplified).operands);
+      } else {
+        operands.add(simplified);
+      }
+    }
+    for (Condition operand : operands) {
+      if (operands.contains(negate(operand))) {
+        return absorbing;
+      }
+    }
+    if (operands.isEmpty()) {
+      return neutral;
+    }
+    if (operands.size() == 1) {
+      return operands.iterator().next();
+    }
+    List<Condition> simplifiedOperands = new ArrayList<>(operands);
+    if (byCost) {
+      simplifiedOperands.sort(BY_COST); // stable, operands of the same cost keep their order
+    }
+    return new CompoundCondition(operator, simplifiedOperands);
+  }
+
+  private static Condition negate(Condition condition) {
+    if (condition == TRUE) {
+      return FALSE;
+    }
+    if (condition == FALSE) {
+      return TRUE;
+    }
+    if (condition instanceof CompoundCondition
+        && ((CompoundCondition) condition).operator == Operator.NOT) {
+      return ((CompoundCondition) condition).operands.get(0);
+    }
+    return new CompoundCondition(Operator.NOT, Collections.singletonList(condition));
+  }
+
+  /*
+   * The cost of a condition is the number of conditions it evaluates in the worst case.
+   */
+  private static int cost(Condition condition) {
+    if (condition == TRUE || condition == FALSE) {
+      return 0;
+    }
+    if (!(condition instanceof CompoundCondition)) {
+      return 1;
+    }
+    int cost = 0;
+    for (Condition operand : ((CompoundCondition) condition).operands) {
+      cost += cost(operand);
+    }
+    return cost;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompoundCondition)) {
+      return false;
+    }
+    CompoundCondition that = (CompoundCondition) o;
+    return operator == that.operator && operands.equals(that.operands);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder(operator.name()).append('(');
+    for (int index = 0; index < operands.size(); index++) {
+      if (index > 0) {
+        stringBuilder.append(", ");
+      }
+      stringBuilder.append(operands.get(index));
+    }
+    return stringBuilder.append(')').toString();
+  }
+
+  /*
+   * A simplified condition flattened into a linear plan: conditions are evaluated in order into a
+   * result register, negations are pushed down to them, and jumps implement short-circuits.
+   */
+  private static final class Plan {
+
+    private static final int EVALUATE = 0;
+    private static final int EVALUATE_NEGATED = 1;
+    private static final int JUMP_IF_FALSE = 2;
+    private static final int JUMP_IF_TRUE = 3;
+
+    private final List<Integer> operationList = new ArrayList<>();
+    private final List<Integer> operandList = new ArrayList<>();
+    private final List<Condition> conditionList = new ArrayList<>();
+
+    private final int[] operations;
+    private final int[] operands;
+    private final Condition[] conditions;
+
+    Plan(Condition condition) {
+      compile(condition, false);
+      operations = operationList.stream().mapToInt(Integer::intValue).toArray();
+      operands = operandList.stream().mapToInt(Integer::intValue).toArray();
+      conditions = conditionList.toArray(new Condition[0]);
+    }
+
+    private void compile(Condition condition, boolean negated) {
+      if (!(condition instanceof CompoundCondition)) {
+        conditionList.add(condition);
+        emit(negated ? EVALUATE_NEGATED : EVALUATE, conditionList.size() - 1);
+        return;
+      }
+      CompoundCondition compoundCondition = (CompoundCondition) condition;
+      if (compoundCondition.operator == Operator.NOT) {
+        compile(compoundCondition.operands.get(0), !negated);
+        return;
+      }
+      // De Morgan: a negated conjunction is a disjunction of negated operands and vice versa
+      boolean and = (compoundCondition.operator == Operator.AND) != negated;
+      List<Integer> jumps = new ArrayList<>();
+      List<Condition> operands = compoundCondition.operands;
+      for (int index = 0; index < operands.size(); index++) {
+        compile(operands.get(index), negated);
+        if (index < operands.size() - 1) {
+          jumps.add(emit(and ? JUMP_IF_FALSE : JUMP_IF_TRUE, -1));
+        }
+      }
+      // the result that decided a short-circuit is the result of the whole operator
+      for (int jump : jumps) {
+        operandList.set(jump, operationList.size());
+      }
+    }
+
+    private int emit(int operation, int operand) {
+      operationList.add(operation);
+      operandList.add(operand);
+      return operationList.size() - 1;
+    }
+
+    boolean evaluate(Facts facts) {
+      boolean result = false;
+      int instruction = 0;
+      while (instruction < operations.length) {
+        int operand = operands[instruction];
+        switch (operations[instruction]) {
+          case EVALUATE:
+            result = conditions[operand].evaluate(facts);
+            instruction++;
+            break;
+          case EVALUATE_NEGATED:
+            result = !conditions[operand].evaluate(facts);
+            instruction++;
+            break;
+          case JUMP_IF_FALSE:
+            instruction = result ? instruction + 1 : operand;
+            break;
+          default:
+            instruction = result ? operand : instruction + 1;
+        }
+      }
+      return result;
+    }
+  }
+}
@@ -40,6 +40,56 @@ public interface Condition {
    */
   boolean evaluate(Facts facts);
 
+  /**
+   * Create a condition that is satisfied when both this condition and the given one are.
+   *
+   * @param other condition
+   * @return a compound condition combining the conditions
+   */
+  default CompoundCondition and(Condition other) {
+    return CompoundCondition.allOf(this, other);
+  }
+
+  /**
+   * Create a condition that is satisfied when this condition or the given one is.
+   *
+   * @param other condition
+   * @return a compound condition combining the conditions
+   */
+  default CompoundCondition or(Condition other) {
+    return CompoundCondition.anyOf(this, other);
+  }
+
+  /**
+   * Create a condition that is satisfied when the given one is not.
+   *
+   * @param condition to negate
+   * @return a compound condition negating the condition
+   */
+  static CompoundCondition not(Condition condition) {
+    return CompoundCondition.not(condition);
+  }
+
+  /**
+   * Create a condition that is satisfied when all the given conditions are.
+   *
+   * @param conditions to combine
+   * @return a compound condition combining the conditions
+   */
+  static CompoundCondition allOf(Condition... conditions) {
+    return CompoundCondition.allOf(conditions);
+  }
+
+  /**
+   * Create a condition that is satisfied when any of the given conditions is.
+   *
+   * @param conditions to combine
+   * @return a compound condition combining the conditions
+   */
+  static CompoundCondition anyOf(Condition... conditions) {
+    return CompoundCondition.anyOf(conditions);
+  }
+
   /**
    * A NoOp {@link Condition} that always returns false.
    */
@@ -50,6 +50,15 @@ public class Fact<T> {
     this.value = value;
   }
 
+  /*
+   * Create a fact whose value is provided by overriding getValue.
+   */
+  Fact(String name) {
+    Objects.requireNonNull(name, "name must not be null");
+    this.name = name;
+    this.value = null;
+  }
+
   /**
    * Get the fact name.
    *
@@ -75,14 +84,14 @@ public class Fact<T> {
    * @return fact value
    */
   public <K> K getValue(Class<K> clazz) {
-    return clazz.cast(value);
+    return clazz.cast(getValue());
   }
 
   @Override
   public String toString() {
     return "Fact{" +
         "name='" + name + '\'' +
-        ", value=" + value +
+        ", value=" + getValue() +
         '}';
   }
 
@@ -96,7 +105,7 @@ public class Fact<T> {
     if (this == o) {
       return true;
     }
-    if (o == null || getClass() != o.getClass()) {
+    if (!(o instanceof Fact)) {
       return false;
     }
     Fact<?> fact = (Fact<?>) o;
@@ -0,0 +1,456 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.api;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A constraint on the value of a named fact that must hold for the condition of a rule to be
+ * satisfied. Constraints are either an equality with a given value or a range of values, and allow
+ * {@link Rules} implementations to index rules by fact values (see {@link Rule#getConstraints()}).
+ * <p>
+ * Numeric values are compared by value regardless of their type, so that a constraint on
+ * {@code 18} matches a fact value of {@code 18L} or {@code 18.0}.
+ */
+public final class FactConstraint {
+
+  /**
+   * Order constraints by their lower bound, unbounded and inclusive bounds first.
+   */
+  public static final Comparator<FactConstraint> BY_LOWER_BOUND = (first, second) -> {
+    if (first.lowerBound == null || second.lowerBound == null) {
+      return Boolean.compare(second.lowerBound == null, first.lowerBound == null);
+    }
+    int comparison = compare(first.lowerBound, second.lowerBound);
+    return comparison != 0 ? comparison
+        : Boolean.compare(!first.lowerInclusive, !second.lowerInclusive);
+  };
+
+  /**
+   * Order constraints by their upper bound, exclusive bounds first and unbounded last.
+   */
+  public static final Comparator<FactConstraint> BY_UPPER_BOUND = (first, second) -> {
+    if (first.upperBound == null || second.upperBound == null) {
+      return Boolean.compare(first.upperBound == null, second.upperBound == null);
+    }
+    int comparison = compare(first.upperBound, second.upperBound);
+    return comparison != 0 ? comparison
+        : Boolean.compare(first.upperInclusive, second.upperInclusive);
+  };
+
+  private final String factName;
+  private final Object value;
+  private final Object lowerBound;
+  private final boolean lowerInclusive;
+  private final Object upperBound;
+  private final boolean upperInclusive;
+
+  private FactConstraint(String factName, Object value, Object lowerBound, boolean lowerInclusive,
+      Object upperBound, boolean upperInclusive) {
+    this.factName = Objects.requireNonNull(factName, "factName must not be null");
+    this.value = value;
+    this.lowerBound = lowerBound;
+    this.lowerInclusive = lowerInclusive;
+    this.upperBound = upperBound;
+    this.upperInclusive = upperInclusive;
+  }
+
+  /**
+   * Create a constraint requiring a fact to be equal to a given value.
+   *
+   * @param factName name of the fact
+   * @param value    expected value of the fact, must not be null
+   * @return a new equality constraint
+   */
+  public static FactConstraint equalTo(String factName, Object value) {
+    Objects.requireNonNull(value, "value must not be null");
+    return new FactConstraint(factName, indexKey(value), null, false, null, false);
+  }
+
+  /**
+   * Get the key under which a fact value is looked up in a hash index of equality constraints,
+   * i.e. the value with numbers normalized the same way as {@link #getValue()}.
+   *
+   * @param factValue to look up
+   * @return the index key of the value
+   */
+  public static Object indexKey(Object factValue) {
+    return normalize(factValue);
+  }
+
+  /**
+   * Create a constraint requiring a fact to be within a given range, bounds included.
+   *
+   * @param factName name of the fact
+   * @param min      lowest accepted value, must not be null
+   * @param max      highest accepted value, must not be null
+   * @return a new range constraint
+   */
+  public static FactConstraint between(String factName, Comparable<?> min, Comparable<?> max) {
+    return range(factName, Objects.requireNonNull(min, "min must not be null"), true,
+        Objects.requireNonNull(max, "max must not be null"), true);
+  }
+
+  /**
+   * Create a constraint requiring a fact to be greater than a given value.
+   *
+   * @param factName name of the fact
+   * @param min      excluded lower bound, must not be null
+   * @return a new range constraint
+   */
+  public static FactConstraint greaterThan(String factName, Comparable<?> min) {
+    return range(factName, Objects.requireNonNull(min, "min must not be null"), false, null, false);
+  }
+
+  /**
+   * Create a constraint requiring a fact to be greater than or equal to a given value.
+   *
+   * @param factName name of the fact
+   * @param min      included lower bound, must not be null
+   * @return a new range constraint
+   */
+  public static FactConstraint atLeast(String factName, Comparable<?> min) {
+    return range(factName, Objects.requireNonNull(min, "min must not be null"), true, null, false);
+  }
+
+  /**
+   * Create a constraint requiring a fact to be less than a given value.
+   *
+   * @param factName name of the fact
+   * @param max      excluded upper bound, must not be null
+   * @return a new range constraint
+   */
+  public static FactConstraint lessThan(String factName, Comparable<?> max) {
+    return range(factName, null, false, Objects.requireNonNull(max, "max must not be null"), false);
+  }
+
+  /**
+   * Create a constraint requiring a fact to be less than or equal to a given value.
+   *
+   * @param factName name of the fact
+   * @param max      included upper bound, must not be null
+   * @return a new range constraint
+   */
+  public static FactConstraint atMost(String factName, Comparable<?> max) {
+    return range(factName, null, false, Objects.requireNonNull(max, "max must not be null"), true);
+  }
+
+  /**
+   * Create a constraint requiring a fact to be within a given range.
+   *
+   * @param factName       name of the fact
+   * @param lowerBound     lower bound of the range, or null if the range has no lower bound
+   * @param lowerInclusive whether the lower bound is part of the range
+   * @param upperBound     upper bound of the range, or null if the range has no upper bound
+   * @param upperInclusive whether the upper bound is part of the range
+   * @return a new range constraint
+   */
+  public static FactConstraint range(String factName, Comparable<?> lowerBound,
+      boolean lowerInclusive, Comparable<?> upperBound, boolean upperInclusive) {
+    return new FactConstraint(factName, null, normalize(lowerBound), lowerInclusive,
+        normalize(upperBound), upperInclusive);
+  }
+
+  /**
+   * Get the name of the constrained fact.
+   *
+   * @return the fact name
+   */
+  public String getFactName() {
+    return factName;
+  }
+
+  /**
+   * Check if this constraint is an equality constraint.
+   *
+   * @return true if this constraint requires the fact to be equal to a value, false if it requires
+   * the fact to be within a range
+   */
+  public boolean isEquality() {
+    return value != null;
+  }
+
+  /**
+   * Get the value required by an equality constraint. Numeric values are normalized so that they
+   * can be used as keys of a hash index: integral values to {@link Long}, other values to
+   * {@link Double} when they can be represented exactly as such.
+   *
+   * @return the required value, or null if this constraint is a range constraint
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * Get the lower bound of a range constraint.
+   *
+   * @return the lower bound, or null if this constraint has no lower bound
+   */
+  public Object getLowerBound() {
+    return lowerBound;
+  }
+
+  /**
+   * Check if the lower bound of a range constraint is part of the range.
+   *
+   * @return true if the lower bound is included, false otherwise
+   */
+  public boolean isLowerInclusive() {
+    return lowerInclusive;
+  }
+
+  /**
+   * Get the upper bound of a range constraint.
+   *
+   * @return the upper bound, or null if this constraint has no upper bound
+   */
+  public Object getUpperBound() {
+    return upperBound;
+  }
+
+  /**
+   * Check if the upper bound of a range constraint is part of the range.
+   *
+   * @return true if the upper bound is included, false otherwise
+   */
+  public boolean isUpperInclusive() {
+    return upperInclusive;
+  }
+
+  /**
+   * Check if a fact value satisfies this constraint.
+   *
+   * @param factValue to check
+   * @return true if the value satisfies this constraint, false otherwise (including when the value
+   * is null or is not comparable with the bounds of the range)
+   */
+  public boolean test(Object factValue) {
+    if (factValue == null) {
+      return false;
+    }
+    Object normalized = normalize(factValue);
+    if (isEquality()) {
+      return value.equals(normalized);
+    }
+    try {
+      return !isBelowLowerBoundOrFail(normalized) && !isAboveUpperBoundOrFail(normalized);
+    } catch (ClassCastException exception) {
+      return false;
+    }
+  }
+
+  /**
+   * Check if a fact value is below the lower bound of this constraint. Together with
+   * {@link #BY_LOWER_BOUND}, this allows to stop scanning sorted range constraints as soon as a
+   * value falls below one of them.
+   *
+   * @param factValue to check
+   * @return true if this is a range constraint and the value is below its lower bound, false
+   * otherwise (including when the value is not comparable with the lower bound)
+   */
+  public boolean isBelowLowerBound(Object factValue) {
+    if (factValue == null) {
+      return false;
+    }
+    try {
+      return isBelowLowerBoundOrFail(normalize(factValue));
+    } catch (ClassCastException exception) {
+      return false;
+    }
+  }
+
+  /**
+   * Check if a fact value is above the upper bound of this constraint. This allows to skip range
+   * constraints whose upper bound is lower than a value, see {@link #BY_UPPER_BOUND}.
+   *
+   * @param factValue to check
+   * @return true if this is a range constraint and the value is above its upper bound, false
+   * otherwise (including when the value is not comparable with the upper bound)
+   */
+  public boolean isAboveUpperBound(Object factValue) {
+    if (factValue == null) {
+      return false;
+    }
+    try {
+      return isAboveUpperBoundOrFail(normalize(factValue));
+    } catch (ClassCastException exception) {
+      return false;
+    }
+  }
+
+  private boolean isBelowLowerBoundOrFail(Object factValue) {
+    if (lowerBound == null) {
+      return false;
+    }
+    int comparison = compare(factValue, lowerBound);
+    return comparison < 0 || (comparison == 0 && !lowerInclusive);
+  }
+
+  private boolean isAboveUpperBoundOrFail(Object factValue) {
+    if (upperBound == null) {
+      return false;
+    }
+    int comparison = compare(factValue, upperBound);
+    return comparison > 0 || (comparison == 0 && !upperInclusive);
+  }
+
+  // equal numbers are normalized to equal values, whatever their type
+  private static Object normalize(Object value) {
+    if (value instanceof Long) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Double) {
+      double number = (Double) value;
+      return isIntegral(number) ? (Object) (long) number : value;
+    }
+    if (value instanceof Float) {
+      return normalize(((Float) value).doubleValue());
+    }
+    if (value instanceof BigInteger) {
+      BigInteger integer = (BigInteger) value;
+      if (integer.bitLength() < Long.SIZE) {
+        return integer.longValue();
+      }
+      return normalize(integer, integer.doubleValue());
+    }
+    if (value instanceof BigDecimal) {
+      BigDecimal decimal = (BigDecimal) value;
+      if (decimal.signum() == 0) {
+        return 0L;
+      }
+      if (decimal.stripTrailingZeros().scale() <= 0) {
+        return normalize(decimal.toBigIntegerExact());
+      }
+      return normalize(decimal, decimal.doubleValue());
+    }
+    return value;
+  }
+
+  private static Object normalize(double value) {
+    return isIntegral(value) ? (Object) (long) value : (Object) value;
+  }
+
+  private static boolean isIntegral(double value) {
+    long integral = (long) value;
+    // Long.MAX_VALUE is the result of casting any value of at least 2^63
+    return integral == value && integral != Long.MAX_VALUE;
+  }
+
+  private static Object normalize(Number exactValue, double value) {
+    if (Double.isInfinite(value)) {
+      return exactValue;
+    }
+    BigDecimal exact = exactValue instanceof BigDecimal
+        ? (BigDecimal) exactValue : new BigDecimal((BigInteger) exactValue);
+    return new BigDecimal(value).compareTo(exact) == 0 ? normalize(value) : exactValue;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static int compare(Object first, Object second) {
+    if (first instanceof Number && second instanceof Number
+        && first.getClass() != second.getClass()) {
+      // normalized values are mostly Long or Double, which are compared without conversion
+      if (first instanceof Long && second instanceof Double) {
+        return compare((long) first, (double) second);
+      }
+      if (first instanceof Double && second instanceof Long) {
+        return -compare((long) second, (double) first);
+      }
+      double firstValue = ((Number) first).doubleValue();
+      double secondValue = ((Number) second).doubleValue();
+      if (!Double.isFinite(firstValue) || !Double.isFinite(secondValue)) {
+        return Double.compare(firstValue, secondValue);
+      }
+      return toBigDecimal((Number) first).compareTo(toBigDecimal((Number) second));
+    }
+    return ((Comparable) first).compareTo(second);
+  }
+
+  // exact comparison, unlike Double.compare which loses the precision of longs above 2^53
+  private static int compare(long first, double second) {
+    if (Double.isNaN(second) || second >= 0x1p63) {
+      return -1;
+    }
+    if (second < -0x1p63) {
+      return 1;
+    }
+    long integral = (long) second;
+    if (first != integral) {
+      return Long.compare(first, integral);
+    }
+    double fraction = second - integral;
+    return fraction > 0 ? -1 : (fraction < 0 ? 1 : 0);
+  }
+
+  private static BigDecimal toBigDecimal(Number number) {
+    if (number instanceof BigDecimal) {
+      return (BigDecimal) number;
+    }
+    if (number instanceof BigInteger) {
+      return new BigDecimal((BigInteger) number);
+    }
+    if (number instanceof Long) {
+      return BigDecimal.valueOf(number.longValue());
+    }
+    return new BigDecimal(number.doubleValue());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FactConstraint that = (FactConstraint) o;
+    return lowerInclusive == that.lowerInclusive
+        && upperInclusive == that.upperInclusive
+        && factName.equals(that.factName)
+        && Objects.equals(value, that.value)
+        && Objects.equals(lowerBound, that.lowerBound)
+        && Objects.equals(upperBound, that.upperBound);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(factName, value, lowerBound, lowerInclusive, upperBound, upperInclusive);
+  }
+
+  @Override
+  public String toString() {
+    if (isEquality()) {
+      return factName + " == " + value;
+    }
+    return (lowerBound == null ? "(-inf" : (lowerInclusive ? "[" : "(") + lowerBound)
+        + ", " + (upperBound == null ? "+inf)" : upperBound + (upperInclusive ? "]" : ")"))
+        + " contains " + factName;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.api;
+
+import java.util.Objects;
+
+/**
+ * A typed key of a named fact, so that {@link Facts#get(FactKey)} returns the value of the fact
+ * with the type of the key. Keys hold no state of their own, a fact put with a key can be read by
+ * its name and the other way around.
+ *
+ * @param <T> type of the fact
+ */
+public final class FactKey<T> {
+
+  private final String name;
+  private final Class<T> type;
+
+  private FactKey(String name, Class<T> type) {
+    this.name = name;
+    this.type = type;
+  }
+
+  /**
+   * Create a key for the fact with the given name.
+   *
+   * @param name of the fact, must not be null
+   * @param type of the fact, must not be a primitive type
+   * @param <T>  type of the fact
+   * @return the key of the fact
+   */
+  public static <T> FactKey<T> of(String name, Class<T> type) {
+    Objects.requireNonNull(name, "fact name must not be null");
+    Objects.requireNonNull(type, "fact type must not be null");
+    if (type.isPrimitive()) {
+      throw new IllegalArgumentException("fact type must not be a primitive type, use its wrapper");
+    }
+    return new FactKey<>(name, type);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Class<T> getType() {
+    return type;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FactKey)) {
+      return false;
+    }
+    FactKey<?> factKey = (FactKey<?>) o;
+    return name.equals(factKey.name) && type.equals(factKey.type);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, type);
+  }
+
+  @Override
+  public String toString() {
+    return "FactKey{name='" + name + "', type=" + type.getName() + "}";
+  }
+}
@@ -25,21 +25,38 @@
 package io.homonoia.rules.api;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * This class encapsulates a set of facts and represents a facts namespace. Facts have unique names
  * within a <code>Facts</code> object.
+ * <p>
+ * Facts are stored by name, whether they are put by name or by {@link FactKey}: a fact is looked
+ * up with a single hash lookup, and facts do not depend on the keys created elsewhere.
+ * <p>
+ * Primitive values added with {@link #putInt(String, int)}, {@link #putLong(String, long)},
+ * {@link #putDouble(String, double)} and {@link #putBoolean(String, boolean)} are stored unboxed,
+ * whether they are put before or after the rules and keys reading them are created. They are
+ * updated in place when a primitive value is put again, and read without boxing by the primitive
+ * getters. They are boxed on demand when accessed as objects, and the {@link Fact} of such a value
+ * reflects the current value of the fact as long as it is not replaced by an object value or
+ * removed.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class Facts implements Iterable<Fact<?>> {
 
-  private final Set<Fact<?>> facts = new HashSet<>();
+  // indexed by name so that looking up or checking the presence of a fact does not scan all facts
+  private final Map<String, Fact<?>> facts = new HashMap<>();
+  private static final byte INT = 1;
+  private static final byte LONG = 2;
+  private static final byte DOUBLE = 3;
+  private static final byte BOOLEAN = 4;
+
+  private long version;
 
   /**
    * Add a fact, replacing any fact with the same name.
@@ -50,11 +67,64 @@ public class Facts implements Iterable<Fact<?>> {
   public <T> void put(String name, T value) {
     Objects.requireNonNull(name, "fact name must not be null");
     Objects.requireNonNull(value, "fact value must not be null");
-    Fact<?> retrievedFact = getFact(name);
-    if (retrievedFact != null) {
-      remove(retrievedFact);
-    }
-    add(new Fact<>(name, value));
+    facts.put(name, new Fact<>(name, value));
+    version++;
+  }
+
+  /**
+   * Add a fact with an {@code int} value, replacing any fact with the same name. The value is
+   * stored without boxing.
+   *
+   * @param name  of the fact to add, must not be null
+   * @param value of the fact to add
+   */
+  public void putInt(String name, int value) {
+    putPrimitive(name, INT, value);
+  }
+
+  /**
+   * Add a fact with a {@code long} value, replacing any fact with the same name. The value is
+   * stored without boxing.
+   *
+   * @param name  of the fact to add, must not be null
+   * @param value of the fact to add
+   */
+  public void putLong(String name, long value) {
+    putPrimitive(name, LONG, value);
+  }
+
+  /**
+   * Add a fact with a {@code double} value, replacing any fact with the same name. The value is
+   * stored without boxing.
+   *
+   * @param name  of the fact to add, must not be null
+   * @param value of the fact to add
+   */
+  public void putDouble(String name, double value) {
+    putPrimitive(name, DOUBLE, Double.doubleToRawLongBits(value));
+  }
+
+  /**
+   * Add a fact with a {@code boolean} value, replacing any fact with the same name. The value is
+   * stored without boxing.
+   *
+   * @param name  of the fact to add, must not be null
+   * @param value of the fact to add
+   */
+  public void putBoolean(String name, boolean value) {
+    putPrimitive(name, BOOLEAN, value ? 1 : 0);
+  }
+
+  /**
+   * Add a fact, replacing any fact with the same name. This is a typed version of
+   * {@link #put(String, Object)}.
+   *
+   * @param key   of the fact to add, must not be null
+   * @param value of the fact to add, must not be null
+   */
+  public <T> void put(FactKey<T> key, T value) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    put(key.getName(), value);
   }
 
   /**
@@ -64,11 +134,11 @@ public class Facts implements Iterable<Fact<?>> {
    */
   public <T> void add(Fact<T> fact) {
     Objects.requireNonNull(fact, "fact must not be null");
-    Fact<?> retrievedFact = getFact(fact.getName());
-    if (retrievedFact != null) {
-      remove(retrievedFact);
-    }
-    facts.add(fact);
+    // primitive facts are views on the facts they come from
+    Fact<?> added =
+        fact instanceof PrimitiveFact ? new Fact<>(fact.getName(), fact.getValue()) : fact;
+    facts.put(fact.getName(), added);
+    version++;
   }
 
   /**
@@ -78,9 +148,8 @@ public class Facts implements Iterable<Fact<?>> {
    */
   public void remove(String factName) {
     Objects.requireNonNull(factName, "fact name must not be null");
-    Fact<?> fact = getFact(factName);
-    if (fact != null) {
-      remove(fact);
+    if (facts.remove(factName) != null) {
+      version++;
     }
   }
 
@@ -91,7 +160,9 @@ public class Facts implements Iterable<Fact<?>> {
    */
   public <T> void remove(Fact<T> fact) {
     Objects.requireNonNull(fact, "fact must not be null");
-    facts.remove(fact);
+    if (facts.remove(fact.getName()) != null) {
+      version++;
+    }
   }
 
   /**
@@ -113,6 +184,134 @@ public class Facts implements Iterable<Fact<?>> {
     return null;
   }
 
+  /**
+   * Get the value of a fact by its key. This method does not modify the facts.
+   *
+   * @param key of the fact, must not be null
+   * @param <T> type of the fact's value
+   * @return the value of the fact having the name of the given key, or null if there is no such
+   * fact
+   * @throws ClassCastException if the value of the fact is not of the type of the key
+   */
+  public <T> T get(FactKey<T> key) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    Fact<?> fact = facts.get(key.getName());
+    return fact == null ? null : key.getType().cast(fact.getValue());
+  }
+
+  /**
+   * Check whether there is a fact for the given key.
+   *
+   * @param key of the fact, must not be null
+   * @return true if there is a fact having the name of the given key, false otherwise
+   */
+  public boolean contains(FactKey<?> key) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    return facts.containsKey(key.getName());
+  }
+
+  /**
+   * Get the value of a numeric fact as an {@code int}, converted like {@link Number#intValue()}.
+   * Values added with {@link #putInt(String, int)} are read without boxing.
+   *
+   * @param factName name of the fact, must not be null
+   * @return the value of the fact
+   * @throws NoSuchElementException if there is no fact with the given name
+   * @throws ClassCastException     if the value of the fact is not a number
+   */
+  public int getInt(String factName) {
+    Objects.requireNonNull(factName, "fact name must not be null");
+    return getInt(fact(factName));
+  }
+
+  /**
+   * Get the value of a numeric fact as an {@code int} by its key, see {@link #getInt(String)}.
+   *
+   * @param key of the fact, must not be null
+   * @return the value of the fact
+   */
+  public int getInt(FactKey<Integer> key) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    return getInt(fact(key.getName()));
+  }
+
+  /**
+   * Get the value of a numeric fact as a {@code long}, converted like {@link Number#longValue()}.
+   * Values added with {@link #putInt(String, int)} or {@link #putLong(String, long)} are read
+   * without boxing.
+   *
+   * @param factName name of the fact, must not be null
+   * @return the value of the fact
+   * @throws NoSuchElementException if there is no fact with the given name
+   * @throws ClassCastException     if the value of the fact is not a number
+   */
+  public long getLong(String factName) {
+    Objects.requireNonNull(factName, "fact name must not be null");
+    return getLong(fact(factName));
+  }
+
+  /**
+   * Get the value of a numeric fact as a {@code long} by its key, see {@link #getLong(String)}.
+   *
+   * @param key of the fact, must not be null
+   * @return the value of the fact
+   */
+  public long getLong(FactKey<Long> key) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    return getLong(fact(key.getName()));
+  }
+
+  /**
+   * Get the value of a numeric fact as a {@code double}, converted like
+   * {@link Number#doubleValue()}. Primitive numeric values are read without boxing.
+   *
+   * @param factName name of the fact, must not be null
+   * @return the value of the fact
+   * @throws NoSuchElementException if there is no fact with the given name
+   * @throws ClassCastException     if the value of the fact is not a number
+   */
+  public double getDouble(String factName) {
+    Objects.requireNonNull(factName, "fact name must not be null");
+    return getDouble(fact(factName));
+  }
+
+  /**
+   * Get the value of a numeric fact as a {@code double} by its key, see
+   * {@link #getDouble(String)}.
+   *
+   * @param key of the fact, must not be null
+   * @return the value of the fact
+   */
+  public double getDouble(FactKey<Double> key) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    return getDouble(fact(key.getName()));
+  }
+
+  /**
+   * Get the value of a boolean fact. Values added with {@link #putBoolean(String, boolean)} are
+   * read without boxing.
+   *
+   * @param factName name of the fact, must not be null
+   * @return the value of the fact
+   * @throws NoSuchElementException if there is no fact with the given name
+   * @throws ClassCastException     if the value of the fact is not a boolean
+   */
+  public boolean getBoolean(String factName) {
+    Objects.requireNonNull(factName, "fact name must not be null");
+    return getBoolean(fact(factName));
+  }
+
+  /**
+   * Get the value of a boolean fact by its key, see {@link #getBoolean(String)}.
+   *
+   * @param key of the fact, must not be null
+   * @return the value of the fact
+   */
+  public boolean getBoolean(FactKey<Boolean> key) {
+    Objects.requireNonNull(key, "fact key must not be null");
+    return getBoolean(fact(key.getName()));
+  }
+
   /**
    * Get a fact by name.
    *
@@ -121,10 +320,33 @@ public class Facts implements Iterable<Fact<?>> {
    */
   public Fact<?> getFact(String factName) {
     Objects.requireNonNull(factName, "fact name must not be null");
-    return facts.stream()
-        .filter(fact -> fact.getName().equals(factName))
-        .findFirst()
-        .orElse(null);
+    return facts.get(factName);
+  }
+
+  /**
+   * Check whether all the given facts are present.
+   *
+   * @param factNames names of the facts, must not be null
+   * @return true if there is a fact for each of the given names, false otherwise
+   */
+  public boolean containsAll(Iterable<String> factNames) {
+    Objects.requireNonNull(factNames, "fact names must not be null");
+    for (String factName : factNames) {
+      if (!facts.containsKey(factName)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return the version of the facts, which changes each time a fact is added, replaced or removed.
+   * Changes made to the value of a fact without putting it again are not tracked.
+   *
+   * @return the version of the facts
+   */
+  public long getVersion() {
+    return version;
   }
 
   /**
@@ -135,7 +357,7 @@ public class Facts implements Iterable<Fact<?>> {
    */
   public Map<String, Object> asMap() {
     Map<String, Object> map = new HashMap<>();
-    for (Fact<?> fact : facts) {
+    for (Fact<?> fact : facts.values()) {
       map.put(fact.getName(), fact.getValue());
     }
     return map;
@@ -149,7 +371,7 @@ public class Facts implements Iterable<Fact<?>> {
    */
   @Override
   public Iterator<Fact<?>> iterator() {
-    return facts.iterator();
+    return facts.values().iterator();
   }
 
   /**
@@ -157,11 +379,102 @@ public class Facts implements Iterable<Fact<?>> {
    */
   public void clear() {
     facts.clear();
+    version++;
+  }
+
+  private void putPrimitive(String name, byte kind, long bits) {
+    Objects.requireNonNull(name, "fact name must not be null");
+    Fact<?> fact = facts.get(name);
+    if (fact instanceof PrimitiveFact) {
+      ((PrimitiveFact) fact).set(kind, bits);
+    } else {
+      facts.put(name, new PrimitiveFact(name, kind, bits));
+    }
+    version++;
+  }
+
+  private Fact<?> fact(String factName) {
+    Fact<?> fact = facts.get(factName);
+    if (fact == null) {
+      throw new NoSuchElementException(String.format("No fact named '%s' found", factName));
+    }
+    return fact;
+  }
+
+  private static int getInt(Fact<?> fact) {
+    if (!(fact instanceof PrimitiveFact)) {
+      return number(fact).intValue();
+    }
+    PrimitiveFact primitiveFact = (PrimitiveFact) fact;
+    switch (primitiveFact.kind) {
+      case INT:
+      case LONG:
+        return (int) primitiveFact.bits;
+      case DOUBLE:
+        return (int) Double.longBitsToDouble(primitiveFact.bits);
+      default:
+        throw notANumber(fact.getName());
+    }
+  }
+
+  private static long getLong(Fact<?> fact) {
+    if (!(fact instanceof PrimitiveFact)) {
+      return number(fact).longValue();
+    }
+    PrimitiveFact primitiveFact = (PrimitiveFact) fact;
+    switch (primitiveFact.kind) {
+      case INT:
+      case LONG:
+        return primitiveFact.bits;
+      case DOUBLE:
+        return (long) Double.longBitsToDouble(primitiveFact.bits);
+      default:
+        throw notANumber(fact.getName());
+    }
+  }
+
+  private static double getDouble(Fact<?> fact) {
+    if (!(fact instanceof PrimitiveFact)) {
+      return number(fact).doubleValue();
+    }
+    PrimitiveFact primitiveFact = (PrimitiveFact) fact;
+    switch (primitiveFact.kind) {
+      case INT:
+      case LONG:
+        return primitiveFact.bits;
+      case DOUBLE:
+        return Double.longBitsToDouble(primitiveFact.bits);
+      default:
+        throw notANumber(fact.getName());
+    }
+  }
+
+  private static boolean getBoolean(Fact<?> fact) {
+    if (!(fact instanceof PrimitiveFact)) {
+      return (Boolean) fact.getValue();
+    }
+    PrimitiveFact primitiveFact = (PrimitiveFact) fact;
+    if (primitiveFact.kind != BOOLEAN) {
+      throw new ClassCastException(String.format("Fact '%s' is not a boolean", fact.getName()));
+    }
+    return primitiveFact.bits != 0;
+  }
+
+  private static Number number(Fact<?> fact) {
+    Object value = fact.getValue();
+    if (!(value instanceof Number)) {
+      throw notANumber(fact.getName());
+    }
+    return (Number) value;
+  }
+
+  private static ClassCastException notANumber(String factName) {
+    return new ClassCastException(String.format("Fact '%s' is not a number", factName));
   }
 
   @Override
   public String toString() {
-    Iterator<Fact<?>> iterator = facts.iterator();
+    Iterator<Fact<?>> iterator = facts.values().iterator();
     StringBuilder stringBuilder = new StringBuilder("[");
     while (iterator.hasNext()) {
       stringBuilder.append(iterator.next().toString());
@@ -172,4 +485,38 @@ public class Facts implements Iterable<Fact<?>> {
     stringBuilder.append("]");
     return stringBuilder.toString();
   }
+
+  /*
+   * The fact of a primitive value, boxed on demand. It is updated in place while it is in the
+   * facts, so a fact being replaced or removed keeps its last value.
+   */
+  private static final class PrimitiveFact extends Fact<Object> {
+
+    private byte kind;
+    private long bits;
+
+    PrimitiveFact(String name, byte kind, long bits) {
+      super(name);
+      set(kind, bits);
+    }
+
+    void set(byte kind, long bits) {
+      this.kind = kind;
+      this.bits = bits;
+    }
+
+    @Override
+    public Object getValue() {
+      switch (kind) {
+        case INT:
+          return (int) bits;
+        case LONG:
+          return bits;
+        case DOUBLE:
+          return Double.longBitsToDouble(bits);
+        default:
+          return bits != 0;
+      }
+    }
+  }
 }
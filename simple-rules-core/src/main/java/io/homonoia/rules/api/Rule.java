@@ -24,6 +24,10 @@
 
 package io.homonoia.rules.api;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Abstraction for a rule that can be fired by a rules engine.
  * <p>
@@ -90,6 +94,27 @@ public interface Rule extends Comparable<Rule> {
     return DEFAULT_LOOP;
   }
 
+  /**
+   * Getter for the names of the facts this rule requires. Rules engines do not evaluate a rule
+   * when one of its required facts is missing (see {@link Rules#candidates(Facts)}).
+   *
+   * @return names of the facts required by this rule, empty by default
+   */
+  default Set<String> getRequiredFacts() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * Getter for the constraints on fact values that the condition of this rule implies. A rule whose
+   * constraints are not all satisfied must not be triggered, which allows {@link Rules}
+   * implementations such as {@code IndexedRules} to skip it without evaluating it.
+   *
+   * @return constraints implied by the rule condition, empty by default
+   */
+  default Collection<FactConstraint> getConstraints() {
+    return Collections.emptyList();
+  }
+
   /**
    * Getter for rule fired status.
    *
@@ -25,8 +25,12 @@
 package io.homonoia.rules.api;
 
 import io.homonoia.rules.core.RuleProxy;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
@@ -38,12 +42,18 @@ import java.util.TreeSet;
  * Rules will be compared to each other based on {@link Rule#compareTo(Object)} method, so {@link
  * Rule}'s implementations are expected to correctly implement {@code compareTo} to ensure unique
  * rule names within a single namespace.
+ * <p>
+ * Rules are indexed by the names of the facts they require (see {@link Rule#getRequiredFacts()}),
+ * so that {@link #candidates(Facts)} does not check the required facts of each rule. The index is
+ * built lazily on the first lookup and rebuilt after rules are registered or unregistered: the
+ * required facts of a rule are read when the index is built.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class Rules implements Iterable<Rule> {
 
   private Set<Rule> rules = new TreeSet<>();
+  private volatile RequiredFactsIndex requiredFactsIndex;
 
   /**
    * Create a new {@link Rules} object.
@@ -83,6 +93,7 @@ public class Rules implements Iterable<Rule> {
       Objects.requireNonNull(rule);
       this.rules.add(RuleProxy.asRule(rule));
     }
+    requiredFactsIndex = null;
   }
 
   /**
@@ -96,6 +107,7 @@ public class Rules implements Iterable<Rule> {
       Objects.requireNonNull(rule);
       this.rules.remove(RuleProxy.asRule(rule));
     }
+    requiredFactsIndex = null;
   }
 
   /**
@@ -125,6 +137,7 @@ public class Rules implements Iterable<Rule> {
    */
   public void clear() {
     rules.clear();
+    requiredFactsIndex = null;
   }
 
   /**
@@ -146,10 +159,84 @@ public class Rules implements Iterable<Rule> {
     return rules.iterator();
   }
 
+  /**
+   * Return the rules that may be triggered by the given facts, in the natural order of rules. This
+   * implementation returns the rules whose required facts are all present, subclasses can narrow
+   * them down further (see {@code io.homonoia.rules.core.IndexedRules}). Rules that are filtered
+   * out are not evaluated at all: rule listeners are not notified about them and they do not count
+   * as non triggered rules for {@link RulesEngineParameters#isSkipOnFirstNonTriggeredRule()}.
+   *
+   * @param facts against which rules will be evaluated
+   * @return the candidate rules
+   */
+  public Iterable<Rule> candidates(Facts facts) {
+    RequiredFactsIndex index = requiredFactsIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = requiredFactsIndex;
+        if (index == null) {
+          index = new RequiredFactsIndex(rules);
+          requiredFactsIndex = index;
+        }
+      }
+    }
+    return index.isEmpty() ? this : index.lookup(facts);
+  }
+
   private Rule findRuleByName(String ruleName) {
     return rules.stream()
         .filter(rule -> rule.getName().equalsIgnoreCase(ruleName))
         .findFirst()
         .orElse(null);
   }
+
+  /*
+   * Rules by the names of the facts they require, with the number of facts each rule requires.
+   * Counting the required facts of each rule that are present gives the rules whose required facts
+   * are all present, in the natural order of rules.
+   */
+  private static final class RequiredFactsIndex {
+
+    private final Rule[] rules;
+    private final int[] requiredCounts;
+    private final Map<String, int[]> positionsByFact = new HashMap<>();
+
+    RequiredFactsIndex(Set<Rule> rules) {
+      this.rules = rules.toArray(new Rule[0]);
+      this.requiredCounts = new int[this.rules.length];
+      Map<String, List<Integer>> positions = new HashMap<>();
+      for (int position = 0; position < this.rules.length; position++) {
+        Set<String> requiredFacts = this.rules[position].getRequiredFacts();
+        requiredCounts[position] = requiredFacts.size();
+        for (String factName : requiredFacts) {
+          positions.computeIfAbsent(factName, name -> new ArrayList<>()).add(position);
+        }
+      }
+      positions.forEach((factName, rulePositions) -> positionsByFact.put(factName,
+          rulePositions.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    boolean isEmpty() {
+      return positionsByFact.isEmpty();
+    }
+
+    List<Rule> lookup(Facts facts) {
+      int[] presentCounts = new int[rules.length];
+      for (Fact<?> fact : facts) {
+        int[] rulePositions = positionsByFact.get(fact.getName());
+        if (rulePositions != null) {
+          for (int position : rulePositions) {
+            presentCounts[position]++;
+          }
+        }
+      }
+      List<Rule> candidates = new ArrayList<>(rules.length);
+      for (int position = 0; position < rules.length; position++) {
+        if (presentCounts[position] == requiredCounts[position]) {
+          candidates.add(rules[position]);
+        }
+      }
+      return candidates;
+    }
+  }
 }
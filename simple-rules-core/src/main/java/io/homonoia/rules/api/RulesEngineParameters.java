@@ -61,6 +61,11 @@ public class RulesEngineParameters {
    */
   private int priorityThreshold;
 
+  /**
+   * Parameter to evaluate identical conditions only once per fire, as long as facts do not change.
+   */
+  private boolean memoizeConditions;
+
   /**
    * Create a new {@link RulesEngineParameters} with default values.
    */
@@ -141,6 +146,19 @@ public class RulesEngineParameters {
     return this;
   }
 
+  public boolean isMemoizeConditions() {
+    return memoizeConditions;
+  }
+
+  public void setMemoizeConditions(final boolean memoizeConditions) {
+    this.memoizeConditions = memoizeConditions;
+  }
+
+  public RulesEngineParameters memoizeConditions(final boolean memoizeConditions) {
+    setMemoizeConditions(memoizeConditions);
+    return this;
+  }
+
   @Override
   public String toString() {
     return "Engine parameters { " +
@@ -148,6 +166,7 @@ public class RulesEngineParameters {
         ", skipOnFirstNonTriggeredRule = " + skipOnFirstNonTriggeredRule +
         ", skipOnFirstFailedRule = " + skipOnFirstFailedRule +
         ", priorityThreshold = " + priorityThreshold +
+        ", memoizeConditions = " + memoizeConditions +
         " }";
   }
 }
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.api;
+
+/**
+ * A tracer for the internal steps of a rules engine.
+ * <p>
+ * Unlike listeners, tracers are meant for diagnostics only: they cannot veto the evaluation of a
+ * rule. Tracer methods are invoked on the hot path of the engine, so the engine selects its tracer
+ * once when it is created and uses {@link #NO_OP} when tracing is disabled, in which case none of
+ * the registered rules or known facts are iterated.
+ *
+ * @see io.homonoia.rules.core.AbstractRulesEngine#setTracer(RulesEngineTracer)
+ */
+public interface RulesEngineTracer {
+
+  /**
+   * A tracer that does nothing.
+   */
+  RulesEngineTracer NO_OP = new RulesEngineTracer() {
+  };
+
+  /**
+   * Triggered when the engine starts firing a rule set.
+   *
+   * @param parameters of the engine
+   * @param rules      about to be fired
+   * @param facts      known before firing the rules
+   */
+  default void onFireStarted(RulesEngineParameters parameters, Rules rules, Facts facts) {
+  }
+
+  /**
+   * Triggered when the engine starts checking a rule set.
+   *
+   * @param rules about to be checked
+   * @param facts known before checking the rules
+   */
+  default void onCheckStarted(Rules rules, Facts facts) {
+  }
+
+  /**
+   * Triggered when an inference engine starts selecting candidate rules.
+   *
+   * @param facts used to select candidate rules
+   */
+  default void onCandidateSelection(Facts facts) {
+  }
+
+  /**
+   * Triggered when an inference engine found no candidate rules.
+   *
+   * @param facts used to select candidate rules
+   */
+  default void onNoCandidates(Facts facts) {
+  }
+
+  /**
+   * Triggered when a rule has been vetoed by a {@link RuleListener} before being evaluated.
+   *
+   * @param rule that has been skipped
+   */
+  default void onRuleSkipped(Rule rule) {
+  }
+
+  /**
+   * Triggered when a rule's priority exceeds the engine's priority threshold.
+   *
+   * @param rule              exceeding the threshold
+   * @param priorityThreshold of the engine
+   */
+  default void onPriorityThresholdExceeded(Rule rule, int priorityThreshold) {
+  }
+
+  /**
+   * Triggered when a rule has been evaluated to true.
+   *
+   * @param rule that has been triggered
+   */
+  default void onRuleTriggered(Rule rule) {
+  }
+
+  /**
+   * Triggered when a rule has been evaluated to false.
+   *
+   * @param rule that has not been triggered
+   */
+  default void onRuleNotTriggered(Rule rule) {
+  }
+
+  /**
+   * Triggered when a rule has been executed successfully.
+   *
+   * @param rule that has been executed
+   */
+  default void onRuleExecuted(Rule rule) {
+  }
+
+  /**
+   * Triggered when the remaining rules are skipped because of an engine parameter.
+   *
+   * @param parameter name of the parameter causing the remaining rules to be skipped
+   */
+  default void onRemainingRulesSkipped(String parameter) {
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.api;
+
+/**
+ * A stateful session of a {@link RulesEngine}. Unlike {@link RulesEngine#fire(Rules, Facts)}, a
+ * session keeps its working memory, the evaluation results of its rules (the agenda) and which
+ * activations have already fired across calls. After facts are inserted, updated or retracted,
+ * only the rules that depend on the changed facts are evaluated again, and a rule fires again only
+ * once it has been re-activated by such a change. Changes a rule makes to the facts it depends on
+ * do not re-activate it, so that it does not loop on its own actions.
+ * <p>
+ * A rule depends on the facts it declares through {@link Rule#getRequiredFacts()} and
+ * {@link Rule#getConstraints()}. Rules that declare none are evaluated again on every change.
+ */
+public interface RulesSession {
+
+  /**
+   * Get the working memory of this session. Changes made to it, including by rule actions, are
+   * tracked by the session.
+   *
+   * @return the facts of this session
+   */
+  Facts getFacts();
+
+  /**
+   * Insert a new fact in the working memory.
+   *
+   * @param name  of the fact, must not be null
+   * @param value of the fact, must not be null
+   * @throws IllegalArgumentException if a fact with the same name is already present
+   */
+  void insert(String name, Object value);
+
+  /**
+   * Replace the value of a fact of the working memory.
+   *
+   * @param name  of the fact, must not be null
+   * @param value new value of the fact, must not be null
+   * @throws IllegalArgumentException if there is no fact with the given name
+   */
+  void update(String name, Object value);
+
+  /**
+   * Notify the session that the value of a fact has been modified in place, so that the rules
+   * depending on it are evaluated again.
+   *
+   * @param name of the fact, must not be null
+   * @throws IllegalArgumentException if there is no fact with the given name
+   */
+  void update(String name);
+
+  /**
+   * Remove a fact from the working memory.
+   *
+   * @param name of the fact, must not be null
+   */
+  void retract(String name);
+
+  /**
+   * Fire the activated rules, in their natural order, until there is no activation left.
+   *
+   * @return the number of rules that have been fired
+   * @throws IllegalStateException if the session is firing until halt
+   */
+  int fire();
+
+  /**
+   * Fire the activated rules as changes are made to the working memory, until {@link #halt()} is
+   * called. This method blocks the calling thread, changes are expected to be made from other
+   * threads or by rule actions.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting for changes
+   * @throws IllegalStateException if the session is already firing until halt
+   */
+  void fireUntilHalt() throws InterruptedException;
+
+  /**
+   * Stop firing rules after the rule being fired, if any, and make {@link #fireUntilHalt()}
+   * return.
+   */
+  void halt();
+}
@@ -24,14 +24,23 @@
 
 package io.homonoia.rules.core;
 
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.RuleListener;
+import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.api.RulesEngine;
 import io.homonoia.rules.api.RulesEngineHistory;
 import io.homonoia.rules.api.RulesEngineListener;
 import io.homonoia.rules.api.RulesEngineParameters;
+import io.homonoia.rules.api.RulesEngineTracer;
+import io.homonoia.rules.api.RulesSession;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.LoggerFactory;
 
 /**
  * Base class for {@link RulesEngine} implementations.
@@ -44,6 +53,8 @@ public abstract class AbstractRulesEngine implements RulesEngine {
   RulesEngineHistory rulesEngineHistory;
   List<RuleListener> ruleListeners;
   List<RulesEngineListener> rulesEngineListeners;
+  RulesEngineTracer tracer;
+  ConditionCache conditionCache;
 
   AbstractRulesEngine() {
     this(new RulesEngineParameters());
@@ -54,6 +65,7 @@ public abstract class AbstractRulesEngine implements RulesEngine {
     this.ruleListeners = new ArrayList<>();
     this.rulesEngineListeners = new ArrayList<>();
     this.rulesEngineHistory = new RulesEngineHistory();
+    this.tracer = LoggingRulesEngineTracer.forLogger(LoggerFactory.getLogger(getClass()));
 
     registerRuleListener(rulesEngineHistory);
   }
@@ -70,7 +82,7 @@ public abstract class AbstractRulesEngine implements RulesEngine {
         parameters.isSkipOnFirstFailedRule(),
         parameters.isSkipOnFirstNonTriggeredRule(),
         parameters.getPriorityThreshold()
-    );
+    ).memoizeConditions(parameters.isMemoizeConditions());
   }
 
   @Override
@@ -98,6 +110,74 @@ public abstract class AbstractRulesEngine implements RulesEngine {
     return Collections.unmodifiableList(rulesEngineListeners);
   }
 
+  /**
+   * Return the tracer of this engine. Unless set explicitly, this is a tracer logging at debug
+   * level if debug logging was enabled when the engine was created, and a no-op tracer otherwise.
+   *
+   * @return the tracer of this engine
+   */
+  public RulesEngineTracer getTracer() {
+    return tracer;
+  }
+
+  /**
+   * Set the tracer of this engine.
+   *
+   * @param tracer to use, must not be null
+   */
+  public void setTracer(RulesEngineTracer tracer) {
+    this.tracer = Objects.requireNonNull(tracer, "tracer must not be null");
+  }
+
+  /**
+   * Return the cache of pure condition results of this engine.
+   *
+   * @return the condition cache, or null if pure conditions are not cached
+   */
+  public ConditionCache getConditionCache() {
+    return conditionCache;
+  }
+
+  /**
+   * Set the cache in which the results of pure conditions are kept across fires and checks. The
+   * cache may be shared by several engines.
+   *
+   * @param conditionCache to use, or null to disable caching
+   */
+  public void setConditionCache(ConditionCache conditionCache) {
+    this.conditionCache = conditionCache;
+  }
+
+  /**
+   * Open the memo of the conditions evaluated while firing or checking rules on the given facts.
+   */
+  ConditionMemo openConditionMemo(Facts facts) {
+    return ConditionMemo.open(facts, parameters.isMemoizeConditions(), conditionCache);
+  }
+
+  /**
+   * Copy candidate rules (see {@link Rules#candidates(Facts)}) to a set, so that checking whether a
+   * rule is a candidate does not scan them.
+   */
+  static Set<Rule> candidateSet(Iterable<Rule> candidates) {
+    Set<Rule> candidateSet = Collections.newSetFromMap(new IdentityHashMap<>());
+    candidates.forEach(candidateSet::add);
+    return candidateSet;
+  }
+
+  /**
+   * Create a new stateful session firing the given rules with the listeners, tracer and parameters
+   * of this engine. Rules registered after the session is created are ignored by the session, and
+   * rules unregistered afterwards are no longer candidates.
+   *
+   * @param rules to fire in the session, must not be null
+   * @return a new session with an empty working memory
+   */
+  public RulesSession newSession(Rules rules) {
+    Objects.requireNonNull(rules, "Rules must not be null");
+    return new DefaultRulesSession(this, rules);
+  }
+
   public void registerRuleListener(RuleListener ruleListener) {
     ruleListeners.add(ruleListener);
   }
@@ -24,6 +24,7 @@
 
 package io.homonoia.rules.core;
 
+import io.homonoia.rules.api.FactKey;
 import java.lang.reflect.Method;
 
 /**
@@ -35,10 +36,12 @@ class ActionMethodOrderBean implements Comparable<ActionMethodOrderBean> {
 
   private final Method method;
   private final int order;
+  private final FactKey<?>[] factKeys;
 
   ActionMethodOrderBean(final Method method, final int order) {
     this.method = method;
     this.order = order;
+    this.factKeys = RuleProxy.getFactKeys(method);
   }
 
   public int getOrder() {
@@ -49,6 +52,10 @@ class ActionMethodOrderBean implements Comparable<ActionMethodOrderBean> {
     return method;
   }
 
+  FactKey<?>[] getFactKeys() {
+    return factKeys;
+  }
+
   @Override
   public int compareTo(final ActionMethodOrderBean actionMethodOrderBean) {
     if (order < actionMethodOrderBean.getOrder()) {
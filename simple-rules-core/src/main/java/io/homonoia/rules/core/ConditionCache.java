@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the results of pure conditions across fires and checks of a rules engine. A pure
+ * condition (see {@link io.homonoia.rules.annotation.Condition#pure()} and
+ * {@link RuleBuilder#pure(String...)}) only depends on the values of its input facts, so its
+ * result is cached by condition and input values.
+ * <p>
+ * Input values are compared with {@code equals} when results are looked up, so they must
+ * implement {@code equals} and {@code hashCode} and must be immutable: a value changed in place
+ * after its result was cached would still hit the result computed for its previous state.
+ * <p>
+ * The cache holds at most a given number of results, and results expire a given time after they
+ * were cached. Results are spread over segments locked independently, so that engines sharing the
+ * cache on several threads do not contend on a single lock; each segment evicts its least recently
+ * used results once it holds its share of the maximum size. Hits, misses and evictions are
+ * counted.
+ */
+public final class ConditionCache {
+
+  // a segment holds at least this many results, so that small caches evict exactly the least
+  // recently used results
+  private static final int MINIMUM_SEGMENT_SIZE = 16;
+  private static final int MAXIMUM_SEGMENTS = 16;
+
+  private final long expireAfterNanos;
+  private final Segment[] segments;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * Create a new condition cache.
+   *
+   * @param maximumSize maximum number of cached results, must be positive
+   * @param expireAfter time after which a cached result expires, must be positive
+   */
+  public ConditionCache(int maximumSize, Duration expireAfter) {
+    Objects.requireNonNull(expireAfter, "expireAfter must not be null");
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    if (expireAfter.isNegative() || expireAfter.isZero()) {
+      throw new IllegalArgumentException("expireAfter must be positive");
+    }
+    this.expireAfterNanos = expireAfter.toNanos();
+    int segmentCount = Integer.highestOneBit(
+        Math.max(1, Math.min(MAXIMUM_SEGMENTS, maximumSize / MINIMUM_SEGMENT_SIZE)));
+    this.segments = new Segment[segmentCount];
+    for (int index = 0; index < segmentCount; index++) {
+      // the first segments hold the remainder of the maximum size
+      int segmentSize = maximumSize / segmentCount + (index < maximumSize % segmentCount ? 1 : 0);
+      segments[index] = new Segment(segmentSize);
+    }
+  }
+
+  /**
+   * Create the key of the result of a condition for some input values.
+   *
+   * @param condition the condition, compared by identity
+   * @param inputs    values of the input facts of the condition
+   * @return the key of the result
+   */
+  static Object key(Object condition, Object[] inputs) {
+    return new Key(condition, inputs);
+  }
+
+  Boolean get(Object key) {
+    Segment segment = segmentFor(key);
+    CachedResult entry;
+    synchronized (segment) {
+      entry = segment.get(key);
+      if (entry != null && System.nanoTime() - entry.cachedAt >= expireAfterNanos) {
+        segment.remove(key);
+        evictionCount.increment();
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    return entry.result;
+  }
+
+  void put(Object key, boolean result) {
+    Segment segment = segmentFor(key);
+    CachedResult entry = new CachedResult(result, System.nanoTime());
+    synchronized (segment) {
+      segment.put((Key) key, entry);
+    }
+  }
+
+  private Segment segmentFor(Object key) {
+    int hash = key.hashCode();
+    // spread the high bits, identity hash codes of conditions and small integers vary in low bits
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  /**
+   * Return the number of results found in the cache.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Return the number of results not found in the cache, including expired ones.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Return the number of results removed because the cache was full or because they expired.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * Return the number of cached results, including expired results not evicted yet.
+   *
+   * @return the number of cached results
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Remove all cached results. Counters are not reset.
+   */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ConditionCache { " +
+        "size = " + size() +
+        ", hits = " + getHitCount() +
+        ", misses = " + getMissCount() +
+        ", evictions = " + getEvictionCount() +
+        " }";
+  }
+
+  /*
+   * Results of a segment in access order, guarded by the segment monitor.
+   */
+  private final class Segment extends LinkedHashMap<Key, CachedResult> {
+
+    private final int maximumSize;
+
+    Segment(int maximumSize) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+      if (size() > maximumSize) {
+        evictionCount.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static final class Key {
+
+    private final Object condition;
+    private final Object[] inputs;
+    private final int hashCode;
+
+    Key(Object condition, Object[] inputs) {
+      this.condition = condition;
+      this.inputs = inputs;
+      this.hashCode = 31 * System.identityHashCode(condition) + Arrays.hashCode(inputs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return condition == key.condition && Arrays.equals(inputs, key.inputs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class CachedResult {
+
+    private final boolean result;
+    private final long cachedAt;
+
+    CachedResult(boolean result, long cachedAt) {
+      this.result = result;
+      this.cachedAt = cachedAt;
+    }
+  }
+}
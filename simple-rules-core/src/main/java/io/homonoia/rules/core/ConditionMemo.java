@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.Facts;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Results of the conditions evaluated by the current thread while firing rules on some facts,
+ * keyed by condition identity. A condition shared by several rules, or a rule added to several
+ * composite rules, is then evaluated once per fire.
+ * <p>
+ * Results are only valid for the {@link Facts#getVersion() version} of the facts they were
+ * computed on: they are dropped as soon as a fact is added, replaced or removed, including by the
+ * actions of fired rules. Changes made to the value of a fact without putting it again are not
+ * detected, so memoization should not be enabled when rules mutate facts in place.
+ * <p>
+ * The memo also gives rules access to the {@link ConditionCache} of the engine, which keeps the
+ * results of pure conditions across fires.
+ */
+final class ConditionMemo implements AutoCloseable {
+
+  private static final ThreadLocal<ConditionMemo> CURRENT = new ThreadLocal<>();
+  private static final ConditionMemo NONE = new ConditionMemo();
+
+  private final ConditionMemo previous;
+  private final Facts facts;
+  private final Map<Condition, Boolean> results;
+  private final ConditionCache cache;
+  private long version;
+
+  private ConditionMemo(ConditionMemo previous, Facts facts, boolean enabled,
+      ConditionCache cache) {
+    this.previous = previous;
+    this.facts = facts;
+    this.results = enabled ? new IdentityHashMap<>() : null;
+    this.cache = cache;
+    this.version = facts.getVersion();
+  }
+
+  private ConditionMemo() {
+    this.previous = null;
+    this.facts = null;
+    this.results = null;
+    this.cache = null;
+  }
+
+  /**
+   * Start memoizing the conditions evaluated by the current thread on the given facts, until the
+   * returned memo is closed. A disabled memo hides the memo of an enclosing fire. When there is
+   * nothing to memoize, cache or hide, a shared memo that does nothing is returned.
+   *
+   * @param facts   the facts conditions are evaluated on
+   * @param enabled whether results should be memoized
+   * @param cache   the cache of pure conditions of the engine, may be null
+   * @return the memo to close at the end of the fire
+   */
+  static ConditionMemo open(Facts facts, boolean enabled, ConditionCache cache) {
+    ConditionMemo previous = CURRENT.get();
+    if (!enabled && cache == null && previous == null) {
+      return NONE;
+    }
+    ConditionMemo memo = new ConditionMemo(previous, facts, enabled, cache);
+    CURRENT.set(memo);
+    return memo;
+  }
+
+  /**
+   * Evaluate a condition, or return its memoized result if it has already been evaluated on the
+   * same version of the facts during the current fire. Failed evaluations are not memoized.
+   *
+   * @param condition to evaluate
+   * @param facts     the facts to evaluate the condition on
+   * @return the result of the condition
+   */
+  static boolean evaluate(Condition condition, Facts facts) {
+    return evaluate(condition, null, facts);
+  }
+
+  /**
+   * Evaluate a condition like {@link #evaluate(Condition, Facts)}. If the condition is pure, its
+   * result is also looked up in the condition cache of the engine by the values of its input
+   * facts.
+   *
+   * @param condition  to evaluate
+   * @param inputFacts names of the facts a pure condition depends on, null if it is not pure
+   * @param facts      the facts to evaluate the condition on
+   * @return the result of the condition
+   */
+  static boolean evaluate(Condition condition, String[] inputFacts, Facts facts) {
+    ConditionMemo memo = CURRENT.get();
+    if (memo == null) {
+      return condition.evaluate(facts);
+    }
+    if (memo.results == null || memo.facts != facts) {
+      return memo.evaluateCached(condition, inputFacts, facts);
+    }
+    if (memo.version != facts.getVersion()) {
+      memo.results.clear();
+      memo.version = facts.getVersion();
+    }
+    Boolean result = memo.results.get(condition);
+    if (result == null) {
+      result = memo.evaluateCached(condition, inputFacts, facts);
+      memo.results.put(condition, result);
+    }
+    return result;
+  }
+
+  /**
+   * Return the condition cache of the engine firing rules in the current thread.
+   *
+   * @return the condition cache, or null if there is none
+   */
+  static ConditionCache currentCache() {
+    ConditionMemo memo = CURRENT.get();
+    return memo == null ? null : memo.cache;
+  }
+
+  private boolean evaluateCached(Condition condition, String[] inputFacts, Facts facts) {
+    if (cache == null || inputFacts == null) {
+      return condition.evaluate(facts);
+    }
+    Object[] inputs = new Object[inputFacts.length];
+    for (int index = 0; index < inputFacts.length; index++) {
+      inputs[index] = facts.get(inputFacts[index]);
+    }
+    Object key = ConditionCache.key(condition, inputs);
+    Boolean result = cache.get(key);
+    if (result == null) {
+      result = condition.evaluate(facts);
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    if (this == NONE) {
+      return;
+    }
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -26,19 +26,42 @@ package io.homonoia.rules.core;
 
 import io.homonoia.rules.api.Action;
 import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.FactConstraint;
 import io.homonoia.rules.api.Facts;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 class DefaultRule extends BasicRule {
 
   private final Condition condition;
+  private final String[] inputFacts;
+  private final Set<String> requiredFacts;
   private final List<Action> actions;
+  private final List<FactConstraint> constraints;
 
   DefaultRule(String name, String description, int priority, boolean loop, Condition condition,
-      List<Action> actions) {
+      String[] inputFacts, List<Action> actions, List<FactConstraint> constraints) {
     super(name, description, priority, loop);
     this.condition = condition;
+    this.inputFacts = inputFacts;
+    this.requiredFacts = inputFacts == null ? Collections.emptySet()
+        : Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(inputFacts)));
     this.actions = actions;
+    this.constraints = constraints;
+  }
+
+  @Override
+  public Set<String> getRequiredFacts() {
+    return requiredFacts;
+  }
+
+  @Override
+  public Collection<FactConstraint> getConstraints() {
+    return constraints;
   }
 
   @Override
@@ -46,7 +69,7 @@ class DefaultRule extends BasicRule {
     if (!getLoop() && fired.get()) {
       return false;
     }
-    return condition.evaluate(facts);
+    return ConditionMemo.evaluate(condition, inputFacts, facts);
   }
 
   @Override
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Default {@link RulesEngine} implementation.
@@ -66,7 +67,12 @@ public final class DefaultRulesEngine extends AbstractRulesEngine {
         Objects.requireNonNull(rules, "Rules must not be null");
         Objects.requireNonNull(facts, "Facts must not be null");
         triggerListenersBeforeRules(rules, facts);
-        doFire(rules, facts);
+        ConditionMemo memo = openConditionMemo(facts);
+        try {
+            doFire(rules, facts);
+        } finally {
+            memo.close();
+        }
         triggerListenersAfterRules(rules, facts);
     }
 
@@ -75,101 +81,85 @@ public final class DefaultRulesEngine extends AbstractRulesEngine {
             LOGGER.warn("No rules registered! Nothing to apply");
             return;
         }
-        logEngineParameters();
-        log(rules);
-        log(facts);
-        LOGGER.debug("Rules evaluation started");
-        for (Rule rule : rules) {
+        tracer.onFireStarted(parameters, rules, facts);
+        for (Rule rule : rules.candidates(facts)) {
             final String name = rule.getName();
             final int priority = rule.getPriority();
             if (priority > parameters.getPriorityThreshold()) {
-                LOGGER.debug("Rule priority threshold ({}) exceeded at rule '{}' with priority={}, next rules will be skipped",
-                        parameters.getPriorityThreshold(), name, priority);
+                tracer.onPriorityThresholdExceeded(rule, parameters.getPriorityThreshold());
                 break;
             }
             if (!shouldBeEvaluated(rule, facts)) {
-                LOGGER.debug("Rule '{}' has been skipped before being evaluated", name);
+                tracer.onRuleSkipped(rule);
                 continue;
             }
             boolean evaluationResult = false;
             try {
                 evaluationResult = rule.evaluate(facts);
             } catch (RuntimeException exception) {
-                LOGGER.error("Rule '" + name + "' evaluated with error", exception);
+                LOGGER.error("Rule '{}' evaluated with error", name, exception);
                 triggerListenersOnEvaluationError(rule, facts, exception);
                 // give the option to either skip next rules on evaluation error or continue by considering the evaluation error as false
                 if (parameters.isSkipOnFirstNonTriggeredRule()) {
-                    LOGGER.debug("Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
+                    tracer.onRemainingRulesSkipped("skipOnFirstNonTriggeredRule");
                     break;
                 }
             }
 
             if (evaluationResult) {
-                LOGGER.debug("Rule '{}' triggered", name);
+                tracer.onRuleTriggered(rule);
                 triggerListenersAfterEvaluate(rule, facts, true);
                 try {
                     triggerListenersBeforeExecute(rule, facts);
                     rule.execute(facts);
-                    LOGGER.debug("Rule '{}' performed successfully", name);
+                    tracer.onRuleExecuted(rule);
                     triggerListenersOnSuccess(rule, facts);
                     if (parameters.isSkipOnFirstAppliedRule()) {
-                        LOGGER.debug("Next rules will be skipped since parameter skipOnFirstAppliedRule is set");
+                        tracer.onRemainingRulesSkipped("skipOnFirstAppliedRule");
                         break;
                     }
                 } catch (Exception exception) {
-                    LOGGER.error("Rule '" + name + "' performed with error", exception);
+                    LOGGER.error("Rule '{}' performed with error", name, exception);
                     triggerListenersOnFailure(rule, exception, facts);
                     if (parameters.isSkipOnFirstFailedRule()) {
-                        LOGGER.debug("Next rules will be skipped since parameter skipOnFirstFailedRule is set");
+                        tracer.onRemainingRulesSkipped("skipOnFirstFailedRule");
                         break;
                     }
                 }
             } else {
-                LOGGER.debug("Rule '{}' has been evaluated to false, it has not been executed", name);
+                tracer.onRuleNotTriggered(rule);
                 triggerListenersAfterEvaluate(rule, facts, false);
                 if (parameters.isSkipOnFirstNonTriggeredRule()) {
-                    LOGGER.debug("Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
+                    tracer.onRemainingRulesSkipped("skipOnFirstNonTriggeredRule");
                     break;
                 }
             }
         }
     }
 
-    private void logEngineParameters() {
-        LOGGER.debug("{}", parameters);
-    }
-
-    private void log(Rules rules) {
-        LOGGER.debug("Registered rules:");
-        for (Rule rule : rules) {
-            LOGGER.debug("Rule { name = '{}', description = '{}', priority = '{}'}",
-                    rule.getName(), rule.getDescription(), rule.getPriority());
-        }
-    }
-
-    private void log(Facts facts) {
-        LOGGER.debug("Known facts:");
-        for (Fact<?> fact : facts) {
-            LOGGER.debug("{}", fact);
-        }
-    }
-
     @Override
     public Map<Rule, Boolean> check(Rules rules, Facts facts) {
         Objects.requireNonNull(rules, "Rules must not be null");
         Objects.requireNonNull(facts, "Facts must not be null");
         triggerListenersBeforeRules(rules, facts);
-        Map<Rule, Boolean> result = doCheck(rules, facts);
+        Map<Rule, Boolean> result;
+        ConditionMemo memo = openConditionMemo(facts);
+        try {
+            result = doCheck(rules, facts);
+        } finally {
+            memo.close();
+        }
         triggerListenersAfterRules(rules, facts);
         return result;
     }
 
     private Map<Rule, Boolean> doCheck(Rules rules, Facts facts) {
-        LOGGER.debug("Checking rules");
+        tracer.onCheckStarted(rules, facts);
         Map<Rule, Boolean> result = new HashMap<>();
+        Set<Rule> candidates = candidateSet(rules.candidates(facts));
         for (Rule rule : rules) {
             if (shouldBeEvaluated(rule, facts)) {
-                result.put(rule, rule.evaluate(facts));
+                result.put(rule, candidates.contains(rule) && rule.evaluate(facts));
             }
         }
         return result;
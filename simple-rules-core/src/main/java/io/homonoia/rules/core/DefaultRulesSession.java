@@ -0,0 +1,427 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import io.homonoia.rules.api.Fact;
+import io.homonoia.rules.api.FactConstraint;
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.RuleListener;
+import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.api.RulesEngineParameters;
+import io.homonoia.rules.api.RulesSession;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default {@link RulesSession} implementation, created with
+ * {@link AbstractRulesEngine#newSession(Rules)}. It notifies the rule listeners, rules engine
+ * listeners and tracer of the engine that created it and honors its parameters.
+ * <p>
+ * The agenda is built from the rules registered when the session is created. Rules are evaluated
+ * only when they are {@link Rules#candidates(Facts) candidates} for the working memory and their
+ * constraints hold, with the conditions memoized like in {@link DefaultRulesEngine#fire}.
+ * <p>
+ * An activation that has fired is re-armed when its condition becomes true again, or when a fact
+ * it depends on is changed from outside the session or by the action of another rule: changes a
+ * rule makes to its own facts do not re-arm it. Rules that do not declare their dependencies are
+ * only re-armed when their condition becomes true again, and rules that do not loop (see
+ * {@link Rule#getLoop()}) fire at most once per session.
+ * <p>
+ * All operations except {@link #halt()} are synchronized on the session, so that a batch of
+ * activations being fired can be halted from another thread.
+ */
+final class DefaultRulesSession implements RulesSession {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRulesSession.class);
+
+  private final AbstractRulesEngine engine;
+  private final Rules rules;
+  private final WorkingMemory facts = new WorkingMemory();
+  private final List<Activation> agenda = new ArrayList<>();
+  private final Map<String, List<Activation>> activationsByFact = new HashMap<>();
+  private final List<Activation> unconditionalActivations = new ArrayList<>();
+  private boolean changed = true;
+  private long changes;
+  private long candidatesChanges = -1;
+  private Set<Rule> candidates;
+  private Activation firing;
+  private volatile boolean halted;
+  private volatile boolean firingBatch;
+  private boolean firingUntilHalt;
+
+  DefaultRulesSession(AbstractRulesEngine engine, Rules rules) {
+    this.engine = engine;
+    this.rules = rules;
+    for (Rule rule : rules) {
+      Set<String> dependencies = new HashSet<>(rule.getRequiredFacts());
+      for (FactConstraint constraint : rule.getConstraints()) {
+        dependencies.add(constraint.getFactName());
+      }
+      Activation activation = new Activation(rule);
+      agenda.add(activation);
+      if (dependencies.isEmpty()) {
+        unconditionalActivations.add(activation);
+      }
+      for (String factName : dependencies) {
+        activationsByFact.computeIfAbsent(factName, name -> new ArrayList<>()).add(activation);
+      }
+    }
+  }
+
+  @Override
+  public Facts getFacts() {
+    return facts;
+  }
+
+  @Override
+  public synchronized void insert(String name, Object value) {
+    Objects.requireNonNull(name, "fact name must not be null");
+    if (facts.getFact(name) != null) {
+      throw new IllegalArgumentException(String.format("Fact '%s' is already present", name));
+    }
+    facts.put(name, value);
+  }
+
+  @Override
+  public synchronized void update(String name, Object value) {
+    checkPresent(name);
+    facts.put(name, value);
+  }
+
+  @Override
+  public synchronized void update(String name) {
+    checkPresent(name);
+    onChange(name);
+  }
+
+  @Override
+  public synchronized void retract(String name) {
+    facts.remove(name);
+  }
+
+  @Override
+  public synchronized int fire() {
+    if (firingUntilHalt) {
+      throw new IllegalStateException("Session is firing until halt");
+    }
+    halted = false;
+    return doFire();
+  }
+
+  @Override
+  public synchronized void fireUntilHalt() throws InterruptedException {
+    if (firingUntilHalt) {
+      throw new IllegalStateException("Session is already firing until halt");
+    }
+    firingUntilHalt = true;
+    halted = false;
+    try {
+      while (true) {
+        while (!halted && !changed) {
+          wait();
+        }
+        if (halted) {
+          return;
+        }
+        doFire();
+      }
+    } finally {
+      firingUntilHalt = false;
+    }
+  }
+
+  @Override
+  public void halt() {
+    halted = true;
+    // a batch being fired checks the flag before each activation, so it does not need to be
+    // notified, and halting does not wait for it to release the monitor
+    if (!firingBatch) {
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  private int doFire() {
+    changed = false;
+    firingBatch = true;
+    RulesEngineParameters parameters = engine.parameters;
+    engine.rulesEngineListeners.forEach(listener -> listener.beforeEvaluate(rules, facts));
+    engine.tracer.onFireStarted(parameters, rules, facts);
+    int fired = 0;
+    ConditionMemo memo = engine.openConditionMemo(facts);
+    try {
+      Activation next;
+      while (!halted && (next = nextActivation(parameters)) != null) {
+        if (fire(next, parameters)) {
+          fired++;
+          if (parameters.isSkipOnFirstAppliedRule()) {
+            engine.tracer.onRemainingRulesSkipped("skipOnFirstAppliedRule");
+            break;
+          }
+        } else if (parameters.isSkipOnFirstFailedRule()) {
+          engine.tracer.onRemainingRulesSkipped("skipOnFirstFailedRule");
+          break;
+        }
+      }
+    } finally {
+      memo.close();
+      firingBatch = false;
+    }
+    engine.rulesEngineListeners.forEach(listener -> listener.afterExecute(rules, facts));
+    return fired;
+  }
+
+  private boolean fire(Activation activation, RulesEngineParameters parameters) {
+    Rule rule = activation.rule;
+    activation.fired = true;
+    engine.tracer.onRuleTriggered(rule);
+    firing = activation;
+    try {
+      engine.ruleListeners.forEach(listener -> listener.beforeExecute(rule, facts));
+      rule.execute(facts);
+      engine.tracer.onRuleExecuted(rule);
+      engine.ruleListeners.forEach(listener -> listener.onSuccess(rule, facts));
+      return true;
+    } catch (Exception exception) {
+      LOGGER.error("Rule '{}' performed with error", rule.getName(), exception);
+      engine.ruleListeners.forEach(listener -> listener.onFailure(rule, facts, exception));
+      return false;
+    } finally {
+      firing = null;
+    }
+  }
+
+  /*
+   * Rules are evaluated in their natural order and only up to the first activation that has not
+   * fired yet: rules after it might be affected by its actions, so they are evaluated later.
+   */
+  private Activation nextActivation(RulesEngineParameters parameters) {
+    for (Activation activation : agenda) {
+      Rule rule = activation.rule;
+      if (rule.getPriority() > parameters.getPriorityThreshold()) {
+        engine.tracer.onPriorityThresholdExceeded(rule, parameters.getPriorityThreshold());
+        return null;
+      }
+      if (activation.stale) {
+        evaluate(activation);
+      }
+      if (activation.active) {
+        if (!activation.fired) {
+          return activation;
+        }
+      } else if (activation.evaluated && parameters.isSkipOnFirstNonTriggeredRule()) {
+        engine.tracer.onRemainingRulesSkipped("skipOnFirstNonTriggeredRule");
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private void evaluate(Activation activation) {
+    Rule rule = activation.rule;
+    activation.stale = false;
+    activation.active = false;
+    activation.evaluated = false;
+    if (!isCandidate(rule)) {
+      rearm(activation);
+      return;
+    }
+    boolean shouldBeEvaluated = true;
+    for (RuleListener listener : engine.ruleListeners) {
+      shouldBeEvaluated &= listener.beforeEvaluate(rule, facts);
+    }
+    if (!shouldBeEvaluated) {
+      engine.tracer.onRuleSkipped(rule);
+      rearm(activation);
+      return;
+    }
+    activation.evaluated = true;
+    try {
+      activation.active = satisfiesConstraints(rule) && rule.evaluate(facts);
+    } catch (RuntimeException exception) {
+      LOGGER.error("Rule '{}' evaluated with error", rule.getName(), exception);
+      engine.ruleListeners.forEach(listener -> listener.onEvaluationError(rule, facts, exception));
+    }
+    if (!activation.active) {
+      engine.tracer.onRuleNotTriggered(rule);
+      // so that the activation fires again once its condition becomes true again
+      rearm(activation);
+    }
+    boolean evaluationResult = activation.active;
+    engine.ruleListeners.forEach(listener -> listener.afterEvaluate(rule, facts, evaluationResult));
+  }
+
+  private static void rearm(Activation activation) {
+    if (activation.rule.getLoop()) {
+      activation.fired = false;
+    }
+  }
+
+  /*
+   * Candidates are looked up again after facts change, and only when a rule is evaluated.
+   */
+  private boolean isCandidate(Rule rule) {
+    if (candidatesChanges != changes) {
+      Iterable<Rule> currentCandidates = rules.candidates(facts);
+      candidates = currentCandidates == rules ? null
+          : AbstractRulesEngine.candidateSet(currentCandidates);
+      candidatesChanges = changes;
+    }
+    return candidates == null || candidates.contains(rule);
+  }
+
+  private boolean satisfiesConstraints(Rule rule) {
+    for (FactConstraint constraint : rule.getConstraints()) {
+      if (!constraint.test(facts.get(constraint.getFactName()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void onChange(String factName) {
+    List<Activation> activations = activationsByFact.get(factName);
+    if (activations != null) {
+      for (Activation activation : activations) {
+        activation.stale = true;
+        if (activation != firing) {
+          rearm(activation);
+        }
+      }
+    }
+    unconditionalActivations.forEach(activation -> activation.stale = true);
+    changes++;
+    changed = true;
+    notifyAll();
+  }
+
+  private void checkPresent(String name) {
+    Objects.requireNonNull(name, "fact name must not be null");
+    if (facts.getFact(name) == null) {
+      throw new IllegalArgumentException(String.format("No fact named '%s' found", name));
+    }
+  }
+
+  private static final class Activation {
+
+    private final Rule rule;
+    private boolean stale = true;
+    private boolean evaluated;
+    private boolean active;
+    private boolean fired;
+
+    Activation(Rule rule) {
+      this.rule = rule;
+    }
+  }
+
+  /*
+   * Facts tracking changes so that the rules depending on them are evaluated again, whether the
+   * changes are made through the session or directly by rule actions.
+   */
+  private final class WorkingMemory extends Facts {
+
+    @Override
+    public <T> void put(String name, T value) {
+      synchronized (DefaultRulesSession.this) {
+        super.put(name, value);
+        onChange(name);
+      }
+    }
+
+    @Override
+    public void putInt(String name, int value) {
+      synchronized (DefaultRulesSession.this) {
+        super.putInt(name, value);
+        onChange(name);
+      }
+    }
+
+    @Override
+    public void putLong(String name, long value) {
+      synchronized (DefaultRulesSession.this) {
+        super.putLong(name, value);
+        onChange(name);
+      }
+    }
+
+    @Override
+    public void putDouble(String name, double value) {
+      synchronized (DefaultRulesSession.this) {
+        super.putDouble(name, value);
+        onChange(name);
+      }
+    }
+
+    @Override
+    public void putBoolean(String name, boolean value) {
+      synchronized (DefaultRulesSession.this) {
+        super.putBoolean(name, value);
+        onChange(name);
+      }
+    }
+
+    @Override
+    public <T> void add(Fact<T> fact) {
+      synchronized (DefaultRulesSession.this) {
+        super.add(fact);
+        onChange(fact.getName());
+      }
+    }
+
+    @Override
+    public void remove(String factName) {
+      synchronized (DefaultRulesSession.this) {
+        if (getFact(factName) != null) {
+          super.remove(factName);
+          onChange(factName);
+        }
+      }
+    }
+
+    @Override
+    public <T> void remove(Fact<T> fact) {
+      remove(fact.getName());
+    }
+
+    @Override
+    public void clear() {
+      synchronized (DefaultRulesSession.this) {
+        List<String> factNames = new ArrayList<>();
+        forEach(fact -> factNames.add(fact.getName()));
+        super.clear();
+        factNames.forEach(DefaultRulesSession.this::onChange);
+      }
+    }
+  }
+}
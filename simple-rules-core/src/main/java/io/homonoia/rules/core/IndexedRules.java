@@ -0,0 +1,269 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import io.homonoia.rules.api.FactConstraint;
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link Rules} implementation that indexes rules by the {@link FactConstraint}s they declare (see
+ * {@link Rule#getConstraints()}), so that rules engines only evaluate the rules that can be
+ * triggered by the current facts.
+ * <p>
+ * Each rule is indexed by its first equality constraint in a hash index, or else by its first
+ * range constraint in a {@link RangeIndex}. Rules that declare no constraints are always candidates.
+ * Like the rules whose required facts are missing (see {@link Rules#candidates(Facts)}), rules that
+ * are filtered out are not evaluated at all.
+ * <p>
+ * The index is built lazily on the first lookup and rebuilt after rules are registered or
+ * unregistered.
+ */
+public class IndexedRules extends Rules {
+
+  private volatile Index index;
+
+  /**
+   * Create a new {@link IndexedRules} object.
+   *
+   * @param rules to register
+   */
+  public IndexedRules(Set<Rule> rules) {
+    super(rules);
+  }
+
+  /**
+   * Create a new {@link IndexedRules} object.
+   *
+   * @param rules to register
+   */
+  public IndexedRules(Rule... rules) {
+    super(rules);
+  }
+
+  /**
+   * Create a new {@link IndexedRules} object.
+   *
+   * @param rules to register
+   */
+  public IndexedRules(Object... rules) {
+    super(rules);
+  }
+
+  @Override
+  public void register(Object... rules) {
+    super.register(rules);
+    index = null;
+  }
+
+  @Override
+  public void unregister(Object... rules) {
+    super.unregister(rules);
+    index = null;
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    index = null;
+  }
+
+  /**
+   * Return the rules whose required facts are all present and whose constraints are all satisfied
+   * by the given facts, in the natural order of rules.
+   *
+   * @param facts against which rules will be evaluated
+   * @return the candidate rules
+   */
+  @Override
+  public Iterable<Rule> candidates(Facts facts) {
+    Index current = index;
+    if (current == null) {
+      synchronized (this) {
+        current = index;
+        if (current == null) {
+          current = new Index(this);
+          index = current;
+        }
+      }
+    }
+    List<Rule> matchingRules = current.lookup(facts);
+    Iterable<Rule> rulesWithRequiredFacts = super.candidates(facts);
+    return rulesWithRequiredFacts == this
+        ? matchingRules : intersect(matchingRules, rulesWithRequiredFacts);
+  }
+
+  /*
+   * Both sequences of rules are in the natural order of rules, without duplicates.
+   */
+  private static List<Rule> intersect(List<Rule> first, Iterable<Rule> second) {
+    List<Rule> intersection = new ArrayList<>(first.size());
+    Iterator<Rule> iterator = second.iterator();
+    Rule other = iterator.hasNext() ? iterator.next() : null;
+    for (Rule rule : first) {
+      while (other != null && other.compareTo(rule) < 0) {
+        other = iterator.hasNext() ? iterator.next() : null;
+      }
+      if (other == null) {
+        break;
+      }
+      if (other.compareTo(rule) == 0) {
+        intersection.add(rule);
+      }
+    }
+    return intersection;
+  }
+
+  private static final class Index {
+
+    private static final Rule[] NO_RULES = new Rule[0];
+
+    private final List<Rule> unconstrainedRules;
+    private final Map<String, Map<Object, Rule[]>> equalityIndex = new HashMap<>();
+    private final Map<String, RangeRules> rangeIndex = new HashMap<>();
+
+    Index(Iterable<Rule> rules) {
+      List<Rule> unconstrained = new ArrayList<>();
+      Map<String, Map<Object, List<Rule>>> equalities = new HashMap<>();
+      Map<String, List<FactConstraint>> ranges = new HashMap<>();
+      Map<String, List<Rule>> rangeRules = new HashMap<>();
+      for (Rule rule : rules) {
+        FactConstraint constraint = selectIndexedConstraint(rule.getConstraints());
+        if (constraint == null) {
+          unconstrained.add(rule);
+        } else if (constraint.isEquality()) {
+          equalities.computeIfAbsent(constraint.getFactName(), name -> new HashMap<>())
+              .computeIfAbsent(constraint.getValue(), value -> new ArrayList<>())
+              .add(rule);
+        } else {
+          ranges.computeIfAbsent(constraint.getFactName(), name -> new ArrayList<>())
+              .add(constraint);
+          rangeRules.computeIfAbsent(constraint.getFactName(), name -> new ArrayList<>())
+              .add(rule);
+        }
+      }
+      // rules are iterated in their natural order, so these lists are sorted
+      unconstrainedRules = Collections.unmodifiableList(unconstrained);
+      equalities.forEach((factName, rulesByValue) -> {
+        Map<Object, Rule[]> index = new HashMap<>(rulesByValue.size() * 4 / 3 + 1);
+        rulesByValue.forEach((value, matchingRules) ->
+            index.put(value, matchingRules.toArray(NO_RULES)));
+        equalityIndex.put(factName, index);
+      });
+      ranges.forEach((factName, constraints) -> rangeIndex.put(factName,
+          new RangeRules(new RangeIndex(constraints), rangeRules.get(factName).toArray(NO_RULES))));
+    }
+
+    private static FactConstraint selectIndexedConstraint(Collection<FactConstraint> constraints) {
+      FactConstraint selected = null;
+      for (FactConstraint constraint : constraints) {
+        if (constraint.isEquality()) {
+          return constraint;
+        }
+        if (selected == null) {
+          selected = constraint;
+        }
+      }
+      return selected;
+    }
+
+    List<Rule> lookup(Facts facts) {
+      List<Rule> matchingRules = null;
+      for (Map.Entry<String, Map<Object, Rule[]>> entry : equalityIndex.entrySet()) {
+        Object value = facts.get(entry.getKey());
+        if (value == null) {
+          continue;
+        }
+        Rule[] rules = entry.getValue().get(FactConstraint.indexKey(value));
+        if (rules != null) {
+          for (Rule rule : rules) {
+            matchingRules = addSatisfied(matchingRules, rule, facts);
+          }
+        }
+      }
+      for (Map.Entry<String, RangeRules> entry : rangeIndex.entrySet()) {
+        Object value = facts.get(entry.getKey());
+        if (value == null) {
+          continue;
+        }
+        RangeRules rangeRules = entry.getValue();
+        for (int position : rangeRules.ranges.lookup(value)) {
+          matchingRules = addSatisfied(matchingRules, rangeRules.rules[position], facts);
+        }
+      }
+      if (matchingRules == null) {
+        return unconstrainedRules;
+      }
+      // each rule is indexed once, so matching rules are distinct from unconstrained ones
+      Collections.sort(matchingRules);
+      return merge(matchingRules, unconstrainedRules);
+    }
+
+    private static List<Rule> addSatisfied(List<Rule> matchingRules, Rule rule, Facts facts) {
+      for (FactConstraint constraint : rule.getConstraints()) {
+        if (!constraint.test(facts.get(constraint.getFactName()))) {
+          return matchingRules;
+        }
+      }
+      List<Rule> rules = matchingRules != null ? matchingRules : new ArrayList<>();
+      rules.add(rule);
+      return rules;
+    }
+
+    private static List<Rule> merge(List<Rule> first, List<Rule> second) {
+      if (second.isEmpty()) {
+        return first;
+      }
+      List<Rule> merged = new ArrayList<>(first.size() + second.size());
+      int i = 0;
+      int j = 0;
+      while (i < first.size() && j < second.size()) {
+        merged.add(first.get(i).compareTo(second.get(j)) < 0 ? first.get(i++) : second.get(j++));
+      }
+      merged.addAll(first.subList(i, first.size()));
+      merged.addAll(second.subList(j, second.size()));
+      return merged;
+    }
+  }
+
+  private static final class RangeRules {
+
+    private final RangeIndex ranges;
+    private final Rule[] rules;
+
+    RangeRules(RangeIndex ranges, Rule[] rules) {
+      this.ranges = ranges;
+      this.rules = rules;
+    }
+  }
+}
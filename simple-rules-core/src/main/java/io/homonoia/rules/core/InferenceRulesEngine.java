@@ -24,7 +24,6 @@
 
 package io.homonoia.rules.core;
 
-import io.homonoia.rules.api.Fact;
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.Rules;
@@ -73,36 +72,41 @@ public final class InferenceRulesEngine extends AbstractRulesEngine {
     Objects.requireNonNull(facts, "Facts must not be null");
     Set<Rule> selectedRules;
     triggerListenersBeforeRules(rules, facts);
-    do {
-      LOGGER.debug("Selecting candidate rules based on the following facts: {}", facts);
-      selectedRules = selectCandidates(rules, facts);
-      if (!selectedRules.isEmpty()) {
-        doFire(new Rules(selectedRules), facts);
-      } else {
-        LOGGER.debug("No candidate rules found for facts: {}", facts);
-      }
-    } while (!selectedRules.isEmpty());
+    // memoized conditions are evaluated again in the next iteration when fired rules change facts
+    ConditionMemo memo = openConditionMemo(facts);
+    try {
+      do {
+        tracer.onCandidateSelection(facts);
+        selectedRules = selectCandidates(rules, facts);
+        if (!selectedRules.isEmpty()) {
+          doFire(new Rules(selectedRules), facts);
+        } else {
+          tracer.onNoCandidates(facts);
+        }
+      } while (!selectedRules.isEmpty());
+    } finally {
+      memo.close();
+    }
     triggerListenersAfterRules(rules, facts);
   }
 
   private Set<Rule> selectCandidates(Rules rules, Facts facts) {
     Set<Rule> candidates = new TreeSet<>();
-    for (Rule rule : rules) {
+    for (Rule rule : rules.candidates(facts)) {
       final String name = rule.getName();
       if (!shouldBeEvaluated(rule, facts)) {
-        LOGGER.debug("Rule '{}' has been skipped before being evaluated", name);
+        tracer.onRuleSkipped(rule);
         continue;
       }
       boolean evaluationResult = false;
       try {
         evaluationResult = rule.evaluate(facts);
       } catch (RuntimeException exception) {
-        LOGGER.error("Rule '" + name + "' evaluated with error", exception);
+        LOGGER.error("Rule '{}' evaluated with error", name, exception);
         triggerListenersOnEvaluationError(rule, facts, exception);
         // give the option to either skip next rules on evaluation error or continue by considering the evaluation error as false
         if (parameters.isSkipOnFirstNonTriggeredRule()) {
-          LOGGER.debug(
-              "Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
+          tracer.onRemainingRulesSkipped("skipOnFirstNonTriggeredRule");
           break;
         }
       }
@@ -110,11 +114,10 @@ public final class InferenceRulesEngine extends AbstractRulesEngine {
         triggerListenersAfterEvaluate(rule, facts, true);
         candidates.add(rule);
       } else {
-        LOGGER.debug("Rule '{}' has been evaluated to false, it has not been executed", name);
+        tracer.onRuleNotTriggered(rule);
         triggerListenersAfterEvaluate(rule, facts, false);
         if (parameters.isSkipOnFirstNonTriggeredRule()) {
-          LOGGER.debug(
-              "Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
+          tracer.onRemainingRulesSkipped("skipOnFirstNonTriggeredRule");
           break;
         }
       }
@@ -127,75 +130,58 @@ public final class InferenceRulesEngine extends AbstractRulesEngine {
       LOGGER.warn("No rules registered! Nothing to apply");
       return;
     }
-    logEngineParameters();
-    log(rules);
-    log(facts);
-    LOGGER.debug("Rules evaluation started");
+    tracer.onFireStarted(parameters, rules, facts);
     for (Rule rule : rules) {
       final String name = rule.getName();
       final int priority = rule.getPriority();
       if (priority > parameters.getPriorityThreshold()) {
-        LOGGER.debug(
-            "Rule priority threshold ({}) exceeded at rule '{}' with priority={}, next rules will be skipped",
-            parameters.getPriorityThreshold(), name, priority);
+        tracer.onPriorityThresholdExceeded(rule, parameters.getPriorityThreshold());
         break;
       }
-      LOGGER.debug("Rule '{}' triggered", name);
+      tracer.onRuleTriggered(rule);
       try {
         triggerListenersBeforeExecute(rule, facts);
         rule.execute(facts);
-        LOGGER.debug("Rule '{}' performed successfully", name);
+        tracer.onRuleExecuted(rule);
         triggerListenersOnSuccess(rule, facts);
         if (parameters.isSkipOnFirstAppliedRule()) {
-          LOGGER.debug("Next rules will be skipped since parameter skipOnFirstAppliedRule is set");
+          tracer.onRemainingRulesSkipped("skipOnFirstAppliedRule");
           break;
         }
       } catch (Exception exception) {
-        LOGGER.error("Rule '" + name + "' performed with error", exception);
+        LOGGER.error("Rule '{}' performed with error", name, exception);
         triggerListenersOnFailure(rule, exception, facts);
         if (parameters.isSkipOnFirstFailedRule()) {
-          LOGGER.debug("Next rules will be skipped since parameter skipOnFirstFailedRule is set");
+          tracer.onRemainingRulesSkipped("skipOnFirstFailedRule");
           break;
         }
       }
     }
   }
 
-  private void logEngineParameters() {
-    LOGGER.debug("{}", parameters);
-  }
-
-  private void log(Rules rules) {
-    LOGGER.debug("Registered rules:");
-    for (Rule rule : rules) {
-      LOGGER.debug("Rule { name = '{}', description = '{}', priority = '{}'}",
-          rule.getName(), rule.getDescription(), rule.getPriority());
-    }
-  }
-
-  private void log(Facts facts) {
-    LOGGER.debug("Known facts:");
-    for (Fact<?> fact : facts) {
-      LOGGER.debug("{}", fact);
-    }
-  }
-
   @Override
   public Map<Rule, Boolean> check(Rules rules, Facts facts) {
     Objects.requireNonNull(rules, "Rules must not be null");
     Objects.requireNonNull(facts, "Facts must not be null");
     triggerListenersBeforeRules(rules, facts);
-    Map<Rule, Boolean> result = doCheck(rules, facts);
+    Map<Rule, Boolean> result;
+    ConditionMemo memo = openConditionMemo(facts);
+    try {
+      result = doCheck(rules, facts);
+    } finally {
+      memo.close();
+    }
     triggerListenersAfterRules(rules, facts);
     return result;
   }
 
   private Map<Rule, Boolean> doCheck(Rules rules, Facts facts) {
-    LOGGER.debug("Checking rules");
+    tracer.onCheckStarted(rules, facts);
     Map<Rule, Boolean> result = new HashMap<>();
+    Set<Rule> candidates = candidateSet(rules.candidates(facts));
     for (Rule rule : rules) {
       if (shouldBeEvaluated(rule, facts)) {
-        result.put(rule, rule.evaluate(facts));
+        result.put(rule, candidates.contains(rule) && rule.evaluate(facts));
       }
     }
     return result;
@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.core;
+
+import io.homonoia.rules.api.Fact;
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.api.RulesEngineParameters;
+import io.homonoia.rules.api.RulesEngineTracer;
+import org.slf4j.Logger;
+
+/**
+ * {@link RulesEngineTracer} writing engine internals to a logger at debug level.
+ */
+final class LoggingRulesEngineTracer implements RulesEngineTracer {
+
+  private final Logger logger;
+
+  private LoggingRulesEngineTracer(Logger logger) {
+    this.logger = logger;
+  }
+
+  /**
+   * Create a tracer for the given logger. The debug level is checked once, so the returned tracer
+   * is {@link RulesEngineTracer#NO_OP} if debug logging is disabled when the engine is created.
+   *
+   * @param logger to write to
+   * @return a tracer for the logger
+   */
+  static RulesEngineTracer forLogger(Logger logger) {
+    return logger.isDebugEnabled() ? new LoggingRulesEngineTracer(logger) : RulesEngineTracer.NO_OP;
+  }
+
+  @Override
+  public void onFireStarted(RulesEngineParameters parameters, Rules rules, Facts facts) {
+    logger.debug("{}", parameters);
+    logger.debug("Registered rules:");
+    for (Rule rule : rules) {
+      logger.debug("Rule { name = '{}', description = '{}', priority = '{}'}",
+          rule.getName(), rule.getDescription(), rule.getPriority());
+    }
+    logger.debug("Known facts:");
+    for (Fact<?> fact : facts) {
+      logger.debug("{}", fact);
+    }
+    logger.debug("Rules evaluation started");
+  }
+
+  @Override
+  public void onCheckStarted(Rules rules, Facts facts) {
+    logger.debug("Checking rules");
+  }
+
+  @Override
+  public void onCandidateSelection(Facts facts) {
+    logger.debug("Selecting candidate rules based on the following facts: {}", facts);
+  }
+
+  @Override
+  public void onNoCandidates(Facts facts) {
+    logger.debug("No candidate rules found for facts: {}", facts);
+  }
+
+  @Override
+  public void onRuleSkipped(Rule rule) {
+    logger.debug("Rule '{}' has been skipped before being evaluated", rule.getName());
+  }
+
+  @Override
+  public void onPriorityThresholdExceeded(Rule rule, int priorityThreshold) {
+    logger.debug(
+        "Rule priority threshold ({}) exceeded at rule '{}' with priority={}, next rules will be skipped",
+        priorityThreshold, rule.getName(), rule.getPriority());
+  }
+
+  @Override
+  public void onRuleTriggered(Rule rule) {
+    logger.debug("Rule '{}' triggered", rule.getName());
+  }
+
+  @Override
+  public void onRuleNotTriggered(Rule rule) {
+    logger.debug("Rule '{}' has been evaluated to false, it has not been executed",
+        rule.getName());
+  }
+
+  @Override
+  public void onRuleExecuted(Rule rule) {
+    logger.debug("Rule '{}' performed successfully", rule.getName());
+  }
+
+  @Override
+  public void onRemainingRulesSkipped(String parameter) {
+    logger.debug("Next rules will be skipped since parameter {} is set", parameter);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.core;
+
+import io.homonoia.rules.api.FactConstraint;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of range {@link FactConstraint}s on the same fact, returning the ranges that contain a
+ * given value.
+ * <p>
+ * Ranges are sorted by lower bound and organized as an implicit binary search tree in which each
+ * node records the highest upper bound of its subtree, so that a lookup only visits the subtrees
+ * that can contain the value. Ranges may overlap: a lookup takes {@code O(log n + k)} comparisons,
+ * where {@code k} is the number of ranges containing the value.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class RangeIndex {
+
+  private static final int[] NO_MATCHES = new int[0];
+
+  private final FactConstraint[] ranges;
+  private final int[] positions;
+  private final int[] highestUpperBounds;
+
+  /**
+   * Create a new {@link RangeIndex}.
+   *
+   * @param ranges range constraints to index, identified by their position in the list
+   */
+  public RangeIndex(List<FactConstraint> ranges) {
+    Integer[] order = new Integer[ranges.size()];
+    for (int position = 0; position < order.length; position++) {
+      FactConstraint range = ranges.get(position);
+      if (range.isEquality()) {
+        throw new IllegalArgumentException("Equality constraints cannot be indexed by range");
+      }
+      order[position] = position;
+    }
+    Arrays.sort(order, (first, second) ->
+        FactConstraint.BY_LOWER_BOUND.compare(ranges.get(first), ranges.get(second)));
+    this.ranges = new FactConstraint[order.length];
+    this.positions = new int[order.length];
+    for (int i = 0; i < order.length; i++) {
+      this.ranges[i] = ranges.get(order[i]);
+      this.positions[i] = order[i];
+    }
+    this.highestUpperBounds = new int[order.length];
+    index(0, order.length);
+  }
+
+  // record, for the node of each subtree, the range of the subtree with the highest upper bound
+  private int index(int low, int high) {
+    if (low >= high) {
+      return -1;
+    }
+    int middle = (low + high) >>> 1;
+    int highest = highest(middle, index(low, middle));
+    highest = highest(highest, index(middle + 1, high));
+    highestUpperBounds[middle] = highest;
+    return highest;
+  }
+
+  private int highest(int range, int other) {
+    return other >= 0 && FactConstraint.BY_UPPER_BOUND.compare(ranges[other], ranges[range]) > 0
+        ? other : range;
+  }
+
+  /**
+   * Get the number of indexed ranges.
+   *
+   * @return the number of ranges
+   */
+  public int size() {
+    return ranges.length;
+  }
+
+  /**
+   * Return the positions of the ranges that contain the given value, in ascending order.
+   *
+   * @param value to look up
+   * @return positions of the matching ranges, empty if none matches or if the value is null. A
+   * non-empty array is created by each lookup and can be modified by the caller.
+   */
+  public int[] lookup(Object value) {
+    if (value == null || ranges.length == 0) {
+      return NO_MATCHES;
+    }
+    Matches matches = new Matches();
+    lookup(0, ranges.length, value, matches);
+    return matches.toArray();
+  }
+
+  private void lookup(int low, int high, Object value, Matches matches) {
+    if (low >= high) {
+      return;
+    }
+    int middle = (low + high) >>> 1;
+    if (ranges[highestUpperBounds[middle]].isAboveUpperBound(value)) {
+      return;
+    }
+    lookup(low, middle, value, matches);
+    // ranges of the right subtree do not start before the middle one
+    if (ranges[middle].isBelowLowerBound(value)) {
+      return;
+    }
+    if (ranges[middle].test(value)) {
+      matches.add(positions[middle]);
+    }
+    lookup(middle + 1, high, value, matches);
+  }
+
+  private static final class Matches {
+
+    private int[] positions = NO_MATCHES;
+    private int count;
+
+    void add(int position) {
+      if (count == positions.length) {
+        positions = Arrays.copyOf(positions, Math.max(4, count * 2));
+      }
+      positions[count++] = position;
+    }
+
+    int[] toArray() {
+      if (count == 0) {
+        return NO_MATCHES;
+      }
+      int[] sorted = count == positions.length ? positions : Arrays.copyOf(positions, count);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
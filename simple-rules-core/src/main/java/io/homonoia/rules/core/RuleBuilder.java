@@ -26,9 +26,15 @@ package io.homonoia.rules.core;
 
 import io.homonoia.rules.api.Action;
 import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.FactConstraint;
+import io.homonoia.rules.api.FactKey;
 import io.homonoia.rules.api.Rule;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 /**
  * Builder to create {@link Rule} instances.
@@ -43,7 +49,9 @@ public class RuleBuilder {
   private boolean loop = Rule.DEFAULT_LOOP;
 
   private Condition condition = Condition.FALSE;
+  private String[] inputFacts;
   private final List<Action> actions = new ArrayList<>();
+  private final List<FactConstraint> constraints = new ArrayList<>();
 
   /**
    * Set rule name.
@@ -90,7 +98,8 @@ public class RuleBuilder {
   }
 
   /**
-   * Set rule condition.
+   * Set rule condition. Conditions combined with {@link Condition#and(Condition)} and the other
+   * combinators are simplified and flattened into a single plan when first evaluated.
    *
    * @param condition of the rule
    * @return the builder instance
@@ -100,6 +109,85 @@ public class RuleBuilder {
     return this;
   }
 
+  /**
+   * Set rule condition to a predicate on the value of an {@code int} fact, read without boxing. The
+   * condition is not satisfied if the fact is missing.
+   *
+   * @param factName  name of the fact
+   * @param predicate on the value of the fact
+   * @return the builder instance
+   */
+  public RuleBuilder whenInt(String factName, IntPredicate predicate) {
+    Objects.requireNonNull(predicate, "predicate must not be null");
+    FactKey<Integer> key = FactKey.of(factName, Integer.class);
+    return when(facts -> facts.contains(key) && predicate.test(facts.getInt(key)));
+  }
+
+  /**
+   * Set rule condition to a predicate on the value of a {@code long} fact, read without boxing. The
+   * condition is not satisfied if the fact is missing.
+   *
+   * @param factName  name of the fact
+   * @param predicate on the value of the fact
+   * @return the builder instance
+   */
+  public RuleBuilder whenLong(String factName, LongPredicate predicate) {
+    Objects.requireNonNull(predicate, "predicate must not be null");
+    FactKey<Long> key = FactKey.of(factName, Long.class);
+    return when(facts -> facts.contains(key) && predicate.test(facts.getLong(key)));
+  }
+
+  /**
+   * Set rule condition to a predicate on the value of a {@code double} fact, read without boxing.
+   * The condition is not satisfied if the fact is missing.
+   *
+   * @param factName  name of the fact
+   * @param predicate on the value of the fact
+   * @return the builder instance
+   */
+  public RuleBuilder whenDouble(String factName, DoublePredicate predicate) {
+    Objects.requireNonNull(predicate, "predicate must not be null");
+    FactKey<Double> key = FactKey.of(factName, Double.class);
+    return when(facts -> facts.contains(key) && predicate.test(facts.getDouble(key)));
+  }
+
+  /**
+   * Set rule condition to the value of a {@code boolean} fact, read without boxing. The condition
+   * is not satisfied if the fact is missing.
+   *
+   * @param factName name of the fact
+   * @return the builder instance
+   */
+  public RuleBuilder whenTrue(String factName) {
+    FactKey<Boolean> key = FactKey.of(factName, Boolean.class);
+    return when(facts -> facts.contains(key) && facts.getBoolean(key));
+  }
+
+  /**
+   * Declare the rule condition pure: its result only depends on the values of the given facts,
+   * which can then be cached across fires by the {@link ConditionCache} of the engine. The values
+   * of the given facts must be immutable, and the given facts are required by the rule.
+   *
+   * @param inputFacts names of the facts the condition depends on
+   * @return the builder instance
+   */
+  public RuleBuilder pure(String... inputFacts) {
+    this.inputFacts = inputFacts.clone();
+    return this;
+  }
+
+  /**
+   * Add a constraint on a fact value that the rule condition implies, so that the rule can be
+   * indexed by {@link IndexedRules}. The condition is still responsible for checking it.
+   *
+   * @param constraint to add
+   * @return the builder instance
+   */
+  public RuleBuilder constraint(FactConstraint constraint) {
+    this.constraints.add(constraint);
+    return this;
+  }
+
   /**
    * Add an action to the rule.
    *
@@ -117,6 +205,7 @@ public class RuleBuilder {
    * @return a new rule instance
    */
   public Rule build() {
-    return new DefaultRule(name, description, priority, loop, condition, actions);
+    return new DefaultRule(name, description, priority, loop, condition, inputFacts, actions,
+        constraints);
   }
 }
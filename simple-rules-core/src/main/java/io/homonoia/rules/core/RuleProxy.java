@@ -32,6 +32,7 @@ import io.homonoia.rules.annotation.Fact;
 import io.homonoia.rules.annotation.Loop;
 import io.homonoia.rules.annotation.Priority;
 import io.homonoia.rules.annotation.Rule;
+import io.homonoia.rules.api.FactKey;
 import io.homonoia.rules.api.Facts;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
@@ -39,7 +40,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -61,6 +64,9 @@ public class RuleProxy implements InvocationHandler {
   private Boolean loop;
   private Method[] methods;
   private Method conditionMethod;
+  private FactKey<?>[] conditionFactKeys;
+  private Set<String> requiredFacts;
+  private Boolean pureCondition;
   private Set<ActionMethodOrderBean> actionMethods;
   private Method compareToMethod;
   private Method toStringMethod;
@@ -106,6 +112,10 @@ public class RuleProxy implements InvocationHandler {
         return getRulePriority();
       case "getLoop":
         return getRuleLoop();
+      case "getRequiredFacts":
+        return getRequiredFacts();
+      case "getConstraints":
+        return Collections.emptyList();
       case "compareTo":
         return compareToMethod(args);
       case "evaluate":
@@ -128,12 +138,18 @@ public class RuleProxy implements InvocationHandler {
     Facts facts = (Facts) args[0];
     Method conditionMethod = getConditionMethod();
     try {
-      List<Object> actualParameters = getActualParameters(conditionMethod, facts);
-      return conditionMethod.invoke(target, actualParameters.toArray()); // validated upfront
+      FactKey<?>[] factKeys = getConditionFactKeys();
+      Object[] actualParameters = getActualParameters(factKeys, facts);
+      ConditionCache cache = isPureCondition() ? ConditionMemo.currentCache() : null;
+      if (cache != null) {
+        return evaluateCached(cache, conditionMethod, factKeys, actualParameters);
+      }
+      return conditionMethod.invoke(target, actualParameters); // validated upfront
     } catch (NoSuchFactException e) {
-      LOGGER.warn(
-          "Rule '{}' has been evaluated to false due to a declared but missing fact '{}' in {}",
-          getTargetClass().getName(), e.getMissingFact(), facts);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Rule '{}' has been evaluated to false due to a declared but missing fact '{}'",
+            getTargetClass().getName(), e.getMissingFact());
+      }
       return false;
     } catch (IllegalArgumentException e) {
       LOGGER
@@ -143,13 +159,31 @@ public class RuleProxy implements InvocationHandler {
     }
   }
 
+  private Object evaluateCached(ConditionCache cache, Method conditionMethod,
+      FactKey<?>[] factKeys, Object[] actualParameters)
+      throws IllegalAccessException, InvocationTargetException {
+    List<Object> inputs = new ArrayList<>(actualParameters.length);
+    for (int index = 0; index < factKeys.length; index++) {
+      if (factKeys[index] != null) {
+        inputs.add(actualParameters[index]);
+      }
+    }
+    Object key = ConditionCache.key(target, inputs.toArray());
+    Boolean result = cache.get(key);
+    if (result == null) {
+      result = (Boolean) conditionMethod.invoke(target, actualParameters);
+      cache.put(key, result);
+    }
+    return result;
+  }
+
   private Object executeMethod(final Object[] args)
       throws IllegalAccessException, InvocationTargetException {
     Facts facts = (Facts) args[0];
     for (ActionMethodOrderBean actionMethodBean : getActionMethodBeans()) {
       Method actionMethod = actionMethodBean.getMethod();
-      List<Object> actualParameters = getActualParameters(actionMethod, facts);
-      actionMethod.invoke(target, actualParameters.toArray());
+      Object[] actualParameters = getActualParameters(actionMethodBean.getFactKeys(), facts);
+      actionMethod.invoke(target, actualParameters);
     }
     return null;
   }
@@ -168,26 +202,48 @@ public class RuleProxy implements InvocationHandler {
     }
   }
 
-  private List<Object> getActualParameters(Method method, Facts facts) {
-    List<Object> actualParameters = new ArrayList<>();
-    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-    for (Annotation[] annotations : parameterAnnotations) {
-      if (annotations.length == 1) {
-        String factName = ((Fact) (annotations[0])).value(); //validated upfront.
-        Object fact = facts.get(factName);
-        if (fact == null && !facts.asMap().containsKey(factName)) {
-          throw new NoSuchFactException(
-              format("No fact named '%s' found in known facts: %n%s", factName, facts), factName);
-        }
-        actualParameters.add(fact);
-      } else {
-        actualParameters.add(
-            facts); //validated upfront, there may be only one parameter not annotated and which is of type Facts.class
+  private Object[] getActualParameters(FactKey<?>[] factKeys, Facts facts) {
+    Object[] actualParameters = new Object[factKeys.length];
+    for (int index = 0; index < factKeys.length; index++) {
+      FactKey<?> factKey = factKeys[index];
+      if (factKey == null) {
+        //validated upfront, there may be only one parameter not annotated and which is of type Facts.class
+        actualParameters[index] = facts;
+        continue;
+      }
+      Object value = facts.get(factKey);
+      if (value == null) {
+        String factName = factKey.getName();
+        throw new NoSuchFactException(format("No fact named '%s' found", factName), factName);
       }
+      actualParameters[index] = value;
     }
     return actualParameters;
   }
 
+  /**
+   * Resolve the facts injected in the parameters of a method to fact keys once, rather than on
+   * every call. Parameters of type {@link Facts} have no key.
+   */
+  static FactKey<?>[] getFactKeys(Method method) {
+    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    FactKey<?>[] factKeys = new FactKey<?>[parameterAnnotations.length];
+    for (int index = 0; index < parameterAnnotations.length; index++) {
+      if (parameterAnnotations[index].length == 1) {
+        String factName = ((Fact) (parameterAnnotations[index][0])).value(); //validated upfront.
+        factKeys[index] = FactKey.of(factName, Object.class);
+      }
+    }
+    return factKeys;
+  }
+
+  private FactKey<?>[] getConditionFactKeys() {
+    if (this.conditionFactKeys == null) {
+      this.conditionFactKeys = getFactKeys(getConditionMethod());
+    }
+    return this.conditionFactKeys;
+  }
+
   private boolean equalsMethod(final Object[] args) throws Exception {
     if (!(args[0] instanceof io.homonoia.rules.api.Rule)) {
       return false;
@@ -320,6 +376,26 @@ public class RuleProxy implements InvocationHandler {
     return this.conditionMethod;
   }
 
+  private Set<String> getRequiredFacts() {
+    if (this.requiredFacts == null) {
+      Set<String> requiredFacts = new LinkedHashSet<>();
+      for (Annotation[] annotations : getConditionMethod().getParameterAnnotations()) {
+        if (annotations.length == 1) {
+          requiredFacts.add(((Fact) (annotations[0])).value()); //validated upfront.
+        }
+      }
+      this.requiredFacts = Collections.unmodifiableSet(requiredFacts);
+    }
+    return this.requiredFacts;
+  }
+
+  private boolean isPureCondition() {
+    if (this.pureCondition == null) {
+      this.pureCondition = getConditionMethod().getAnnotation(Condition.class).pure();
+    }
+    return this.pureCondition;
+  }
+
   private Set<ActionMethodOrderBean> getActionMethodBeans() {
     if (this.actionMethods == null) {
       this.actionMethods = new TreeSet<>();
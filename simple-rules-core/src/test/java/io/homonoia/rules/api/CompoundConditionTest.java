@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.homonoia.rules.api.CompoundCondition.Operator;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CompoundConditionTest {
+
+  private final Facts facts = new Facts();
+  private final List<String> evaluations = new ArrayList<>();
+
+  private final Condition a = condition("a", true);
+  private final Condition b = condition("b", false);
+  private final Condition c = condition("c", true);
+
+  @Test
+  public void combinatorsShouldBuildAnInspectableTree() {
+    // when
+    Condition condition = a.and(b.or(Condition.not(c)));
+
+    // then
+    assertThat(condition).isInstanceOf(CompoundCondition.class);
+    CompoundCondition compoundCondition = (CompoundCondition) condition;
+    assertThat(compoundCondition.getOperator()).isEqualTo(Operator.AND);
+    assertThat(compoundCondition.getOperands()).containsExactly(a, b.or(Condition.not(c)));
+  }
+
+  @Test
+  public void compoundConditionsShouldBeEvaluatedWithShortCircuits() {
+    assertThat(a.and(b).and(c).evaluate(facts)).isFalse();
+    assertThat(evaluations).containsExactly("a", "b");
+
+    evaluations.clear();
+    assertThat(b.or(a).or(c).evaluate(facts)).isTrue();
+    assertThat(evaluations).containsExactly("b", "a");
+  }
+
+  @Test
+  public void negationsShouldBePushedDownToConditions() {
+    assertThat(Condition.not(a.and(b)).evaluate(facts)).isTrue();
+    assertThat(Condition.not(a.or(b)).evaluate(facts)).isFalse();
+    assertThat(Condition.not(Condition.not(b)).evaluate(facts)).isFalse();
+    assertThat(Condition.not(b.or(Condition.not(c))).and(a).evaluate(facts)).isTrue();
+  }
+
+  @Test
+  public void simplifyShouldFlattenAndRemoveDuplicates() {
+    // when
+    Condition condition = Condition.allOf(a, Condition.allOf(b, a), Condition.TRUE).simplify();
+
+    // then
+    assertThat(condition).isEqualTo(Condition.allOf(a, b));
+  }
+
+  @Test
+  public void simplifyShouldFoldConstants() {
+    assertThat(a.and(Condition.FALSE).simplify()).isSameAs(Condition.FALSE);
+    assertThat(a.or(Condition.TRUE).simplify()).isSameAs(Condition.TRUE);
+    assertThat(Condition.not(Condition.TRUE).simplify()).isSameAs(Condition.FALSE);
+    assertThat(a.and(Condition.TRUE).simplify()).isSameAs(a);
+    assertThat(a.and(Condition.not(a)).simplify()).isSameAs(Condition.FALSE);
+    assertThat(a.or(Condition.not(a)).simplify()).isSameAs(Condition.TRUE);
+    assertThat(Condition.allOf().simplify()).isSameAs(Condition.TRUE);
+  }
+
+  @Test
+  public void simplifyShouldKeepTheDeclaredOrderOfOperands() {
+    // when
+    Condition condition = b.or(c).and(a).simplify();
+
+    // then
+    assertThat(((CompoundCondition) condition).getOperands()).containsExactly(b.or(c), a);
+  }
+
+  @Test
+  public void whenOrderedByCost_thenSimplifyShouldEvaluateCheaperOperandsFirst() {
+    // when
+    Condition condition = b.or(c).and(a).orderByCost().simplify();
+
+    // then
+    assertThat(((CompoundCondition) condition).getOperands()).containsExactly(a, b.or(c));
+  }
+
+  private Condition condition(String name, boolean result) {
+    return facts -> {
+      evaluations.add(name);
+      return result;
+    };
+  }
+}
@@ -25,8 +25,11 @@
 package io.homonoia.rules.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import org.junit.Test;
 
 public class FactsTest {
@@ -97,6 +100,117 @@ public class FactsTest {
     assertThat(retrievedFact).isEqualTo(fact);
   }
 
+  @Test
+  public void testContainsAll() {
+    facts.add(new Fact<>("foo", 1));
+    facts.add(new Fact<>("bar", 2));
+    assertThat(facts.containsAll(Arrays.asList("foo", "bar"))).isTrue();
+    assertThat(facts.containsAll(Arrays.asList("foo", "baz"))).isFalse();
+  }
+
+  @Test
+  public void testVersion() {
+    long version = facts.getVersion();
+    facts.put("foo", 1);
+    assertThat(facts.getVersion()).isGreaterThan(version);
+    version = facts.getVersion();
+    facts.remove("bar");
+    assertThat(facts.getVersion()).isEqualTo(version);
+    facts.remove("foo");
+    assertThat(facts.getVersion()).isGreaterThan(version);
+  }
+
+  @Test
+  public void testPutAndGetWithFactKey() {
+    FactKey<Integer> key = FactKey.of("foo", Integer.class);
+    facts.put(key, 1);
+    Integer value = facts.get(key);
+    assertThat(value).isEqualTo(1);
+    assertThat((Integer) facts.get("foo")).isEqualTo(1);
+
+    facts.put("foo", 2);
+    assertThat(facts.get(key)).isEqualTo(2);
+
+    facts.remove("foo");
+    assertThat(facts.get(key)).isNull();
+  }
+
+  @Test
+  public void testGetWithFactKeyCreatedAfterTheFact() {
+    facts.put("qux", "value");
+    assertThat(facts.get(FactKey.of("qux", String.class))).isEqualTo("value");
+  }
+
+  @Test
+  public void testGetWithFactKeyOfAnotherType() {
+    FactKey<String> key = FactKey.of("quux", String.class);
+    facts.put("quux", 1);
+    assertThatThrownBy(() -> facts.get(key)).isInstanceOf(ClassCastException.class);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFactKeyOfPrimitiveType() {
+    FactKey.of("foo", int.class);
+  }
+
+  @Test
+  public void testPrimitiveFacts() {
+    facts.putInt("count", 3);
+    facts.putLong("amount", 1500L);
+    facts.putDouble("score", 0.5);
+    facts.putBoolean("vip", true);
+
+    assertThat(facts.getInt("count")).isEqualTo(3);
+    assertThat(facts.getLong("amount")).isEqualTo(1500L);
+    assertThat(facts.getDouble("score")).isEqualTo(0.5);
+    assertThat(facts.getBoolean("vip")).isTrue();
+    assertThat(facts.getDouble("count")).isEqualTo(3.0);
+    assertThat(facts.getLong(FactKey.of("amount", Long.class))).isEqualTo(1500L);
+    assertThat((Object) facts.get("count")).isEqualTo(3);
+    assertThat(facts.asMap()).containsEntry("amount", 1500L).containsEntry("vip", true);
+  }
+
+  @Test
+  public void testPrimitiveFactsAreReadFromObjectFacts() {
+    facts.put("count", 3);
+    assertThat(facts.getLong("count")).isEqualTo(3L);
+    facts.put("name", "foo");
+    assertThatThrownBy(() -> facts.getInt("name")).isInstanceOf(ClassCastException.class);
+    assertThatThrownBy(() -> facts.getInt("missing")).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  public void testReplacedPrimitiveFactKeepsItsValue() {
+    FactKey<Long> key = FactKey.of("amount", Long.class);
+    facts.putLong("amount", 1L);
+    Fact<?> fact = facts.getFact("amount");
+    facts.putLong("amount", 2L);
+    assertThat(fact.getValue()).isEqualTo(2L);
+
+    facts.put("amount", "none");
+    assertThat(fact.getValue()).isEqualTo(2L);
+    assertThat((String) facts.get("amount")).isEqualTo("none");
+    assertThatThrownBy(() -> facts.getLong("amount")).isInstanceOf(ClassCastException.class);
+
+    facts.putLong("amount", 3L);
+    facts.remove("amount");
+    assertThat(facts.getFact("amount")).isNull();
+    assertThat(facts.contains(key)).isFalse();
+  }
+
+  @Test
+  public void testPrimitiveFactsWithoutKeyAreNotBoxed() {
+    facts.putInt("unkeyedCount", 3);
+    Fact<?> fact = facts.getFact("unkeyedCount");
+    facts.putInt("unkeyedCount", 4);
+
+    assertThat(facts.getFact("unkeyedCount")).isSameAs(fact);
+    assertThat(fact.getValue()).isEqualTo(4);
+    assertThat(facts.getInt("unkeyedCount")).isEqualTo(4);
+    assertThat(facts.getLong("unkeyedCount")).isEqualTo(4L);
+    assertThat(facts.get(FactKey.of("unkeyedCount", Integer.class))).isEqualTo(4);
+  }
+
   @Test
   public void testAsMap() {
     Fact<Integer> fact1 = new Fact<>("foo", 1);
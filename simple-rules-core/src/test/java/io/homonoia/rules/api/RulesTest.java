@@ -29,6 +29,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.homonoia.rules.annotation.Action;
 import io.homonoia.rules.annotation.Condition;
 import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.core.RuleBuilder;
 import java.util.HashSet;
 import java.util.Set;
 import org.junit.Test;
@@ -158,6 +159,26 @@ public class RulesTest {
     rules.register((Object) null);
   }
 
+  @Test
+  public void candidatesShouldBeTheRulesWhoseRequiredFactsArePresent() {
+    // given
+    Rule ab = new RuleBuilder().name("ab").priority(1).when(facts -> true).pure("a", "b").build();
+    Rule b = new RuleBuilder().name("b").priority(2).when(facts -> true).pure("b").build();
+    Rule none = new RuleBuilder().name("none").priority(3).when(facts -> true).build();
+    rules.register(none, b, ab);
+    Facts facts = new Facts();
+    facts.put("b", 1);
+    facts.put("c", 2);
+
+    // when
+    Iterable<Rule> candidates = rules.candidates(facts);
+
+    // then
+    assertThat(candidates).containsExactly(b, none);
+    facts.put("a", 3);
+    assertThat(rules.candidates(facts)).containsExactly(ab, b, none);
+  }
+
   @io.homonoia.rules.annotation.Rule
   static class DummyRule {
 
@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.homonoia.rules.annotation.Action;
+import io.homonoia.rules.annotation.Condition;
+import io.homonoia.rules.annotation.Fact;
+import io.homonoia.rules.annotation.Rule;
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rules;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConditionCacheTest {
+
+  private ConditionCache cache;
+  private DefaultRulesEngine rulesEngine;
+  private Facts facts;
+
+  @Before
+  public void setUp() {
+    cache = new ConditionCache(2, Duration.ofMinutes(1));
+    rulesEngine = new DefaultRulesEngine();
+    rulesEngine.setConditionCache(cache);
+    facts = new Facts();
+    facts.put("product", "book");
+    facts.put("region", "EU");
+  }
+
+  @Test
+  public void whenAPureConditionIsCheckedWithTheSameFactValues_thenItsResultShouldBeCached() {
+    // given
+    AtomicInteger evaluations = new AtomicInteger();
+    Rules rules = new Rules(new RuleBuilder()
+        .when(facts -> evaluations.incrementAndGet() > 0)
+        .pure("product", "region")
+        .build());
+
+    // when
+    rulesEngine.check(rules, facts);
+    rulesEngine.check(rules, facts);
+    facts.put("region", "US");
+    rulesEngine.check(rules, facts);
+
+    // then
+    assertThat(evaluations).hasValue(2);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void whenAConditionIsNotPure_thenItsResultShouldNotBeCached() {
+    // given
+    AtomicInteger evaluations = new AtomicInteger();
+    Rules rules = new Rules(new RuleBuilder()
+        .when(facts -> evaluations.incrementAndGet() > 0)
+        .build());
+
+    // when
+    rulesEngine.check(rules, facts);
+    rulesEngine.check(rules, facts);
+
+    // then
+    assertThat(evaluations).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void whenAnAnnotatedConditionIsPure_thenItsResultShouldBeCached() {
+    // given
+    PricingRule rule = new PricingRule();
+    Rules rules = new Rules(rule);
+
+    // when
+    rulesEngine.check(rules, facts);
+    rulesEngine.check(rules, facts);
+
+    // then
+    assertThat(rule.evaluations).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void whenTheCacheIsFull_thenTheLeastRecentlyUsedResultShouldBeEvicted() {
+    // given
+    Object first = ConditionCache.key(this, new Object[]{1});
+    Object second = ConditionCache.key(this, new Object[]{2});
+    Object third = ConditionCache.key(this, new Object[]{3});
+    cache.put(first, true);
+    cache.put(second, false);
+    cache.get(first);
+
+    // when
+    cache.put(third, true);
+
+    // then
+    assertThat(cache.get(first)).isTrue();
+    assertThat(cache.get(second)).isNull();
+    assertThat(cache.get(third)).isTrue();
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void whenAResultHasExpired_thenItShouldBeEvicted() throws Exception {
+    // given
+    cache = new ConditionCache(2, Duration.ofMillis(1));
+    Object key = ConditionCache.key(this, new Object[]{1});
+    cache.put(key, true);
+
+    // when
+    Thread.sleep(10);
+
+    // then
+    assertThat(cache.get(key)).isNull();
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void whenTheCacheIsUsedConcurrently_thenItShouldHoldAtMostItsMaximumSize()
+      throws Exception {
+    // given
+    cache = new ConditionCache(1000, Duration.ofMinutes(1));
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int task = 0; task < 4; task++) {
+      int offset = task * 1000;
+      tasks.add(() -> {
+        for (int value = offset; value < offset + 1000; value++) {
+          Object key = ConditionCache.key(this, new Object[]{value});
+          cache.put(key, true);
+          cache.get(key);
+        }
+        return null;
+      });
+    }
+
+    // when
+    for (Future<Void> future : executorService.invokeAll(tasks)) {
+      future.get();
+    }
+    executorService.shutdown();
+
+    // then
+    assertThat(cache.size()).isEqualTo(1000);
+    assertThat(cache.getEvictionCount()).isEqualTo(3000);
+    assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(4000);
+  }
+
+  @Test
+  public void cacheShouldBeBounded() {
+    assertThatThrownBy(() -> new ConditionCache(0, Duration.ofMinutes(1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new ConditionCache(1, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Rule
+  public static class PricingRule {
+
+    private int evaluations;
+
+    @Condition(pure = true)
+    public boolean when(@Fact("product") String product, @Fact("region") String region) {
+      evaluations++;
+      return product.equals("book");
+    }
+
+    @Action
+    public void then() {
+    }
+  }
+}
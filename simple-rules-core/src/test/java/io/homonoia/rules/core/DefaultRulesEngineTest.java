@@ -42,8 +42,11 @@ import io.homonoia.rules.api.RuleListener;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.api.RulesEngineListener;
 import io.homonoia.rules.api.RulesEngineParameters;
+import io.homonoia.rules.api.RulesEngineTracer;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.assertj.core.api.Assertions;
 import org.junit.After;
 import org.junit.Before;
@@ -59,6 +62,9 @@ public class DefaultRulesEngineTest extends AbstractTest {
   @Mock
   private RulesEngineListener rulesEngineListener;
 
+  @Mock
+  private RulesEngineTracer tracer;
+
   private AnnotatedRule annotatedRule;
 
   @Before
@@ -89,6 +95,39 @@ public class DefaultRulesEngineTest extends AbstractTest {
     rulesEngine.check(new Rules(), null);
   }
 
+  @Test
+  public void whenARequiredFactIsMissing_thenRuleShouldNotBeEvaluated() throws Exception {
+    // Given
+    when(rule1.getRequiredFacts()).thenReturn(Collections.singleton("missing"));
+    rules.register(rule1);
+
+    // When
+    rulesEngine.fire(rules, facts);
+
+    // Then
+    verify(rule1, never()).evaluate(facts);
+    verify(rule1, never()).execute(facts);
+  }
+
+  @Test
+  public void whenConditionsAreMemoized_thenASharedConditionShouldBeEvaluatedOncePerFactsChange() {
+    // Given
+    AtomicInteger evaluations = new AtomicInteger();
+    io.homonoia.rules.api.Condition condition = facts -> evaluations.incrementAndGet() > 0;
+    rules.register(new RuleBuilder().name("a").priority(1).when(condition).build());
+    rules.register(new RuleBuilder().name("b").priority(2).when(condition)
+        .then(facts -> facts.put("foo", "bar")).build());
+    rules.register(new RuleBuilder().name("c").priority(3).when(condition).build());
+    rulesEngine = new DefaultRulesEngine(new RulesEngineParameters().memoizeConditions(true));
+
+    // When
+    rulesEngine.fire(rules, facts);
+
+    // Then
+    // evaluated for rule a, memoized for rule b and evaluated again for rule c after b's action
+    assertThat(evaluations).hasValue(2);
+  }
+
   @Test
   public void whenConditionIsTrue_thenActionShouldBeExecuted() throws Exception {
     // Given
@@ -308,6 +347,49 @@ public class DefaultRulesEngineTest extends AbstractTest {
         .isInstanceOf(UnsupportedOperationException.class);
   }
 
+  @Test
+  public void tracerShouldBeNotifiedOfRuleEvaluationAndExecution() throws Exception {
+    // Given
+    when(rule1.evaluate(facts)).thenReturn(true);
+    when(rule2.evaluate(facts)).thenReturn(false);
+    when(rule2.compareTo(rule1)).thenReturn(1);
+    rules.register(rule1);
+    rules.register(rule2);
+    rulesEngine.setTracer(tracer);
+
+    // When
+    rulesEngine.fire(rules, facts);
+
+    // Then
+    InOrder inOrder = inOrder(tracer);
+    inOrder.verify(tracer).onFireStarted(rulesEngine.parameters, rules, facts);
+    inOrder.verify(tracer).onRuleTriggered(rule1);
+    inOrder.verify(tracer).onRuleExecuted(rule1);
+    inOrder.verify(tracer).onRuleNotTriggered(rule2);
+  }
+
+  @Test
+  public void tracerShouldBeNotifiedWhenRemainingRulesAreSkipped() throws Exception {
+    // Given
+    when(rule1.evaluate(facts)).thenReturn(true);
+    rules.register(rule1);
+    DefaultRulesEngine rulesEngine = new DefaultRulesEngine(
+        new RulesEngineParameters().skipOnFirstAppliedRule(true));
+    rulesEngine.setTracer(tracer);
+
+    // When
+    rulesEngine.fire(rules, facts);
+
+    // Then
+    verify(tracer).onRemainingRulesSkipped("skipOnFirstAppliedRule");
+  }
+
+  @Test
+  public void setTracerShouldNotAcceptNull() {
+    assertThatThrownBy(() -> rulesEngine.setTracer(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
   @After
   public void clearRules() {
     rules.clear();
@@ -0,0 +1,283 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import static io.homonoia.rules.api.FactConstraint.greaterThan;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.api.RulesEngineParameters;
+import io.homonoia.rules.api.RulesSession;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultRulesSessionTest {
+
+  private final AtomicInteger evaluations = new AtomicInteger();
+  private final AtomicInteger executions = new AtomicInteger();
+  private RulesSession session;
+
+  @Before
+  public void setUp() {
+    Rule heatRule = new RuleBuilder()
+        .name("heat")
+        .constraint(greaterThan("temperature", 30))
+        .when(facts -> {
+          evaluations.incrementAndGet();
+          return facts.<Integer>get("temperature") > 30;
+        })
+        .then(facts -> executions.incrementAndGet())
+        .build();
+    session = new DefaultRulesEngine().newSession(new Rules(heatRule));
+  }
+
+  @Test
+  public void activationsShouldFireOnlyOnce() {
+    // given
+    session.insert("temperature", 35);
+
+    // when
+    int firstFire = session.fire();
+    int secondFire = session.fire();
+
+    // then
+    assertThat(firstFire).isEqualTo(1);
+    assertThat(secondFire).isZero();
+    assertThat(executions).hasValue(1);
+  }
+
+  @Test
+  public void onlyRulesDependingOnChangedFactsShouldBeEvaluatedAgain() {
+    // given
+    session.insert("temperature", 35);
+    session.fire();
+
+    // when
+    session.insert("humidity", 80);
+    session.fire();
+
+    // then
+    assertThat(evaluations).hasValue(1);
+    assertThat(executions).hasValue(1);
+
+    // when
+    session.update("temperature", 36);
+    session.fire();
+
+    // then
+    assertThat(evaluations).hasValue(2);
+    assertThat(executions).hasValue(2);
+  }
+
+  @Test
+  public void retractedFactsShouldDeactivateRules() {
+    // given
+    session.insert("temperature", 35);
+    session.retract("temperature");
+
+    // when
+    int fired = session.fire();
+
+    // then
+    assertThat(fired).isZero();
+    assertThat(evaluations).hasValue(0);
+  }
+
+  @Test
+  public void rulesWithoutDependenciesShouldNotBeReactivatedByTheirOwnActions() {
+    // given
+    Rule counter = new RuleBuilder()
+        .name("counter")
+        .when(facts -> true)
+        .then(facts -> facts.put("count", executions.incrementAndGet()))
+        .build();
+    RulesSession counterSession = new DefaultRulesEngine().newSession(new Rules(counter));
+
+    // when
+    int fired = counterSession.fire();
+
+    // then
+    assertThat(fired).isEqualTo(1);
+    assertThat(counterSession.getFacts().<Integer>get("count")).isEqualTo(1);
+  }
+
+  @Test
+  public void rulesShouldNotBeReactivatedByChangesToTheirOwnFacts() {
+    // given
+    Rule warming = new RuleBuilder()
+        .name("warming")
+        .constraint(greaterThan("temperature", 30))
+        .when(facts -> facts.<Integer>get("temperature") > 30)
+        .then(facts -> facts.put("temperature", executions.incrementAndGet() + 40))
+        .build();
+    RulesSession warmingSession = new DefaultRulesEngine().newSession(new Rules(warming));
+    warmingSession.insert("temperature", 35);
+
+    // when
+    int fired = warmingSession.fire();
+
+    // then
+    assertThat(fired).isEqualTo(1);
+    assertThat(warmingSession.getFacts().<Integer>get("temperature")).isEqualTo(41);
+
+    // when
+    warmingSession.update("temperature", 36);
+
+    // then
+    assertThat(warmingSession.fire()).isEqualTo(1);
+  }
+
+  @Test
+  public void rulesThatDoNotLoopShouldFireOnlyOnce() {
+    // given
+    Rule heatOnce = new RuleBuilder()
+        .name("heatOnce")
+        .loop(false)
+        .constraint(greaterThan("temperature", 30))
+        .when(facts -> facts.<Integer>get("temperature") > 30)
+        .then(facts -> executions.incrementAndGet())
+        .build();
+    RulesSession onceSession = new DefaultRulesEngine().newSession(new Rules(heatOnce));
+    onceSession.insert("temperature", 35);
+    onceSession.fire();
+
+    // when
+    onceSession.update("temperature", 36);
+    int fired = onceSession.fire();
+
+    // then
+    assertThat(fired).isZero();
+    assertThat(executions).hasValue(1);
+  }
+
+  @Test
+  public void firingShouldStopAtTheFirstNonTriggeredRuleWhenRequested() {
+    // given
+    Rule cold = new RuleBuilder()
+        .name("cold")
+        .priority(1)
+        .when(facts -> facts.<Integer>get("temperature") < 10)
+        .then(facts -> executions.incrementAndGet())
+        .build();
+    Rule any = new RuleBuilder()
+        .name("any")
+        .priority(2)
+        .when(facts -> true)
+        .then(facts -> executions.incrementAndGet())
+        .build();
+    RulesEngineParameters parameters = new RulesEngineParameters()
+        .skipOnFirstNonTriggeredRule(true);
+    RulesSession skippingSession = new DefaultRulesEngine(parameters)
+        .newSession(new Rules(cold, any));
+    skippingSession.insert("temperature", 35);
+
+    // when
+    int fired = skippingSession.fire();
+
+    // then
+    assertThat(fired).isZero();
+  }
+
+  @Test
+  public void factsShouldBeInsertedOnlyOnce() {
+    session.insert("temperature", 35);
+
+    assertThatThrownBy(() -> session.insert("temperature", 36))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Fact 'temperature' is already present");
+    assertThatThrownBy(() -> session.update("humidity", 80))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("No fact named 'humidity' found");
+  }
+
+  @Test
+  public void fireUntilHaltShouldFireRulesAsFactsChange() throws Exception {
+    // given
+    CompletableFuture<Void> firing = CompletableFuture.runAsync(() -> {
+      try {
+        session.fireUntilHalt();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    // when
+    session.insert("temperature", 35);
+    while (executions.get() == 0) {
+      Thread.sleep(10);
+    }
+    session.halt();
+
+    // then
+    firing.get(5, TimeUnit.SECONDS);
+    assertThat(executions).hasValue(1);
+  }
+
+  @Test
+  public void haltShouldStopFiringWithoutWaitingForTheBatch() throws Exception {
+    // given
+    CountDownLatch firstRuleFiring = new CountDownLatch(1);
+    CountDownLatch halted = new CountDownLatch(1);
+    Rule first = new RuleBuilder()
+        .name("first")
+        .priority(1)
+        .when(facts -> true)
+        .then(facts -> {
+          firstRuleFiring.countDown();
+          // halt returns while this batch is being fired
+          halted.await(5, TimeUnit.SECONDS);
+          executions.incrementAndGet();
+        })
+        .build();
+    Rule second = new RuleBuilder()
+        .name("second")
+        .priority(2)
+        .when(facts -> true)
+        .then(facts -> executions.incrementAndGet())
+        .build();
+    RulesSession batch = new DefaultRulesEngine().newSession(new Rules(first, second));
+    CompletableFuture<Void> firing = CompletableFuture.runAsync(() -> {
+      try {
+        batch.fireUntilHalt();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    // when
+    assertThat(firstRuleFiring.await(5, TimeUnit.SECONDS)).isTrue();
+    batch.halt();
+    halted.countDown();
+
+    // then
+    firing.get(5, TimeUnit.SECONDS);
+    assertThat(executions).hasValue(1);
+  }
+}
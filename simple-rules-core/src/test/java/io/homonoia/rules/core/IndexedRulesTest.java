@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.core;
+
+import static io.homonoia.rules.api.FactConstraint.atLeast;
+import static io.homonoia.rules.api.FactConstraint.between;
+import static io.homonoia.rules.api.FactConstraint.equalTo;
+import static io.homonoia.rules.api.FactConstraint.lessThan;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.FactConstraint;
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.RuleListener;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedRulesTest {
+
+  private Rule usRetail, euRetail, euWholesale, minor, adult, senior, unconstrained;
+  private IndexedRules rules;
+
+  @Before
+  public void setUp() {
+    usRetail = rule("usRetail", 1, equalTo("region", "US"), equalTo("type", "retail"));
+    euRetail = rule("euRetail", 2, equalTo("region", "EU"), equalTo("type", "retail"));
+    euWholesale = rule("euWholesale", 3, equalTo("type", "wholesale"), equalTo("region", "EU"));
+    minor = rule("minor", 4, lessThan("age", 18));
+    adult = rule("adult", 5, between("age", 18, 64));
+    senior = rule("senior", 6, atLeast("age", 65));
+    unconstrained = rule("unconstrained", 7);
+    rules = new IndexedRules(usRetail, euRetail, euWholesale, minor, adult, senior, unconstrained);
+  }
+
+  @Test
+  public void candidatesShouldBeSelectedByEqualityConstraints() {
+    // given
+    Facts facts = new Facts();
+    facts.put("region", "EU");
+    facts.put("type", "retail");
+
+    // when
+    Iterable<Rule> candidates = rules.candidates(facts);
+
+    // then
+    assertThat(candidates).containsExactly(euRetail, unconstrained);
+  }
+
+  @Test
+  public void candidatesShouldBeSelectedByRangeConstraints() {
+    // given
+    Facts facts = new Facts();
+    facts.put("age", 65L);
+
+    // when
+    Iterable<Rule> candidates = rules.candidates(facts);
+
+    // then
+    assertThat(candidates).containsExactly(senior, unconstrained);
+  }
+
+  @Test
+  public void rangeBoundsShouldBeHonored() {
+    Facts facts = new Facts();
+
+    facts.put("age", 18);
+    assertThat(rules.candidates(facts)).containsExactly(adult, unconstrained);
+
+    facts.put("age", 17.5);
+    assertThat(rules.candidates(facts)).containsExactly(minor, unconstrained);
+
+    facts.put("age", "unknown");
+    assertThat(rules.candidates(facts)).containsExactly(unconstrained);
+  }
+
+  @Test
+  public void overlappingRangesShouldAllBeCandidates() {
+    // given
+    Rule teenager = rule("teenager", 8, between("age", 13, 19));
+    Rule voter = rule("voter", 9, atLeast("age", 18));
+    rules.register(teenager, voter);
+    Facts facts = new Facts();
+    facts.put("age", 18);
+
+    // when
+    Iterable<Rule> candidates = rules.candidates(facts);
+
+    // then
+    assertThat(candidates).containsExactly(adult, unconstrained, teenager, voter);
+  }
+
+  @Test
+  public void integralConstraintsShouldMatchFloatingPointFacts() {
+    // given
+    Rule ten = rule("ten", 0, equalTo("count", 10));
+    rules.register(ten);
+    Facts facts = new Facts();
+    facts.put("count", 10.0);
+
+    // when
+    Iterable<Rule> candidates = rules.candidates(facts);
+
+    // then
+    assertThat(candidates).containsExactly(ten, unconstrained);
+  }
+
+  @Test
+  public void rulesConstrainedOnMissingFactsShouldNotBeCandidates() {
+    // given
+    Facts facts = new Facts();
+    facts.put("region", "US");
+
+    // when
+    Iterable<Rule> candidates = rules.candidates(facts);
+
+    // then
+    assertThat(candidates).containsExactly(unconstrained);
+  }
+
+  @Test
+  public void indexShouldBeRebuiltWhenRulesChange() {
+    // given
+    Facts facts = new Facts();
+    facts.put("region", "EU");
+    facts.put("type", "wholesale");
+    assertThat(rules.candidates(facts)).containsExactly(euWholesale, unconstrained);
+
+    // when
+    rules.unregister(euWholesale);
+    Rule any = rule("any", 0, equalTo("type", "wholesale"));
+    rules.register(any);
+
+    // then
+    assertThat(rules.candidates(facts)).containsExactly(any, unconstrained);
+  }
+
+  @Test
+  public void rulesWithMissingRequiredFactsShouldNotBeCandidates() {
+    // given
+    Rule usRetailCustomer = new RuleBuilder().name("usRetailCustomer").priority(0)
+        .when(Condition.TRUE).pure("customer").constraint(equalTo("region", "US")).build();
+    rules.register(usRetailCustomer);
+    Facts facts = new Facts();
+    facts.put("region", "US");
+    facts.put("type", "retail");
+    assertThat(rules.candidates(facts)).containsExactly(usRetail, unconstrained);
+
+    // when
+    facts.put("customer", "acme");
+
+    // then
+    assertThat(rules.candidates(facts)).containsExactly(usRetailCustomer, usRetail, unconstrained);
+  }
+
+  @Test
+  public void onlyCandidateRulesShouldBeEvaluatedByTheEngine() {
+    // given
+    Facts facts = new Facts();
+    facts.put("region", "US");
+    facts.put("type", "retail");
+    facts.put("age", 30);
+    List<String> evaluatedRules = new ArrayList<>();
+    DefaultRulesEngine rulesEngine = new DefaultRulesEngine();
+    rulesEngine.registerRuleListener(new RuleListener() {
+      @Override
+      public void afterEvaluate(Rule rule, Facts facts, boolean evaluationResult) {
+        evaluatedRules.add(rule.getName());
+      }
+    });
+
+    // when
+    rulesEngine.fire(rules, facts);
+
+    // then
+    assertThat(evaluatedRules).containsExactly("usRetail", "adult", "unconstrained");
+  }
+
+  private static Rule rule(String name, int priority, FactConstraint... constraints) {
+    RuleBuilder builder = new RuleBuilder().name(name).priority(priority).when(Condition.TRUE);
+    for (FactConstraint constraint : constraints) {
+      builder.constraint(constraint);
+    }
+    return builder.build();
+  }
+}
@@ -28,6 +28,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.homonoia.rules.api.Action;
 import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.Fact;
+import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -77,4 +79,45 @@ public class RuleBuilderTest {
     assertThat(rule).extracting("condition").isSameAs(condition);
     assertThat(rule).extracting("actions").asList().containsExactly(action1, action2);
   }
+
+  @Test
+  public void testPrimitiveConditions() {
+    // given
+    Facts facts = new Facts();
+    facts.putLong("amount", 1500L);
+    facts.putDouble("score", 0.4);
+    facts.putBoolean("vip", true);
+
+    // when
+    Rule largeAmount = new RuleBuilder().whenLong("amount", amount -> amount > 1000).build();
+    Rule highScore = new RuleBuilder().whenDouble("score", score -> score > 0.5).build();
+    Rule vip = new RuleBuilder().whenTrue("vip").build();
+    Rule missing = new RuleBuilder().whenInt("missing", value -> true).build();
+
+    // then
+    assertThat(largeAmount.evaluate(facts)).isTrue();
+    assertThat(highScore.evaluate(facts)).isFalse();
+    assertThat(vip.evaluate(facts)).isTrue();
+    assertThat(missing.evaluate(facts)).isFalse();
+  }
+
+  @Test
+  public void whenPrimitiveFactsArePutBeforeTheRuleIsBuilt_thenTheyShouldBeReadUnboxed() {
+    // given
+    Facts facts = new Facts();
+    facts.putInt("retries", 2);
+    Fact<?> retries = facts.getFact("retries");
+    Rule tooManyRetries = new RuleBuilder().whenInt("retries", value -> value > 2).build();
+
+    // when
+    boolean before = tooManyRetries.evaluate(facts);
+    facts.putInt("retries", 3);
+    boolean after = tooManyRetries.evaluate(facts);
+
+    // then
+    assertThat(before).isFalse();
+    assertThat(after).isTrue();
+    assertThat(facts.getFact("retries")).isSameAs(retries);
+    assertThat(retries.getValue()).isEqualTo(3);
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.jexl;
+
+import io.homonoia.rules.api.Facts;
+import org.apache.commons.jexl3.JexlContext;
+
+/**
+ * {@link JexlContext} reading and writing {@link Facts} directly, without copying them into a map.
+ * Setting a variable puts (or removes, for a null value) the fact with the same name.
+ */
+final class FactsContext implements JexlContext {
+
+  private final Facts facts;
+
+  FactsContext(Facts facts) {
+    this.facts = facts;
+  }
+
+  @Override
+  public Object get(String name) {
+    return facts.get(name);
+  }
+
+  @Override
+  public void set(String name, Object value) {
+    if (value != null) {
+      facts.put(name, value);
+    } else {
+      facts.remove(name);
+    }
+  }
+
+  @Override
+  public boolean has(String name) {
+    return facts.getFact(name) != null;
+  }
+}
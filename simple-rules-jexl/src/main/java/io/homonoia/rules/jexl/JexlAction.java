@@ -26,11 +26,11 @@ package io.homonoia.rules.jexl;
 
 import io.homonoia.rules.api.Action;
 import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.support.ExpressionCache;
 import java.util.Objects;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlScript;
-import org.apache.commons.jexl3.MapContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,14 +56,21 @@ public class JexlAction implements Action {
     this.compiledScript = jexl.createScript(expression);
   }
 
+  public JexlAction(String expression, JexlEngine jexl,
+      ExpressionCache<JexlScript> expressionCache) {
+    this.expression = Objects.requireNonNull(expression, "expression cannot be null");
+    Objects.requireNonNull(jexl, "jexl cannot be null");
+    Objects.requireNonNull(expressionCache, "expressionCache cannot be null");
+    this.compiledScript = expressionCache.get(jexl, expression, jexl::createScript);
+  }
+
   @Override
   public void execute(Facts facts) {
     Objects.requireNonNull(facts, "facts cannot be null");
-    MapContext ctx = new MapContext(facts.asMap());
     try {
-      compiledScript.execute(ctx);
+      compiledScript.execute(new FactsContext(facts));
     } catch (JexlException e) {
-      LOGGER.error("Unable to execute expression: '" + expression + "' on facts: " + facts, e);
+      LOGGER.error("Unable to execute expression: '{}' on facts: {}", expression, facts, e);
       throw e;
     }
   }
@@ -26,10 +26,14 @@ package io.homonoia.rules.jexl;
 
 import io.homonoia.rules.api.Condition;
 import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.support.ExpressionCache;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlScript;
-import org.apache.commons.jexl3.MapContext;
 
 /**
  * @author Lauri Kimmel
@@ -38,6 +42,7 @@ import org.apache.commons.jexl3.MapContext;
 public class JexlCondition implements Condition {
 
   private final JexlScript compiledScript;
+  private Set<String> referencedFacts;
 
   public JexlCondition(String expression) {
     Objects.requireNonNull(expression, "expression cannot be null");
@@ -50,10 +55,36 @@ public class JexlCondition implements Condition {
     this.compiledScript = jexl.createScript(expression);
   }
 
+  public JexlCondition(String expression, JexlEngine jexl,
+      ExpressionCache<JexlScript> expressionCache) {
+    Objects.requireNonNull(expression, "expression cannot be null");
+    Objects.requireNonNull(jexl, "jexl cannot be null");
+    Objects.requireNonNull(expressionCache, "expressionCache cannot be null");
+    this.compiledScript = expressionCache.get(jexl, expression, jexl::createScript);
+  }
+
+  /**
+   * Return the names of the facts referenced by the condition, that is the global variables of the
+   * script.
+   *
+   * @return names of the referenced facts
+   */
+  public Set<String> getReferencedFacts() {
+    if (referencedFacts == null) {
+      Set<String> names = new LinkedHashSet<>();
+      for (List<String> variable : compiledScript.getVariables()) {
+        names.add(variable.get(0));
+      }
+      referencedFacts = Collections.unmodifiableSet(names);
+    }
+    return referencedFacts;
+  }
+
   @Override
   public boolean evaluate(Facts facts) {
     Objects.requireNonNull(facts, "facts cannot be null");
-    MapContext ctx = new MapContext(facts.asMap());
-    return (Boolean) compiledScript.execute(ctx);
+    Object result = compiledScript.execute(new FactsContext(facts));
+    // a silent engine yields null instead of throwing
+    return result != null && (Boolean) result;
   }
 }
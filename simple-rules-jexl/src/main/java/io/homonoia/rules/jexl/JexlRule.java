@@ -29,31 +29,46 @@ import io.homonoia.rules.api.Condition;
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.support.Compilable;
+import io.homonoia.rules.support.ExpressionCache;
+import io.homonoia.rules.support.LazyAction;
+import io.homonoia.rules.support.LazyCondition;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
 
 /**
  * @author Lauri Kimmel
  * @author Mahmoud Ben Hassine
  */
-public class JexlRule extends BasicRule {
+public class JexlRule extends BasicRule implements Compilable {
 
   static final JexlEngine DEFAULT_JEXL = new JexlBuilder().create();
 
   private Condition condition = Condition.FALSE;
   private final List<Action> actions = new ArrayList<>();
+  private boolean lazy;
+  private boolean inferRequiredFacts;
   private final JexlEngine jexl;
+  private final ExpressionCache<JexlScript> expressionCache;
 
   public JexlRule() {
     this(DEFAULT_JEXL);
   }
 
   public JexlRule(JexlEngine jexl) {
+    this(jexl, null);
+  }
+
+  public JexlRule(JexlEngine jexl, ExpressionCache<JexlScript> expressionCache) {
     super(Rule.DEFAULT_NAME, Rule.DEFAULT_DESCRIPTION, Rule.DEFAULT_PRIORITY, Rule.DEFAULT_LOOP);
     this.jexl = Objects.requireNonNull(jexl, "jexl cannot be null");
+    this.expressionCache = expressionCache;
   }
 
   public JexlRule name(String name) {
@@ -76,18 +91,62 @@ public class JexlRule extends BasicRule {
     return this;
   }
 
+  public JexlRule lazy(boolean lazy) {
+    this.lazy = lazy;
+    return this;
+  }
+
+  public JexlRule inferRequiredFacts(boolean inferRequiredFacts) {
+    this.inferRequiredFacts = inferRequiredFacts;
+    return this;
+  }
+
   public JexlRule when(String condition) {
     Objects.requireNonNull(condition, "condition cannot be null");
-    this.condition = new JexlCondition(condition, jexl);
+    this.condition = lazy
+        ? new LazyCondition(() -> compileCondition(condition))
+        : compileCondition(condition);
     return this;
   }
 
   public JexlRule then(String action) {
     Objects.requireNonNull(action, "action cannot be null");
-    this.actions.add(new JexlAction(action, jexl));
+    this.actions.add(lazy
+        ? new LazyAction(() -> compileAction(action))
+        : compileAction(action));
     return this;
   }
 
+  @Override
+  public Set<String> getRequiredFacts() {
+    if (!inferRequiredFacts) {
+      return Collections.emptySet();
+    }
+    Condition compiled = condition;
+    if (condition instanceof LazyCondition) {
+      LazyCondition lazyCondition = (LazyCondition) condition;
+      // checking required facts must not compile the rule, which is evaluated until it is compiled
+      if (!lazyCondition.isCompiled()) {
+        return Collections.emptySet();
+      }
+      compiled = lazyCondition.getCondition();
+    }
+    return compiled instanceof JexlCondition
+        ? ((JexlCondition) compiled).getReferencedFacts() : Collections.emptySet();
+  }
+
+  @Override
+  public void compile() {
+    if (condition instanceof Compilable) {
+      ((Compilable) condition).compile();
+    }
+    for (Action action : actions) {
+      if (action instanceof Compilable) {
+        ((Compilable) action).compile();
+      }
+    }
+  }
+
   @Override
   public boolean evaluate(Facts facts) {
     Objects.requireNonNull(facts, "facts cannot be null");
@@ -105,4 +164,16 @@ public class JexlRule extends BasicRule {
       action.execute(facts);
     }
   }
+
+  private Condition compileCondition(String condition) {
+    return expressionCache != null
+        ? new JexlCondition(condition, jexl, expressionCache)
+        : new JexlCondition(condition, jexl);
+  }
+
+  private Action compileAction(String action) {
+    return expressionCache != null
+        ? new JexlAction(action, jexl, expressionCache)
+        : new JexlAction(action, jexl);
+  }
 }
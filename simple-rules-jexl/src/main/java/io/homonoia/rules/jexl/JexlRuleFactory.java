@@ -27,12 +27,17 @@ package io.homonoia.rules.jexl;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.support.AbstractRuleFactory;
+import io.homonoia.rules.support.ExpressionCache;
+import io.homonoia.rules.support.RuleCreationException;
 import io.homonoia.rules.support.RuleDefinition;
 import io.homonoia.rules.support.reader.RuleDefinitionReader;
 import java.io.Reader;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
 
 /**
  * @author Lauri Kimmel
@@ -42,14 +47,73 @@ public class JexlRuleFactory extends AbstractRuleFactory {
 
   private final RuleDefinitionReader reader;
   private final JexlEngine jexl;
+  private final ExpressionCache<JexlScript> expressionCache;
+  private boolean inferRequiredFacts;
 
   public JexlRuleFactory(RuleDefinitionReader reader) {
     this(reader, JexlRule.DEFAULT_JEXL);
   }
 
   public JexlRuleFactory(RuleDefinitionReader reader, JexlEngine jexl) {
+    this(reader, jexl, new ExpressionCache<>());
+  }
+
+  public JexlRuleFactory(RuleDefinitionReader reader, JexlEngine jexl,
+      ExpressionCache<JexlScript> expressionCache) {
     this.reader = Objects.requireNonNull(reader, "reader cannot be null");
     this.jexl = Objects.requireNonNull(jexl, "Jexl Engine cannot be null");
+    this.expressionCache = Objects.requireNonNull(expressionCache,
+        "expressionCache cannot be null");
+  }
+
+  /**
+   * Create a new {@link JexlRuleFactory} using an engine created with {@link #createEngine(int,
+   * boolean, boolean)}.
+   *
+   * @param reader    used to read rule definitions
+   * @param cacheSize number of parsed scripts cached by the engine
+   * @param strict    whether undefined variables and null operands are errors
+   * @param silent    whether evaluation errors are logged instead of thrown
+   */
+  public JexlRuleFactory(RuleDefinitionReader reader, int cacheSize, boolean strict,
+      boolean silent) {
+    this(reader, createEngine(cacheSize, strict, silent));
+  }
+
+  /**
+   * Create a JEXL engine for rules. Identical condition and action expressions share the same
+   * parsed script when the cache is enabled, which speeds up loading of large rule sets.
+   * <p>
+   * In silent mode, conditions that fail to evaluate are considered false and actions that fail to
+   * execute are ignored.
+   *
+   * @param cacheSize number of parsed scripts cached by the engine, 0 to disable caching
+   * @param strict    whether undefined variables and null operands are errors
+   * @param silent    whether evaluation errors are logged instead of thrown
+   * @return a new JEXL engine
+   */
+  public static JexlEngine createEngine(int cacheSize, boolean strict, boolean silent) {
+    return new JexlBuilder()
+        .cache(cacheSize)
+        .strict(strict)
+        .silent(silent)
+        .create();
+  }
+
+  public ExpressionCache<JexlScript> getExpressionCache() {
+    return expressionCache;
+  }
+
+  /**
+   * Set whether the facts referenced by the condition of created rules are required, in which
+   * case rules engines do not evaluate a rule when one of them is missing. Lazy rules require no
+   * facts until their condition is compiled.
+   *
+   * @param inferRequiredFacts true to require the facts referenced by rule conditions
+   * @see JexlRule#inferRequiredFacts(boolean)
+   */
+  public void setInferRequiredFacts(boolean inferRequiredFacts) {
+    this.inferRequiredFacts = inferRequiredFacts;
   }
 
   public Rule createRule(Reader ruleDescriptor) throws Exception {
@@ -64,22 +128,39 @@ public class JexlRuleFactory extends AbstractRuleFactory {
 
   public Rules createRules(Reader rulesDescriptor) throws Exception {
     Objects.requireNonNull(rulesDescriptor, "rulesDescriptor cannot be null");
-    Rules rules = new Rules();
-    List<RuleDefinition> ruleDefinitions = reader.read(rulesDescriptor);
-    for (RuleDefinition ruleDefinition : ruleDefinitions) {
-      rules.register(createRule(ruleDefinition));
-    }
-    return rules;
+    return createRules(reader.stream(rulesDescriptor));
+  }
+
+  /**
+   * Create a set of {@link JexlRule} from a rule descriptor, compiling rules concurrently on the
+   * given executor.
+   * <p>
+   * Rules are compiled while the remaining definitions are still being read, and are registered
+   * in the order of their definitions. Rules that cannot be created are reported together through
+   * a {@link RuleCreationException}.
+   *
+   * @param rulesDescriptor descriptor of rule definitions
+   * @param executor        used to compile rules concurrently
+   * @return a set of rules
+   * @throws RuleCreationException if one or more rules could not be created
+   * @throws Exception             if unable to read rule definitions from the descriptor
+   */
+  public Rules createRules(Reader rulesDescriptor, Executor executor) throws Exception {
+    Objects.requireNonNull(rulesDescriptor, "rulesDescriptor cannot be null");
+    Objects.requireNonNull(executor, "executor cannot be null");
+    return createRules(reader.stream(rulesDescriptor), executor);
   }
 
   @Override
   protected Rule createSimpleRule(RuleDefinition ruleDefinition) {
     Objects.requireNonNull(ruleDefinition, "ruleDefinition cannot be null");
-    JexlRule rule = new JexlRule(jexl)
+    JexlRule rule = new JexlRule(jexl, expressionCache)
         .name(ruleDefinition.getName())
         .description(ruleDefinition.getDescription())
         .priority(ruleDefinition.getPriority())
         .loop(ruleDefinition.getLoop())
+        .lazy(isLazyCompilation())
+        .inferRequiredFacts(inferRequiredFacts)
         .when(ruleDefinition.getCondition());
     for (String action : ruleDefinition.getActions()) {
       rule.then(action);
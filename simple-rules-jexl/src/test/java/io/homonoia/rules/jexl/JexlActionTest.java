@@ -63,6 +63,20 @@ public class JexlActionTest {
     assertThat(foo.isAdult()).isTrue();
   }
 
+  @Test
+  public void whenVariableIsAssigned_thenFactShouldBeUpdated() throws Exception {
+    // given
+    Action setDiscount = new JexlAction("discount = person.age - 10;");
+    Facts facts = new Facts();
+    facts.put("person", new Person("foo", 20));
+
+    // when
+    setDiscount.execute(facts);
+
+    // then
+    assertThat((Integer) facts.get("discount")).isEqualTo(10);
+  }
+
   @Test
   public void testJexlActionExecutionWithCustomFunction() throws Exception {
     // given
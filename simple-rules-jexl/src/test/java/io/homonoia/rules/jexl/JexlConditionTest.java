@@ -70,6 +70,20 @@ public class JexlConditionTest {
     // expected exception
   }
 
+  @Test
+  public void whenDeclaredFactIsNotPresentWithSilentEngine_thenShouldReturnFalse() {
+    // given
+    JexlEngine jexlEngine = JexlRuleFactory.createEngine(16, true, true);
+    Condition isHot = new JexlCondition("temperature > 30", jexlEngine);
+    Facts facts = new Facts();
+
+    // when
+    boolean evaluationResult = isHot.evaluate(facts);
+
+    // then
+    assertThat(evaluationResult).isFalse();
+  }
+
   @Test
   public void testJexlConditionWithNamespace() {
     // given
@@ -25,8 +25,11 @@
 package io.homonoia.rules.jexl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.homonoia.rules.api.Facts;
+import java.util.Set;
+import org.apache.commons.jexl3.JexlException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -69,4 +72,45 @@ public class JexlRuleTest {
     // then
     assertThat(foo.isAdult()).isTrue();
   }
+
+  @Test
+  public void whenRequiredFactsAreInferred_thenConditionVariablesShouldBeRequired() {
+    // given
+    JexlRule rule = new JexlRule().inferRequiredFacts(true)
+        .when("person.age > minimumAge");
+
+    // when
+    Set<String> requiredFacts = rule.getRequiredFacts();
+
+    // then
+    assertThat(requiredFacts).containsExactlyInAnyOrder("person", "minimumAge");
+    assertThat(jexlRule.getRequiredFacts()).isEmpty();
+  }
+
+  @Test
+  public void whenRequiredFactsOfALazyRuleAreInferred_thenTheConditionShouldNotBeCompiled() {
+    // given
+    JexlRule rule = new JexlRule().lazy(true).inferRequiredFacts(true)
+        .when("person.age > minimumAge &&");
+
+    // when
+    Set<String> requiredFacts = rule.getRequiredFacts();
+
+    // then
+    assertThat(requiredFacts).isEmpty();
+    assertThatThrownBy(rule::compile).isInstanceOf(JexlException.class);
+  }
+
+  @Test
+  public void whenALazyRuleIsCompiled_thenItsRequiredFactsShouldBeInferred() {
+    // given
+    JexlRule rule = new JexlRule().lazy(true).inferRequiredFacts(true)
+        .when("person.age > minimumAge");
+
+    // when
+    rule.compile();
+
+    // then
+    assertThat(rule.getRequiredFacts()).containsExactlyInAnyOrder("person", "minimumAge");
+  }
 }
@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.mvel;
+
+import io.homonoia.rules.api.Fact;
+import io.homonoia.rules.api.Facts;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.mvel2.UnresolveablePropertyException;
+import org.mvel2.ast.Function;
+import org.mvel2.integration.VariableResolver;
+import org.mvel2.integration.VariableResolverFactory;
+import org.mvel2.integration.impl.BaseVariableResolverFactory;
+import org.mvel2.integration.impl.MapVariableResolver;
+
+/**
+ * {@link VariableResolverFactory} resolving MVEL variables directly from {@link Facts}.
+ * <p>
+ * Variables are read from and written to the facts, so assignments made by actions are visible to
+ * subsequent rules. Functions defined inside an expression are kept local to a single execution.
+ * <p>
+ * One factory is kept per thread and bound to the facts of the current execution with {@link
+ * #acquire(Facts)}, so that variable resolvers are created once per variable name and reused by
+ * every expression evaluated on that thread.
+ */
+final class FactsVariableResolverFactory extends BaseVariableResolverFactory {
+
+  private static final ThreadLocal<FactsVariableResolverFactory> FACTORIES =
+      ThreadLocal.withInitial(FactsVariableResolverFactory::new);
+
+  private final Map<String, Object> locals = new HashMap<>();
+  private Facts facts;
+
+  private FactsVariableResolverFactory() {
+  }
+
+  /**
+   * Get a factory bound to the given facts. The factory must be released with {@link #release()}
+   * once the expression has been executed.
+   *
+   * @param facts to resolve variables from
+   * @return a factory bound to the facts
+   */
+  static FactsVariableResolverFactory acquire(Facts facts) {
+    FactsVariableResolverFactory factory = FACTORIES.get();
+    if (factory.facts != null) {
+      // an expression is already being executed by this thread (for example an action firing
+      // rules), do not rebind the factory under its feet
+      factory = new FactsVariableResolverFactory();
+    }
+    factory.facts = facts;
+    return factory;
+  }
+
+  /**
+   * Unbind this factory from its facts and drop variables local to the last execution.
+   */
+  void release() {
+    facts = null;
+    nextFactory = null;
+    if (!locals.isEmpty()) {
+      locals.clear();
+      variableResolvers.values().removeIf(MapVariableResolver.class::isInstance);
+    }
+  }
+
+  @Override
+  public VariableResolver createVariable(String name, Object value) {
+    if (value instanceof Function) {
+      VariableResolver resolver = variableResolvers.get(name);
+      if (!(resolver instanceof MapVariableResolver)) {
+        resolver = new MapVariableResolver(locals, name);
+        variableResolvers.put(name, resolver);
+      }
+      resolver.setValue(value);
+      return resolver;
+    }
+    VariableResolver resolver = getFactResolver(name);
+    resolver.setValue(value);
+    return resolver;
+  }
+
+  @Override
+  public VariableResolver createVariable(String name, Object value, Class<?> type) {
+    return createVariable(name, value);
+  }
+
+  @Override
+  public VariableResolver getVariableResolver(String name) {
+    if (isTarget(name)) {
+      return locals.containsKey(name) ? variableResolvers.get(name) : getFactResolver(name);
+    }
+    if (nextFactory != null) {
+      return nextFactory.getVariableResolver(name);
+    }
+    throw new UnresolveablePropertyException("unable to resolve variable '" + name + "'");
+  }
+
+  @Override
+  public boolean isTarget(String name) {
+    return locals.containsKey(name) || facts.getFact(name) != null;
+  }
+
+  @Override
+  public boolean isResolveable(String name) {
+    return isTarget(name) || (nextFactory != null && nextFactory.isResolveable(name));
+  }
+
+  @Override
+  public Set<String> getKnownVariables() {
+    Set<String> knownVariables = new HashSet<>(locals.keySet());
+    for (Fact<?> fact : facts) {
+      knownVariables.add(fact.getName());
+    }
+    if (nextFactory != null) {
+      knownVariables.addAll(nextFactory.getKnownVariables());
+    }
+    return knownVariables;
+  }
+
+  private VariableResolver getFactResolver(String name) {
+    VariableResolver resolver = variableResolvers.get(name);
+    if (!(resolver instanceof FactVariableResolver)) {
+      resolver = new FactVariableResolver(name);
+      variableResolvers.put(name, resolver);
+    }
+    return resolver;
+  }
+
+  /**
+   * Resolver reading and writing a fact of the facts the factory is currently bound to.
+   */
+  private final class FactVariableResolver implements VariableResolver {
+
+    private final String name;
+
+    private FactVariableResolver(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Class getType() {
+      return Object.class;
+    }
+
+    @Override
+    public void setStaticType(Class type) {
+    }
+
+    @Override
+    public int getFlags() {
+      return 0;
+    }
+
+    @Override
+    public Object getValue() {
+      return facts.get(name);
+    }
+
+    @Override
+    public void setValue(Object value) {
+      if (value != null) {
+        facts.put(name, value);
+      } else {
+        facts.remove(name);
+      }
+    }
+  }
+}
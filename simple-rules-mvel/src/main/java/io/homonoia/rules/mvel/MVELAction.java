@@ -26,6 +26,7 @@ package io.homonoia.rules.mvel;
 
 import io.homonoia.rules.api.Action;
 import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.support.ExpressionCache;
 import java.io.Serializable;
 import org.mvel2.MVEL;
 import org.mvel2.ParserContext;
@@ -35,6 +36,9 @@ import org.slf4j.LoggerFactory;
 /**
  * This class is an implementation of {@link Action} that uses
  * <a href="https://github.com/mvel/mvel">MVEL</a> to execute the action.
+ * <p>
+ * Facts are resolved as variables of the expression without being copied, so assigning a variable
+ * puts the fact with the same name.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -63,16 +67,33 @@ public class MVELAction implements Action {
    */
   public MVELAction(String expression, ParserContext parserContext) {
     this.expression = expression;
-    compiledExpression = MVEL.compileExpression(expression, parserContext);
+    compiledExpression = MVELCondition.compile(expression, parserContext);
+  }
+
+  /**
+   * Create a new {@link MVELAction} whose compiled expression is shared through a cache.
+   *
+   * @param expression      the action written in expression language
+   * @param parserContext   the MVEL parser context
+   * @param expressionCache the cache of compiled expressions
+   */
+  public MVELAction(String expression, ParserContext parserContext,
+      ExpressionCache<Serializable> expressionCache) {
+    this.expression = expression;
+    compiledExpression = expressionCache.get(parserContext, expression,
+        source -> MVELCondition.compile(source, parserContext));
   }
 
   @Override
   public void execute(Facts facts) {
+    FactsVariableResolverFactory factory = FactsVariableResolverFactory.acquire(facts);
     try {
-      MVEL.executeExpression(compiledExpression, facts.asMap());
+      MVEL.executeExpression(compiledExpression, factory);
     } catch (Exception e) {
-      LOGGER.error("Unable to evaluate expression: '" + expression + "' on facts: " + facts, e);
+      LOGGER.error("Unable to evaluate expression: '{}' on facts: {}", expression, facts, e);
       throw e;
+    } finally {
+      factory.release();
     }
   }
 }
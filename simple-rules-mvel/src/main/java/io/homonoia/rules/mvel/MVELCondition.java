@@ -26,6 +26,7 @@ package io.homonoia.rules.mvel;
 
 import io.homonoia.rules.api.Condition;
 import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.support.ExpressionCache;
 import java.io.Serializable;
 import org.mvel2.MVEL;
 import org.mvel2.ParserContext;
@@ -33,6 +34,8 @@ import org.mvel2.ParserContext;
 /**
  * This class is an implementation of {@link Condition} that uses
  * <a href="https://github.com/mvel/mvel">MVEL</a> to evaluate the condition.
+ * <p>
+ * Facts are resolved as variables of the expression without being copied.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -56,12 +59,39 @@ public class MVELCondition implements Condition {
    * @param parserContext the MVEL parser context
    */
   public MVELCondition(String expression, ParserContext parserContext) {
-    compiledExpression = MVEL.compileExpression(expression, parserContext);
+    compiledExpression = compile(expression, parserContext);
+  }
+
+  /**
+   * Create a new {@link MVELCondition} whose compiled expression is shared through a cache.
+   *
+   * @param expression      the condition written in expression language
+   * @param parserContext   the MVEL parser context
+   * @param expressionCache the cache of compiled expressions
+   */
+  public MVELCondition(String expression, ParserContext parserContext,
+      ExpressionCache<Serializable> expressionCache) {
+    compiledExpression = expressionCache.get(parserContext, expression,
+        source -> compile(source, parserContext));
+  }
+
+  // parser contexts record state while compiling, so each compilation uses its own subcontext
+  // rather than the shared one, which lets rules be compiled concurrently
+  static Serializable compile(String expression, ParserContext parserContext) {
+    if (parserContext == null) {
+      return MVEL.compileExpression(expression);
+    }
+    return MVEL.compileExpression(expression, parserContext.createSubcontext());
   }
 
   @Override
   public boolean evaluate(Facts facts) {
-    // MVEL.evalToBoolean does not accept compiled expressions..
-    return (boolean) MVEL.executeExpression(compiledExpression, facts.asMap());
+    FactsVariableResolverFactory factory = FactsVariableResolverFactory.acquire(facts);
+    try {
+      // MVEL.evalToBoolean does not accept compiled expressions..
+      return (boolean) MVEL.executeExpression(compiledExpression, factory);
+    } finally {
+      factory.release();
+    }
   }
 }
@@ -29,6 +29,11 @@ import io.homonoia.rules.api.Condition;
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.support.Compilable;
+import io.homonoia.rules.support.ExpressionCache;
+import io.homonoia.rules.support.LazyAction;
+import io.homonoia.rules.support.LazyCondition;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import org.mvel2.ParserContext;
@@ -39,11 +44,13 @@ import org.mvel2.ParserContext;
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
-public class MVELRule extends BasicRule {
+public class MVELRule extends BasicRule implements Compilable {
 
   private Condition condition = Condition.FALSE;
   private final List<Action> actions = new ArrayList<>();
+  private boolean lazy;
   private final ParserContext parserContext;
+  private final ExpressionCache<Serializable> expressionCache;
 
   /**
    * Create a new MVEL rule.
@@ -58,8 +65,20 @@ public class MVELRule extends BasicRule {
    * @param parserContext used to parse condition/action expressions
    */
   public MVELRule(ParserContext parserContext) {
+    this(parserContext, null);
+  }
+
+  /**
+   * Create a new MVEL rule.
+   *
+   * @param parserContext   used to parse condition/action expressions
+   * @param expressionCache used to share compiled expressions, or null to compile each expression
+   *                        separately
+   */
+  public MVELRule(ParserContext parserContext, ExpressionCache<Serializable> expressionCache) {
     super(Rule.DEFAULT_NAME, Rule.DEFAULT_DESCRIPTION, Rule.DEFAULT_PRIORITY, Rule.DEFAULT_LOOP);
     this.parserContext = parserContext;
+    this.expressionCache = expressionCache;
   }
 
   /**
@@ -106,6 +125,18 @@ public class MVELRule extends BasicRule {
     return this;
   }
 
+  /**
+   * Set whether the condition and actions of this rule are compiled on first use rather than when
+   * they are specified. Must be set before {@link #when(String)} and {@link #then(String)}.
+   *
+   * @param lazy true to compile expressions on first use
+   * @return this rule
+   */
+  public MVELRule lazy(boolean lazy) {
+    this.lazy = lazy;
+    return this;
+  }
+
   /**
    * Specify the rule's condition as MVEL expression.
    *
@@ -113,7 +144,9 @@ public class MVELRule extends BasicRule {
    * @return this rule
    */
   public MVELRule when(String condition) {
-    this.condition = new MVELCondition(condition, parserContext);
+    this.condition = lazy
+        ? new LazyCondition(() -> compileCondition(condition))
+        : compileCondition(condition);
     return this;
   }
 
@@ -124,10 +157,24 @@ public class MVELRule extends BasicRule {
    * @return this rule
    */
   public MVELRule then(String action) {
-    this.actions.add(new MVELAction(action, parserContext));
+    this.actions.add(lazy
+        ? new LazyAction(() -> compileAction(action))
+        : compileAction(action));
     return this;
   }
 
+  @Override
+  public void compile() {
+    if (condition instanceof Compilable) {
+      ((Compilable) condition).compile();
+    }
+    for (Action action : actions) {
+      if (action instanceof Compilable) {
+        ((Compilable) action).compile();
+      }
+    }
+  }
+
   @Override
   public boolean evaluate(Facts facts) {
     if (!getLoop() && fired.get()) {
@@ -143,4 +190,16 @@ public class MVELRule extends BasicRule {
       action.execute(facts);
     }
   }
+
+  private Condition compileCondition(String condition) {
+    return expressionCache != null
+        ? new MVELCondition(condition, parserContext, expressionCache)
+        : new MVELCondition(condition, parserContext);
+  }
+
+  private Action compileAction(String action) {
+    return expressionCache != null
+        ? new MVELAction(action, parserContext, expressionCache)
+        : new MVELAction(action, parserContext);
+  }
 }
@@ -27,11 +27,15 @@ package io.homonoia.rules.mvel;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.support.AbstractRuleFactory;
+import io.homonoia.rules.support.ExpressionCache;
+import io.homonoia.rules.support.RuleCreationException;
 import io.homonoia.rules.support.RuleDefinition;
 import io.homonoia.rules.support.reader.JsonRuleDefinitionReader;
 import io.homonoia.rules.support.reader.RuleDefinitionReader;
 import java.io.Reader;
+import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.Executor;
 import org.mvel2.ParserContext;
 
 /**
@@ -43,6 +47,7 @@ public class MVELRuleFactory extends AbstractRuleFactory {
 
   private final RuleDefinitionReader reader;
   private final ParserContext parserContext;
+  private final ExpressionCache<Serializable> expressionCache;
 
   /**
    * Create a new {@link MVELRuleFactory} with a given reader.
@@ -64,8 +69,35 @@ public class MVELRuleFactory extends AbstractRuleFactory {
    * @see JsonRuleDefinitionReader
    */
   public MVELRuleFactory(RuleDefinitionReader reader, ParserContext parserContext) {
+    this(reader, parserContext, new ExpressionCache<>());
+  }
+
+  /**
+   * Create a new {@link MVELRuleFactory} with a given reader.
+   * <p>
+   * Identical expressions of the created rules are compiled once and shared through the given
+   * cache, which can itself be shared by several factories.
+   *
+   * @param reader          used to read rule definitions
+   * @param parserContext   used to parse condition/action expressions
+   * @param expressionCache used to share compiled expressions
+   * @see io.homonoia.rules.support.reader.YamlRuleDefinitionReader
+   * @see JsonRuleDefinitionReader
+   */
+  public MVELRuleFactory(RuleDefinitionReader reader, ParserContext parserContext,
+      ExpressionCache<Serializable> expressionCache) {
     this.reader = reader;
     this.parserContext = parserContext;
+    this.expressionCache = expressionCache;
+  }
+
+  /**
+   * Return the cache of compiled expressions used by this factory.
+   *
+   * @return the cache of compiled expressions
+   */
+  public ExpressionCache<Serializable> getExpressionCache() {
+    return expressionCache;
   }
 
   /**
@@ -95,20 +127,34 @@ public class MVELRuleFactory extends AbstractRuleFactory {
    * @throws Exception if unable to create rules from the descriptor
    */
   public Rules createRules(Reader rulesDescriptor) throws Exception {
-    Rules rules = new Rules();
-    List<RuleDefinition> ruleDefinitions = reader.read(rulesDescriptor);
-    for (RuleDefinition ruleDefinition : ruleDefinitions) {
-      rules.register(createRule(ruleDefinition));
-    }
-    return rules;
+    return createRules(reader.stream(rulesDescriptor));
+  }
+
+  /**
+   * Create a set of {@link MVELRule} from a rule descriptor, compiling rules concurrently on the
+   * given executor.
+   * <p>
+   * Rules are compiled while the remaining definitions are still being read, and are registered
+   * in the order of their definitions. Rules that cannot be created are reported together through
+   * a {@link RuleCreationException}.
+   *
+   * @param rulesDescriptor descriptor of rule definitions
+   * @param executor        used to compile rules concurrently
+   * @return a set of rules
+   * @throws RuleCreationException if one or more rules could not be created
+   * @throws Exception             if unable to read rule definitions from the descriptor
+   */
+  public Rules createRules(Reader rulesDescriptor, Executor executor) throws Exception {
+    return createRules(reader.stream(rulesDescriptor), executor);
   }
 
   protected Rule createSimpleRule(RuleDefinition ruleDefinition) {
-    MVELRule mvelRule = new MVELRule(parserContext)
+    MVELRule mvelRule = new MVELRule(parserContext, expressionCache)
         .name(ruleDefinition.getName())
         .description(ruleDefinition.getDescription())
         .priority(ruleDefinition.getPriority())
         .loop(ruleDefinition.getLoop())
+        .lazy(isLazyCompilation())
         .when(ruleDefinition.getCondition());
     for (String action : ruleDefinition.getActions()) {
       mvelRule.then(action);
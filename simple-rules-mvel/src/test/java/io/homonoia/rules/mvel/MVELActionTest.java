@@ -50,6 +50,35 @@ public class MVELActionTest {
     assertThat(foo.isAdult()).isTrue();
   }
 
+  @Test
+  public void whenVariableIsAssigned_thenFactShouldBeUpdated() throws Exception {
+    // given
+    Action setDiscount = new MVELAction("discount = person.age - 10;");
+    Facts facts = new Facts();
+    facts.put("person", new Person("foo", 20));
+
+    // when
+    setDiscount.execute(facts);
+
+    // then
+    assertThat((Integer) facts.get("discount")).isEqualTo(10);
+  }
+
+  @Test
+  public void whenFunctionIsDefined_thenItShouldNotBeAddedToFacts() throws Exception {
+    // given
+    Action action = new MVELAction("def twice(x) { x * 2 }; doubled = twice(person.age);");
+    Facts facts = new Facts();
+    facts.put("person", new Person("foo", 20));
+
+    // when
+    action.execute(facts);
+
+    // then
+    assertThat((Integer) facts.get("doubled")).isEqualTo(40);
+    assertThat(facts.getFact("twice")).isNull();
+  }
+
   @Test
   public void testMVELFunctionExecution() throws Exception {
     // given
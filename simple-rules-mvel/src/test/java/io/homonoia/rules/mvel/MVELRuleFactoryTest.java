@@ -25,22 +25,33 @@
 package io.homonoia.rules.mvel;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.support.RuleCreationException;
+import io.homonoia.rules.support.RuleDefinition;
 import io.homonoia.rules.support.composite.UnitRuleGroup;
 import io.homonoia.rules.support.reader.JsonRuleDefinitionReader;
 import io.homonoia.rules.support.reader.YamlRuleDefinitionReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -88,6 +99,79 @@ public class MVELRuleFactoryTest {
     assertThat(rule.getPriority()).isEqualTo(2);
   }
 
+  @Test
+  public void testRulesCreationWithExecutor() throws Exception {
+    // given
+    File rulesDescriptor = new File("src/test/resources/rules." + fileExtension);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    // when
+    Rules rules;
+    try {
+      rules = factory.createRules(new FileReader(rulesDescriptor), executor);
+    } finally {
+      executor.shutdown();
+    }
+
+    // then
+    assertThat(rules).hasSize(2);
+    Iterator<Rule> iterator = rules.iterator();
+    assertThat(iterator.next().getName()).isEqualTo("adult rule");
+    assertThat(iterator.next().getName()).isEqualTo("weather rule");
+  }
+
+  @Test
+  public void testRulesCreationWithExecutor_withInvalidCompositeRuleType() {
+    // given
+    File rulesDescriptor = new File(
+        "src/test/resources/composite-rule-invalid-composite-rule-type." + fileExtension);
+
+    // when
+    Assertions.assertThatThrownBy(
+            () -> factory.createRules(new FileReader(rulesDescriptor), Runnable::run))
+        // then
+        .isInstanceOfSatisfying(RuleCreationException.class, e -> {
+          assertThat(e.getFailures()).hasSize(1);
+          RuleCreationException.Failure failure = e.getFailures().get(0);
+          assertThat(failure.getIndex()).isZero();
+          assertThat(failure.getName()).isEqualTo("invalid rule");
+          assertThat(failure.getException()).isInstanceOf(IllegalArgumentException.class);
+        });
+  }
+
+  @Test
+  public void testRulesCreationWithExecutor_whenDefinitionsCannotBeRead() {
+    // given
+    AtomicInteger createdRules = new AtomicInteger();
+    RuleDefinition ruleDefinition = new RuleDefinition() {
+      @Override
+      public boolean isCompositeRule() {
+        createdRules.incrementAndGet();
+        return false;
+      }
+    };
+    ruleDefinition.setName("adult rule");
+    ruleDefinition.setCondition("person.age > 18");
+    ruleDefinition.setActions(List.of("person.setAdult(true);"));
+    Stream<RuleDefinition> ruleDefinitions = Stream.of(ruleDefinition, null)
+        .map(definition -> {
+          if (definition == null) {
+            throw new UncheckedIOException(new IOException("unreadable rule definition"));
+          }
+          return definition;
+        });
+    List<Runnable> tasks = new ArrayList<>();
+
+    // when
+    assertThatThrownBy(() -> factory.createRules(ruleDefinitions, tasks::add))
+        .isInstanceOf(IOException.class);
+    tasks.forEach(Runnable::run);
+
+    // then
+    assertThat(tasks).hasSize(1);
+    assertThat(createdRules).hasValue(0);
+  }
+
   @Test
   public void testRuleCreationFromFileReader() throws Exception {
     // given
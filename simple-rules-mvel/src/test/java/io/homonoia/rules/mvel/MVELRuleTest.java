@@ -65,4 +65,22 @@ public class MVELRuleTest {
     // then
     assertThat(foo.isAdult()).isTrue();
   }
+
+  @Test
+  public void whenTheRuleIsLazy_thenExpressionsShouldBeCompiledOnFirstUse() throws Exception {
+    // given
+    MVELRule lazyRule = new MVELRule().name("lazy").lazy(true)
+        .when("person.age > 18")
+        .then("person.setAdult(true);");
+    Person foo = new Person("foo", 20);
+    facts.put("person", foo);
+
+    // when
+    boolean evaluationResult = lazyRule.evaluate(facts);
+    lazyRule.execute(facts);
+
+    // then
+    assertThat(evaluationResult).isTrue();
+    assertThat(foo.isAdult()).isTrue();
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.spel;
+
+import io.homonoia.rules.api.Facts;
+import java.util.List;
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * {@link EvaluationContext} resolving variables directly from {@link Facts}.
+ * <p>
+ * Everything but variables and the root object is delegated to a shared context created once per
+ * expression with {@link #createSharedContext(BeanResolver)}, so that property accessors, resolvers
+ * and their caches are reused across evaluations. Assigning a variable puts (or removes, for a null
+ * value) the fact with the same name.
+ */
+final class FactsEvaluationContext implements EvaluationContext {
+
+  private final EvaluationContext sharedContext;
+  private final Facts facts;
+  private final TypedValue rootObject;
+
+  /**
+   * Create a new {@link FactsEvaluationContext}.
+   *
+   * @param sharedContext context providing accessors and resolvers
+   * @param facts         backing the variables of this context
+   * @param factsAsRoot   whether the facts should also be the root object of this context
+   */
+  FactsEvaluationContext(EvaluationContext sharedContext, Facts facts, boolean factsAsRoot) {
+    this.sharedContext = sharedContext;
+    this.facts = facts;
+    this.rootObject = factsAsRoot ? new TypedValue(facts) : TypedValue.NULL;
+  }
+
+  /**
+   * Create a context holding the accessors and resolvers shared by all evaluations of an
+   * expression. Lazily initialized state is initialized eagerly, so that the returned context can
+   * be safely read by concurrent evaluations.
+   *
+   * @param beanResolver used to resolve bean references, may be null
+   * @return a shared evaluation context
+   */
+  static StandardEvaluationContext createSharedContext(BeanResolver beanResolver) {
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.addPropertyAccessor(new MapAccessor());
+    context.addPropertyAccessor(new ReflectivePropertyAccessor());
+    if (beanResolver != null) {
+      context.setBeanResolver(beanResolver);
+    }
+    context.getConstructorResolvers();
+    context.getMethodResolvers();
+    context.getTypeLocator();
+    context.getTypeConverter();
+    return context;
+  }
+
+  @Override
+  public TypedValue getRootObject() {
+    return rootObject;
+  }
+
+  @Override
+  public List<PropertyAccessor> getPropertyAccessors() {
+    return sharedContext.getPropertyAccessors();
+  }
+
+  @Override
+  public List<ConstructorResolver> getConstructorResolvers() {
+    return sharedContext.getConstructorResolvers();
+  }
+
+  @Override
+  public List<MethodResolver> getMethodResolvers() {
+    return sharedContext.getMethodResolvers();
+  }
+
+  @Override
+  public BeanResolver getBeanResolver() {
+    return sharedContext.getBeanResolver();
+  }
+
+  @Override
+  public TypeLocator getTypeLocator() {
+    return sharedContext.getTypeLocator();
+  }
+
+  @Override
+  public TypeConverter getTypeConverter() {
+    return sharedContext.getTypeConverter();
+  }
+
+  @Override
+  public TypeComparator getTypeComparator() {
+    return sharedContext.getTypeComparator();
+  }
+
+  @Override
+  public OperatorOverloader getOperatorOverloader() {
+    return sharedContext.getOperatorOverloader();
+  }
+
+  @Override
+  public void setVariable(String name, Object value) {
+    if (value != null) {
+      facts.put(name, value);
+    } else {
+      facts.remove(name);
+    }
+  }
+
+  @Override
+  public Object lookupVariable(String name) {
+    return facts.get(name);
+  }
+}
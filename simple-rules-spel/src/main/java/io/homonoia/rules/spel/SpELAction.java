@@ -25,27 +25,28 @@
 package io.homonoia.rules.spel;
 
 import io.homonoia.rules.api.Action;
-import io.homonoia.rules.api.Fact;
 import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.support.ExpressionCache;
+import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.expression.MapAccessor;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 /**
  * This class is an implementation of {@link Action} that uses
  * <a href="https://docs.spring.io/spring/docs/current/spring-framework-reference/core.html#expressions">SpEL</a>
  * to execute the action.
  * <p>
- * Each fact is set as a variable in the {@link org.springframework.expression.EvaluationContext}.
+ * Each fact is resolved as a variable of the {@link org.springframework.expression.EvaluationContext}.
  * <p>
- * The facts map is set as the root object of the {@link org.springframework.expression.EvaluationContext}.
+ * The facts are set as the root object of the {@link org.springframework.expression.EvaluationContext},
+ * and assigning a variable puts the fact with the same name.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -55,7 +56,7 @@ public class SpELAction implements Action {
 
   private final String expression;
   private final Expression compiledExpression;
-  private final BeanResolver beanResolver;
+  private final EvaluationContext sharedContext;
 
   /**
    * Create a new {@link SpELAction}.
@@ -96,27 +97,55 @@ public class SpELAction implements Action {
    * @param parserContext the context used to parse the expression
    */
   public SpELAction(String expression, BeanResolver beanResolver, ParserContext parserContext) {
-    ExpressionParser parser = new SpelExpressionParser();
+    this(expression, beanResolver, parserContext, new SpelParserConfiguration());
+  }
+
+  /**
+   * Create a new {@link SpELAction}.
+   * <p>
+   * The parser configuration can be used to compile the expression to bytecode with
+   * {@link org.springframework.expression.spel.SpelCompilerMode#IMMEDIATE} or
+   * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED}.
+   *
+   * @param expression    the action written in expression language
+   * @param beanResolver  the bean resolver used to resolve bean references
+   * @param parserContext the context used to parse the expression
+   * @param configuration the configuration of the expression parser
+   */
+  public SpELAction(String expression, BeanResolver beanResolver, ParserContext parserContext,
+      SpelParserConfiguration configuration) {
+    ExpressionParser parser = new SpelExpressionParser(configuration);
 
     this.expression = expression;
-    this.beanResolver = beanResolver;
+    this.sharedContext = FactsEvaluationContext.createSharedContext(beanResolver);
     this.compiledExpression = parser.parseExpression(expression, parserContext);
   }
 
+  /**
+   * Create a new {@link SpELAction} whose parsed expression is shared through a cache.
+   *
+   * @param expression      the action written in expression language
+   * @param beanResolver    the bean resolver used to resolve bean references
+   * @param parserContext   the context used to parse the expression
+   * @param configuration   the configuration of the expression parser
+   * @param expressionCache the cache of parsed expressions
+   */
+  public SpELAction(String expression, BeanResolver beanResolver, ParserContext parserContext,
+      SpelParserConfiguration configuration, ExpressionCache<Expression> expressionCache) {
+    this.expression = expression;
+    this.sharedContext = FactsEvaluationContext.createSharedContext(beanResolver);
+    this.compiledExpression = expressionCache.get(Arrays.asList(parserContext, configuration),
+        expression,
+        source -> new SpelExpressionParser(configuration).parseExpression(source, parserContext));
+  }
+
   @Override
   public void execute(Facts facts) {
     try {
-      StandardEvaluationContext context = new StandardEvaluationContext();
-      context.setRootObject(facts);
-      context.setVariables(facts.asMap());
-      context.addPropertyAccessor(new MapAccessor());
-      context.addPropertyAccessor(new ReflectivePropertyAccessor());
-      if (beanResolver != null) {
-        context.setBeanResolver(beanResolver);
-      }
+      EvaluationContext context = new FactsEvaluationContext(sharedContext, facts, true);
       compiledExpression.getValue(context);
     } catch (Exception e) {
-      LOGGER.error("Unable to execute expression: '" + expression + "' on facts: " + facts, e);
+      LOGGER.error("Unable to execute expression: '{}' on facts: {}", expression, facts, e);
       throw e;
     }
   }
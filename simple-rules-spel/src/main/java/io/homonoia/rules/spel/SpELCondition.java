@@ -26,27 +26,34 @@ package io.homonoia.rules.spel;
 
 import io.homonoia.rules.api.Condition;
 import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.support.ExpressionCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.expression.MapAccessor;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.Assign;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * This class is an implementation of {@link Condition} that uses
  * <a href="https://docs.spring.io/spring/docs/current/spring-framework-reference/core.html#expressions">SpEL</a>
  * to evaluate the condition.
  * <p>
- * Each fact is set as a variable in the {@link org.springframework.expression.EvaluationContext}.
- * <p>
- * The facts map is set as the root object of the {@link org.springframework.expression.EvaluationContext}.
+ * Each fact is resolved as a variable of the {@link org.springframework.expression.EvaluationContext}.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -57,7 +64,8 @@ public class SpELCondition implements Condition {
 
   private final String expression;
   private final Expression compiledExpression;
-  private final BeanResolver beanResolver;
+  private final EvaluationContext sharedContext;
+  private Set<String> referencedFacts;
 
   /**
    * Create a new {@link SpELAction}.
@@ -98,27 +106,96 @@ public class SpELCondition implements Condition {
    * @param parserContext the context used to parse the expression
    */
   public SpELCondition(String expression, BeanResolver beanResolver, ParserContext parserContext) {
-    ExpressionParser parser = new SpelExpressionParser();
+    this(expression, beanResolver, parserContext, new SpelParserConfiguration());
+  }
+
+  /**
+   * Create a new {@link SpELCondition}.
+   * <p>
+   * The parser configuration can be used to compile the expression to bytecode with
+   * {@link org.springframework.expression.spel.SpelCompilerMode#IMMEDIATE} or
+   * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED}.
+   *
+   * @param expression    the condition written in expression language
+   * @param beanResolver  the bean resolver used to resolve bean references
+   * @param parserContext the context used to parse the expression
+   * @param configuration the configuration of the expression parser
+   */
+  public SpELCondition(String expression, BeanResolver beanResolver, ParserContext parserContext,
+      SpelParserConfiguration configuration) {
+    ExpressionParser parser = new SpelExpressionParser(configuration);
 
     this.expression = expression;
-    this.beanResolver = beanResolver;
+    this.sharedContext = FactsEvaluationContext.createSharedContext(beanResolver);
     this.compiledExpression = parser.parseExpression(expression, parserContext);
   }
 
+  /**
+   * Create a new {@link SpELCondition} whose parsed expression is shared through a cache.
+   *
+   * @param expression      the condition written in expression language
+   * @param beanResolver    the bean resolver used to resolve bean references
+   * @param parserContext   the context used to parse the expression
+   * @param configuration   the configuration of the expression parser
+   * @param expressionCache the cache of parsed expressions
+   */
+  public SpELCondition(String expression, BeanResolver beanResolver, ParserContext parserContext,
+      SpelParserConfiguration configuration, ExpressionCache<Expression> expressionCache) {
+    this.expression = expression;
+    this.sharedContext = FactsEvaluationContext.createSharedContext(beanResolver);
+    this.compiledExpression = expressionCache.get(Arrays.asList(parserContext, configuration),
+        expression,
+        source -> new SpelExpressionParser(configuration).parseExpression(source, parserContext));
+  }
+
+  /**
+   * Return the names of the facts referenced by the condition, that is the variables it reads
+   * other than {@code #this} and {@code #root}.
+   *
+   * @return names of the referenced facts
+   */
+  public Set<String> getReferencedFacts() {
+    if (referencedFacts == null) {
+      Set<String> names = new LinkedHashSet<>();
+      collectVariables(compiledExpression, names);
+      referencedFacts = Collections.unmodifiableSet(names);
+    }
+    return referencedFacts;
+  }
+
+  private static void collectVariables(Expression expression, Set<String> names) {
+    if (expression instanceof SpelExpression) {
+      collectVariables(((SpelExpression) expression).getAST(), names);
+    } else if (expression instanceof CompositeStringExpression) {
+      for (Expression part : ((CompositeStringExpression) expression).getExpressions()) {
+        collectVariables(part, names);
+      }
+    }
+  }
+
+  private static void collectVariables(SpelNode node, Set<String> names) {
+    if (node instanceof VariableReference) {
+      String name = node.toStringAST().substring(1);
+      if (!"this".equals(name) && !"root".equals(name)) {
+        names.add(name);
+      }
+    }
+    for (int i = 0; i < node.getChildCount(); i++) {
+      // assigned variables are written, not read
+      if (!(node instanceof Assign && i == 0)) {
+        collectVariables(node.getChild(i), names);
+      }
+    }
+  }
+
   @Override
   public boolean evaluate(Facts facts) {
     try {
-      StandardEvaluationContext context = new StandardEvaluationContext();
-      context.setVariables(facts.asMap());
-      context.addPropertyAccessor(new MapAccessor());
-      context.addPropertyAccessor(new ReflectivePropertyAccessor());
-      if (beanResolver != null) {
-        context.setBeanResolver(beanResolver);
-      }
+      EvaluationContext context = new FactsEvaluationContext(sharedContext, facts, false);
       return Optional.ofNullable(compiledExpression.getValue(context, Boolean.class))
           .orElse(false);
     } catch (Exception e) {
-      LOGGER.error("Unable to evaluate expression: '" + expression + "' on facts: " + facts, e);
+      LOGGER.error("Unable to evaluate expression: '{}' on facts: {}", expression, facts, e);
       throw e;
     }
   }
@@ -29,10 +29,18 @@ import io.homonoia.rules.api.Condition;
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.support.Compilable;
+import io.homonoia.rules.support.ExpressionCache;
+import io.homonoia.rules.support.LazyAction;
+import io.homonoia.rules.support.LazyCondition;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelParserConfiguration;
 
 /**
  * A {@link Rule} implementation that uses
@@ -41,12 +49,16 @@ import org.springframework.expression.ParserContext;
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
-public class SpELRule extends BasicRule {
+public class SpELRule extends BasicRule implements Compilable {
 
   private Condition condition = Condition.FALSE;
   private final List<Action> actions = new ArrayList<>();
+  private boolean lazy;
+  private boolean inferRequiredFacts;
   private final BeanResolver beanResolver;
   private final ParserContext parserContext;
+  private final SpelParserConfiguration parserConfiguration;
+  private final ExpressionCache<Expression> expressionCache;
 
   /**
    * Create a new SpEL rule.
@@ -80,9 +92,42 @@ public class SpELRule extends BasicRule {
    * @param parserContext used to resolve expressions
    */
   public SpELRule(BeanResolver beanResolver, ParserContext parserContext) {
+    this(beanResolver, parserContext, new SpelParserConfiguration());
+  }
+
+  /**
+   * Create a new SpEL rule.
+   * <p>
+   * Use a parser configuration with
+   * {@link org.springframework.expression.spel.SpelCompilerMode#IMMEDIATE} or
+   * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED} to compile the condition and
+   * actions of this rule to bytecode.
+   *
+   * @param beanResolver        used to resolve bean references in expressions
+   * @param parserContext       used to resolve expressions
+   * @param parserConfiguration used to configure the expression parser
+   */
+  public SpELRule(BeanResolver beanResolver, ParserContext parserContext,
+      SpelParserConfiguration parserConfiguration) {
+    this(beanResolver, parserContext, parserConfiguration, null);
+  }
+
+  /**
+   * Create a new SpEL rule.
+   *
+   * @param beanResolver        used to resolve bean references in expressions
+   * @param parserContext       used to resolve expressions
+   * @param parserConfiguration used to configure the expression parser
+   * @param expressionCache     used to share parsed expressions, or null to parse each expression
+   *                            separately
+   */
+  public SpELRule(BeanResolver beanResolver, ParserContext parserContext,
+      SpelParserConfiguration parserConfiguration, ExpressionCache<Expression> expressionCache) {
     super(Rule.DEFAULT_NAME, Rule.DEFAULT_DESCRIPTION, Rule.DEFAULT_PRIORITY);
     this.beanResolver = beanResolver;
     this.parserContext = parserContext;
+    this.parserConfiguration = parserConfiguration;
+    this.expressionCache = expressionCache;
   }
 
   /**
@@ -129,6 +174,32 @@ public class SpELRule extends BasicRule {
     return this;
   }
 
+  /**
+   * Set whether the condition and actions of this rule are compiled on first use rather than when
+   * they are specified. Must be set before {@link #when(String)} and {@link #then(String)}.
+   *
+   * @param lazy true to compile expressions on first use
+   * @return this rule
+   */
+  public SpELRule lazy(boolean lazy) {
+    this.lazy = lazy;
+    return this;
+  }
+
+  /**
+   * Set whether the facts referenced by the condition of this rule are required, in which case
+   * rules engines do not evaluate the rule when one of them is missing. Conditions that are meant
+   * to test for the absence of a fact must not be used with this option. A lazy rule requires no
+   * facts until its condition is compiled, as it is not compiled just to find its facts.
+   *
+   * @param inferRequiredFacts true to require the facts referenced by the condition
+   * @return this rule
+   */
+  public SpELRule inferRequiredFacts(boolean inferRequiredFacts) {
+    this.inferRequiredFacts = inferRequiredFacts;
+    return this;
+  }
+
   /**
    * Specify the rule's condition as SpEL expression.
    *
@@ -136,7 +207,9 @@ public class SpELRule extends BasicRule {
    * @return this rule
    */
   public SpELRule when(String condition) {
-    this.condition = new SpELCondition(condition, beanResolver, parserContext);
+    this.condition = lazy
+        ? new LazyCondition(() -> compileCondition(condition))
+        : compileCondition(condition);
     return this;
   }
 
@@ -147,10 +220,42 @@ public class SpELRule extends BasicRule {
    * @return this rule
    */
   public SpELRule then(String action) {
-    this.actions.add(new SpELAction(action, beanResolver, parserContext));
+    this.actions.add(lazy
+        ? new LazyAction(() -> compileAction(action))
+        : compileAction(action));
     return this;
   }
 
+  @Override
+  public Set<String> getRequiredFacts() {
+    if (!inferRequiredFacts) {
+      return Collections.emptySet();
+    }
+    Condition compiled = condition;
+    if (condition instanceof LazyCondition) {
+      LazyCondition lazyCondition = (LazyCondition) condition;
+      // checking required facts must not compile the rule, which is evaluated until it is compiled
+      if (!lazyCondition.isCompiled()) {
+        return Collections.emptySet();
+      }
+      compiled = lazyCondition.getCondition();
+    }
+    return compiled instanceof SpELCondition
+        ? ((SpELCondition) compiled).getReferencedFacts() : Collections.emptySet();
+  }
+
+  @Override
+  public void compile() {
+    if (condition instanceof Compilable) {
+      ((Compilable) condition).compile();
+    }
+    for (Action action : actions) {
+      if (action instanceof Compilable) {
+        ((Compilable) action).compile();
+      }
+    }
+  }
+
   @Override
   public boolean evaluate(Facts facts) {
     if (!getLoop() && fired.get()) {
@@ -166,4 +271,17 @@ public class SpELRule extends BasicRule {
       action.execute(facts);
     }
   }
+
+  private Condition compileCondition(String condition) {
+    return expressionCache != null
+        ? new SpELCondition(condition, beanResolver, parserContext, parserConfiguration,
+        expressionCache)
+        : new SpELCondition(condition, beanResolver, parserContext, parserConfiguration);
+  }
+
+  private Action compileAction(String action) {
+    return expressionCache != null
+        ? new SpELAction(action, beanResolver, parserContext, parserConfiguration, expressionCache)
+        : new SpELAction(action, beanResolver, parserContext, parserConfiguration);
+  }
 }
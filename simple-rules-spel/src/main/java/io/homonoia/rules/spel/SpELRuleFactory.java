@@ -27,12 +27,17 @@ package io.homonoia.rules.spel;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.support.AbstractRuleFactory;
+import io.homonoia.rules.support.ExpressionCache;
+import io.homonoia.rules.support.RuleCreationException;
 import io.homonoia.rules.support.RuleDefinition;
 import io.homonoia.rules.support.reader.RuleDefinitionReader;
 import java.io.Reader;
 import java.util.List;
+import java.util.concurrent.Executor;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelParserConfiguration;
 
 /**
  * Factory to create {@link SpELRule} instances.
@@ -44,6 +49,9 @@ public class SpELRuleFactory extends AbstractRuleFactory {
   private final RuleDefinitionReader reader;
   private final BeanResolver beanResolver;
   private final ParserContext parserContext;
+  private final SpelParserConfiguration parserConfiguration;
+  private final ExpressionCache<Expression> expressionCache;
+  private boolean inferRequiredFacts;
 
   /**
    * Create a new {@link SpELRuleFactory} with a given reader.
@@ -91,9 +99,72 @@ public class SpELRuleFactory extends AbstractRuleFactory {
    */
   public SpELRuleFactory(RuleDefinitionReader reader, ParserContext parserContext,
       BeanResolver beanResolver) {
+    this(reader, parserContext, beanResolver, new SpelParserConfiguration());
+  }
+
+  /**
+   * Create a new {@link SpELRuleFactory} with a given reader.
+   * <p>
+   * Use a parser configuration with
+   * {@link org.springframework.expression.spel.SpelCompilerMode#IMMEDIATE} or
+   * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED} to compile the created rules
+   * to bytecode.
+   *
+   * @param reader              used to read rule definitions
+   * @param parserContext       used to parse SpEL expressions
+   * @param beanResolver        used to resolve bean references in SpEL expressions
+   * @param parserConfiguration used to configure the SpEL expression parser
+   * @see io.homonoia.rules.support.reader.YamlRuleDefinitionReader
+   * @see io.homonoia.rules.support.reader.JsonRuleDefinitionReader
+   */
+  public SpELRuleFactory(RuleDefinitionReader reader, ParserContext parserContext,
+      BeanResolver beanResolver, SpelParserConfiguration parserConfiguration) {
+    this(reader, parserContext, beanResolver, parserConfiguration, new ExpressionCache<>());
+  }
+
+  /**
+   * Create a new {@link SpELRuleFactory} with a given reader.
+   * <p>
+   * Identical expressions of the created rules are parsed once and shared through the given cache,
+   * which can itself be shared by several factories.
+   *
+   * @param reader              used to read rule definitions
+   * @param parserContext       used to parse SpEL expressions
+   * @param beanResolver        used to resolve bean references in SpEL expressions
+   * @param parserConfiguration used to configure the SpEL expression parser
+   * @param expressionCache     used to share parsed expressions
+   * @see io.homonoia.rules.support.reader.YamlRuleDefinitionReader
+   * @see io.homonoia.rules.support.reader.JsonRuleDefinitionReader
+   */
+  public SpELRuleFactory(RuleDefinitionReader reader, ParserContext parserContext,
+      BeanResolver beanResolver, SpelParserConfiguration parserConfiguration,
+      ExpressionCache<Expression> expressionCache) {
     this.reader = reader;
     this.parserContext = parserContext;
     this.beanResolver = beanResolver;
+    this.parserConfiguration = parserConfiguration;
+    this.expressionCache = expressionCache;
+  }
+
+  /**
+   * Return the cache of parsed expressions used by this factory.
+   *
+   * @return the cache of parsed expressions
+   */
+  public ExpressionCache<Expression> getExpressionCache() {
+    return expressionCache;
+  }
+
+  /**
+   * Set whether the facts referenced by the condition of created rules are required, in which
+   * case rules engines do not evaluate a rule when one of them is missing. Lazy rules require no
+   * facts until their condition is compiled.
+   *
+   * @param inferRequiredFacts true to require the facts referenced by rule conditions
+   * @see SpELRule#inferRequiredFacts(boolean)
+   */
+  public void setInferRequiredFacts(boolean inferRequiredFacts) {
+    this.inferRequiredFacts = inferRequiredFacts;
   }
 
   /**
@@ -123,20 +194,36 @@ public class SpELRuleFactory extends AbstractRuleFactory {
    * @throws Exception if unable to create rules from the descriptor
    */
   public Rules createRules(Reader rulesDescriptor) throws Exception {
-    Rules rules = new Rules();
-    List<RuleDefinition> ruleDefinitions = reader.read(rulesDescriptor);
-    for (RuleDefinition ruleDefinition : ruleDefinitions) {
-      rules.register(createRule(ruleDefinition));
-    }
-    return rules;
+    return createRules(reader.stream(rulesDescriptor));
+  }
+
+  /**
+   * Create a set of {@link SpELRule} from a rule descriptor, compiling rules concurrently on the
+   * given executor.
+   * <p>
+   * Rules are compiled while the remaining definitions are still being read, and are registered
+   * in the order of their definitions. Rules that cannot be created are reported together through
+   * a {@link RuleCreationException}.
+   *
+   * @param rulesDescriptor descriptor of rule definitions
+   * @param executor        used to compile rules concurrently
+   * @return a set of rules
+   * @throws RuleCreationException if one or more rules could not be created
+   * @throws Exception             if unable to read rule definitions from the descriptor
+   */
+  public Rules createRules(Reader rulesDescriptor, Executor executor) throws Exception {
+    return createRules(reader.stream(rulesDescriptor), executor);
   }
 
   protected Rule createSimpleRule(RuleDefinition ruleDefinition) {
-    SpELRule spELRule = new SpELRule(beanResolver, parserContext)
+    SpELRule spELRule = new SpELRule(beanResolver, parserContext, parserConfiguration,
+        expressionCache)
         .name(ruleDefinition.getName())
         .description(ruleDefinition.getDescription())
         .priority(ruleDefinition.getPriority())
         .loop(ruleDefinition.getLoop())
+        .lazy(isLazyCompilation())
+        .inferRequiredFacts(inferRequiredFacts)
         .when(ruleDefinition.getCondition());
     for (String action : ruleDefinition.getActions()) {
       spELRule.then(action);
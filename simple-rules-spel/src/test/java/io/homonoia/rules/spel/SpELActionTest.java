@@ -51,6 +51,20 @@ public class SpELActionTest {
     assertThat(foo.isAdult()).isTrue();
   }
 
+  @Test
+  public void whenVariableIsAssigned_thenFactShouldBeUpdated() throws Exception {
+    // given
+    Action setDiscount = new SpELAction("#discount = #person.age - 10");
+    Facts facts = new Facts();
+    facts.put("person", new Person("foo", 20));
+
+    // when
+    setDiscount.execute(facts);
+
+    // then
+    assertThat((Integer) facts.get("discount")).isEqualTo(10);
+  }
+
   @Test
   public void testSpELFunctionExecution() throws Exception {
     // given
@@ -33,6 +33,8 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.ParserContext;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 
 import static com.github.stefanbirkner.systemlambda.SystemLambda.tapSystemOutNormalized;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,6 +54,25 @@ public class SpELConditionTest {
     assertThat(evaluationResult).isTrue();
   }
 
+  @Test
+  public void testSpELExpressionEvaluationInCompiledMode() {
+    // given
+    SpelParserConfiguration configuration = new SpelParserConfiguration(
+        SpelCompilerMode.IMMEDIATE, getClass().getClassLoader());
+    Condition isAdult = new SpELCondition("#person.age > 18", null, null, configuration);
+    Facts facts = new Facts();
+    facts.put("person", new Person("foo", 20));
+
+    // when
+    boolean firstEvaluationResult = isAdult.evaluate(facts);
+    facts.put("person", new Person("bar", 17));
+    boolean secondEvaluationResult = isAdult.evaluate(facts);
+
+    // then
+    assertThat(firstEvaluationResult).isTrue();
+    assertThat(secondEvaluationResult).isFalse();
+  }
+
   // Note this behaviour is different in MVEL, where a missing fact yields an exception
   @Test
   public void whenDeclaredFactIsNotPresent_thenShouldReturnFalse() {
@@ -25,12 +25,22 @@
 package io.homonoia.rules.support;
 
 import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.support.composite.ActivationRuleGroup;
+import io.homonoia.rules.support.composite.CompiledRuleGroup;
 import io.homonoia.rules.support.composite.CompositeRule;
 import io.homonoia.rules.support.composite.ConditionalRuleGroup;
 import io.homonoia.rules.support.composite.UnitRuleGroup;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,14 +59,163 @@ public abstract class AbstractRuleFactory {
       ActivationRuleGroup.class.getSimpleName()
   );
 
+  private boolean lazyCompilation;
+  private boolean flattenCompositeRules;
+
+  /**
+   * Return whether the expressions of created rules are compiled lazily.
+   *
+   * @return true if expressions are compiled on first use, false if they are compiled when rules
+   * are created
+   */
+  public boolean isLazyCompilation() {
+    return lazyCompilation;
+  }
+
+  /**
+   * Set whether the expressions of created rules are compiled lazily, on first use, rather than
+   * when rules are created. Errors in expressions are then only reported when rules are first
+   * evaluated or executed. Use {@link #warmUp(Rules, Executor)} to compile rules in the background.
+   *
+   * @param lazyCompilation true to compile expressions on first use
+   */
+  public void setLazyCompilation(boolean lazyCompilation) {
+    this.lazyCompilation = lazyCompilation;
+  }
+
+  /**
+   * Return whether created composite rules are flattened.
+   *
+   * @return true if composite rules are flattened into a {@link CompiledRuleGroup}
+   */
+  public boolean isFlattenCompositeRules() {
+    return flattenCompositeRules;
+  }
+
+  /**
+   * Set whether created composite rules, including nested ones, are flattened into a single
+   * {@link CompiledRuleGroup} evaluated without recursion.
+   *
+   * @param flattenCompositeRules true to flatten composite rules
+   */
+  public void setFlattenCompositeRules(boolean flattenCompositeRules) {
+    this.flattenCompositeRules = flattenCompositeRules;
+  }
+
+  /**
+   * Compile the expressions of the given rules that have not been compiled yet, in priority order,
+   * on the given executor. Rules that fail to compile are logged and will be compiled again on
+   * first use.
+   *
+   * @param rules    to compile
+   * @param executor used to compile rules
+   * @return a future completed once all rules have been compiled
+   */
+  public CompletableFuture<Void> warmUp(Rules rules, Executor executor) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Rule rule : rules) {
+      if (rule instanceof Compilable) {
+        futures.add(CompletableFuture.runAsync(() -> {
+          try {
+            ((Compilable) rule).compile();
+          } catch (RuntimeException e) {
+            LOGGER.error("Unable to compile rule '{}'", rule.getName(), e);
+          }
+        }, executor));
+      }
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  }
+
   protected Rule createRule(RuleDefinition ruleDefinition) {
     if (ruleDefinition.isCompositeRule()) {
-      return createCompositeRule(ruleDefinition);
+      Rule compositeRule = createCompositeRule(ruleDefinition);
+      if (flattenCompositeRules && compositeRule instanceof CompositeRule) {
+        return CompiledRuleGroup.flatten((CompositeRule) compositeRule);
+      }
+      return compositeRule;
     } else {
       return createSimpleRule(ruleDefinition);
     }
   }
 
+  /**
+   * Create rules from the given definitions, as they are consumed from the stream.
+   *
+   * @param ruleDefinitions definitions of the rules to create
+   * @return a set of rules
+   * @throws IOException if unable to read rule definitions
+   */
+  public Rules createRules(Stream<RuleDefinition> ruleDefinitions) throws IOException {
+    Rules rules = new Rules();
+    try (Stream<RuleDefinition> stream = ruleDefinitions) {
+      stream.forEach(ruleDefinition -> rules.register(createRule(ruleDefinition)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return rules;
+  }
+
+  /**
+   * Create rules from the given definitions, creating each rule as a separate task of the given
+   * executor.
+   * <p>
+   * Tasks are submitted as definitions are consumed from the stream, so rules are created while
+   * the remaining definitions are still being read. Rules are registered in the order of their
+   * definitions once all of them have been created. A rule that cannot be created does not prevent
+   * the creation of the others: failures are collected and reported together. If the definitions
+   * cannot be read, the creation of the rules already submitted is cancelled.
+   *
+   * @param ruleDefinitions definitions of the rules to create
+   * @param executor        used to create rules concurrently
+   * @return a set of rules
+   * @throws IOException           if unable to read rule definitions
+   * @throws RuleCreationException if one or more rules could not be created
+   */
+  public Rules createRules(Stream<RuleDefinition> ruleDefinitions, Executor executor)
+      throws IOException, RuleCreationException {
+    List<String> names = new ArrayList<>();
+    List<CompletableFuture<Rule>> futures = new ArrayList<>();
+    try (Stream<RuleDefinition> stream = ruleDefinitions) {
+      stream.forEach(ruleDefinition -> {
+        names.add(ruleDefinition.getName());
+        futures.add(CompletableFuture.supplyAsync(() -> createRule(ruleDefinition), executor));
+      });
+    } catch (RuntimeException e) {
+      // rules that are not being created yet are skipped, the others are discarded
+      cancel(futures);
+      if (e instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e).getCause();
+      }
+      throw e;
+    }
+    Rules rules = new Rules();
+    List<RuleCreationException.Failure> failures = new ArrayList<>();
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        rules.register(futures.get(i).join());
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        failures.add(new RuleCreationException.Failure(i, names.get(i), (Exception) cause));
+      } catch (CancellationException e) {
+        failures.add(new RuleCreationException.Failure(i, names.get(i), e));
+      }
+    }
+    if (!failures.isEmpty()) {
+      throw new RuleCreationException(failures);
+    }
+    return rules;
+  }
+
+  private static void cancel(List<CompletableFuture<Rule>> futures) {
+    for (CompletableFuture<Rule> future : futures) {
+      future.cancel(false);
+    }
+  }
+
   protected abstract Rule createSimpleRule(RuleDefinition ruleDefinition);
 
   protected Rule createCompositeRule(RuleDefinition ruleDefinition) {
@@ -94,8 +253,11 @@ public abstract class AbstractRuleFactory {
     compositeRule.setPriority(ruleDefinition.getPriority());
     compositeRule.setLoop(ruleDefinition.getLoop());
 
+    // composing rules are not flattened on their own, the whole tree is flattened at once
     for (RuleDefinition composingRuleDefinition : ruleDefinition.getComposingRules()) {
-      compositeRule.addRule(createRule(composingRuleDefinition));
+      compositeRule.addRule(composingRuleDefinition.isCompositeRule()
+          ? createCompositeRule(composingRuleDefinition)
+          : createSimpleRule(composingRuleDefinition));
     }
 
     return compositeRule;
@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of compiled expressions, shared by the rules created by one or more rule
+ * factories.
+ * <p>
+ * Entries are keyed by the source of the expression and by a scope identifying how it was compiled
+ * (a parser context, an engine, etc), so that identical expressions are compiled once per scope.
+ * When the cache is full, an entry is evicted according to the {@link EvictionPolicy} of the
+ * cache.
+ * <p>
+ * This class is thread-safe. Expressions are compiled outside of the cache lock, so the same
+ * expression may be compiled more than once when requested concurrently.
+ *
+ * @param <T> type of compiled expressions
+ */
+public class ExpressionCache<T> {
+
+  /**
+   * Default maximum number of cached expressions.
+   */
+  public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+  /**
+   * Number of least recently used entries considered when evicting with {@link
+   * EvictionPolicy#LFU}.
+   */
+  private static final int LFU_EVICTION_CANDIDATES = 8;
+
+  /**
+   * Eviction policies of an {@link ExpressionCache}.
+   */
+  public enum EvictionPolicy {
+
+    /**
+     * Evict the least recently used expression.
+     */
+    LRU,
+
+    /**
+     * Evict the least frequently used expression among the least recently used ones.
+     */
+    LFU
+  }
+
+  private final int maximumSize;
+  private final EvictionPolicy evictionPolicy;
+  private final LinkedHashMap<Key, Entry<T>> entries;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * Create a new LRU {@link ExpressionCache} of {@link #DEFAULT_MAXIMUM_SIZE} entries.
+   */
+  public ExpressionCache() {
+    this(DEFAULT_MAXIMUM_SIZE, EvictionPolicy.LRU);
+  }
+
+  /**
+   * Create a new LRU {@link ExpressionCache}.
+   *
+   * @param maximumSize maximum number of cached expressions
+   */
+  public ExpressionCache(int maximumSize) {
+    this(maximumSize, EvictionPolicy.LRU);
+  }
+
+  /**
+   * Create a new {@link ExpressionCache}.
+   *
+   * @param maximumSize    maximum number of cached expressions
+   * @param evictionPolicy policy used to evict expressions when the cache is full
+   */
+  public ExpressionCache(int maximumSize, EvictionPolicy evictionPolicy) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximum size must be greater than 0");
+    }
+    this.maximumSize = maximumSize;
+    this.evictionPolicy = Objects.requireNonNull(evictionPolicy,
+        "eviction policy must not be null");
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Get the compiled form of an expression, compiling it if it is not cached yet.
+   *
+   * @param scope      in which the expression is compiled, may be null
+   * @param expression source of the expression, must not be null
+   * @param compiler   compiling the expression when it is not cached
+   * @return the compiled expression
+   */
+  public T get(Object scope, String expression, Function<String, ? extends T> compiler) {
+    Objects.requireNonNull(expression, "expression must not be null");
+    Key key = new Key(scope, expression);
+    synchronized (this) {
+      Entry<T> entry = entries.get(key);
+      if (entry != null) {
+        entry.frequency++;
+        hitCount++;
+        return entry.value;
+      }
+      missCount++;
+    }
+    T compiled = compiler.apply(expression);
+    synchronized (this) {
+      Entry<T> entry = entries.get(key);
+      if (entry != null) {
+        // compiled concurrently by another thread, keep a single instance
+        return entry.value;
+      }
+      if (entries.size() >= maximumSize) {
+        evict();
+      }
+      entries.put(key, new Entry<>(compiled));
+    }
+    return compiled;
+  }
+
+  /**
+   * Return the number of cached expressions.
+   *
+   * @return the number of cached expressions
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Remove all cached expressions. Statistics are not reset.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Return a snapshot of the statistics of this cache.
+   *
+   * @return statistics of this cache
+   */
+  public synchronized Stats stats() {
+    return new Stats(hitCount, missCount, evictionCount);
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<Key, Entry<T>>> iterator = entries.entrySet().iterator();
+    if (evictionPolicy == EvictionPolicy.LRU) {
+      iterator.next();
+      iterator.remove();
+    } else {
+      Key victim = null;
+      long lowestFrequency = Long.MAX_VALUE;
+      for (int i = 0; i < LFU_EVICTION_CANDIDATES && iterator.hasNext(); i++) {
+        Map.Entry<Key, Entry<T>> candidate = iterator.next();
+        if (candidate.getValue().frequency < lowestFrequency) {
+          lowestFrequency = candidate.getValue().frequency;
+          victim = candidate.getKey();
+        }
+      }
+      entries.remove(victim);
+    }
+    evictionCount++;
+  }
+
+  /**
+   * Statistics of an {@link ExpressionCache}.
+   */
+  public static final class Stats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    Stats(long hitCount, long missCount, long evictionCount) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+    }
+
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    public long getMissCount() {
+      return missCount;
+    }
+
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    /**
+     * Return the ratio of requests served from the cache.
+     *
+     * @return the hit rate, or 1.0 if no expression has been requested yet
+     */
+    public double getHitRate() {
+      long requestCount = hitCount + missCount;
+      return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+      return "Expression cache stats { " +
+          "hitCount = " + hitCount +
+          ", missCount = " + missCount +
+          ", evictionCount = " + evictionCount +
+          ", hitRate = " + getHitRate() +
+          " }";
+    }
+  }
+
+  private static final class Entry<T> {
+
+    private final T value;
+    private long frequency;
+
+    private Entry(T value) {
+      this.value = value;
+    }
+  }
+
+  private static final class Key {
+
+    private final Object scope;
+    private final String expression;
+    private final int hashCode;
+
+    private Key(Object scope, String expression) {
+      this.scope = scope;
+      this.expression = expression;
+      this.hashCode = 31 * Objects.hashCode(scope) + expression.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return expression.equals(key.expression) && Objects.equals(scope, key.scope);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
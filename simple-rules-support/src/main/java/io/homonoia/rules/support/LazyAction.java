@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import io.homonoia.rules.api.Action;
+import io.homonoia.rules.api.Facts;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * An {@link Action} that is compiled on its first execution, or when {@link #compile()} is
+ * called. Compilation happens at most once, even when the action is executed concurrently.
+ */
+public final class LazyAction implements Action, Compilable {
+
+  private Supplier<? extends Action> compiler;
+  private volatile Action action;
+
+  /**
+   * Create a new {@link LazyAction}.
+   *
+   * @param compiler used to compile the action
+   */
+  public LazyAction(Supplier<? extends Action> compiler) {
+    this.compiler = Objects.requireNonNull(compiler, "compiler cannot be null");
+  }
+
+  @Override
+  public void execute(Facts facts) throws Exception {
+    Action compiled = action;
+    if (compiled == null) {
+      compiled = compileAction();
+    }
+    compiled.execute(facts);
+  }
+
+  @Override
+  public void compile() {
+    if (action == null) {
+      compileAction();
+    }
+  }
+
+  private synchronized Action compileAction() {
+    if (action == null) {
+      action = compiler.get();
+      compiler = null;
+    }
+    return action;
+  }
+}
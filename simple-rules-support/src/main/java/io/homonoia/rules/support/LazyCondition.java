@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.Facts;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Condition} that is compiled on its first evaluation, or when {@link #compile()} is
+ * called. Compilation happens at most once, even when the condition is evaluated concurrently.
+ */
+public final class LazyCondition implements Condition, Compilable {
+
+  private Supplier<? extends Condition> compiler;
+  private volatile Condition condition;
+
+  /**
+   * Create a new {@link LazyCondition}.
+   *
+   * @param compiler used to compile the condition
+   */
+  public LazyCondition(Supplier<? extends Condition> compiler) {
+    this.compiler = Objects.requireNonNull(compiler, "compiler cannot be null");
+  }
+
+  @Override
+  public boolean evaluate(Facts facts) {
+    Condition compiled = condition;
+    if (compiled == null) {
+      compiled = compileCondition();
+    }
+    return compiled.evaluate(facts);
+  }
+
+  /**
+   * Return the compiled condition, compiling it if needed.
+   *
+   * @return the compiled condition
+   */
+  public Condition getCondition() {
+    Condition compiled = condition;
+    return compiled != null ? compiled : compileCondition();
+  }
+
+  /**
+   * Check whether the condition has been compiled.
+   *
+   * @return true if the condition has been compiled
+   */
+  public boolean isCompiled() {
+    return condition != null;
+  }
+
+  @Override
+  public void compile() {
+    if (condition == null) {
+      compileCondition();
+    }
+  }
+
+  private synchronized Condition compileCondition() {
+    if (condition == null) {
+      condition = compiler.get();
+      compiler = null;
+    }
+    return condition;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Exception thrown when one or more rules could not be created from their definitions.
+ * <p>
+ * The failure of each rule is available in definition order and is also attached as a suppressed
+ * exception. Failures are identified by the index of their definition, since rule names are not
+ * required to be unique.
+ */
+public class RuleCreationException extends Exception {
+
+  private final List<Failure> failures;
+
+  public RuleCreationException(List<Failure> failures) {
+    super("Unable to create rules " + failures.stream()
+        .map(Failure::toString)
+        .collect(Collectors.toList()));
+    this.failures = Collections.unmodifiableList(failures);
+    failures.forEach(failure -> addSuppressed(failure.getException()));
+  }
+
+  /**
+   * Return the failure of each rule that could not be created, in definition order.
+   *
+   * @return failures in definition order
+   */
+  public List<Failure> getFailures() {
+    return failures;
+  }
+
+  /**
+   * Failure to create the rule of a given definition.
+   */
+  public static class Failure {
+
+    private final int index;
+    private final String name;
+    private final Exception exception;
+
+    public Failure(int index, String name, Exception exception) {
+      this.index = index;
+      this.name = name;
+      this.exception = exception;
+    }
+
+    /**
+     * Return the index of the rule definition, starting from 0.
+     *
+     * @return index of the rule definition
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    /**
+     * Return the name of the rule definition.
+     *
+     * @return name of the rule definition
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Return the exception thrown while creating the rule.
+     *
+     * @return the cause of the failure
+     */
+    public Exception getException() {
+      return exception;
+    }
+
+    @Override
+    public String toString() {
+      return "#" + index + " '" + name + "'";
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Repository of rules loaded from rule descriptor files, which can be reloaded while rules are
+ * being fired.
+ * <p>
+ * Each reload publishes a new read-only {@link Rules} snapshot. Callers that already obtained a
+ * snapshot keep firing it, while subsequent calls to {@link #getRules()} return the new one. Only
+ * files that changed since the previous load are read and compiled again.
+ * <p>
+ * Typical usage:
+ *
+ * <pre>
+ *     RulesRepository repository = new RulesRepository(factory::createRules, path);
+ *     repository.watch(scheduler, 10, TimeUnit.SECONDS);
+ *     ...
+ *     rulesEngine.fire(repository.getRules(), facts);
+ * </pre>
+ */
+public class RulesRepository {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RulesRepository.class);
+
+  private final RulesLoader loader;
+  private final List<Path> files;
+  private final Map<Path, LoadedFile> loadedFiles = new LinkedHashMap<>();
+  private final AtomicReference<Rules> rules = new AtomicReference<>();
+
+  /**
+   * Create a new {@link RulesRepository} and load rules from the given files.
+   *
+   * @param loader used to create rules from a descriptor, typically a rule factory's
+   *               {@code createRules(Reader)} method
+   * @param files  rule descriptor files
+   * @throws Exception if unable to load rules from one of the files
+   */
+  public RulesRepository(RulesLoader loader, Path... files) throws Exception {
+    this(loader, Arrays.asList(files));
+  }
+
+  /**
+   * Create a new {@link RulesRepository} and load rules from the given files.
+   *
+   * @param loader used to create rules from a descriptor, typically a rule factory's
+   *               {@code createRules(Reader)} method
+   * @param files  rule descriptor files
+   * @throws Exception if unable to load rules from one of the files
+   */
+  public RulesRepository(RulesLoader loader, List<Path> files) throws Exception {
+    this.loader = Objects.requireNonNull(loader, "loader cannot be null");
+    this.files = new ArrayList<>(files);
+    refresh();
+  }
+
+  /**
+   * Return the current rules snapshot. The returned rules cannot be modified.
+   *
+   * @return the current rules
+   */
+  public Rules getRules() {
+    return rules.get();
+  }
+
+  /**
+   * Reload the files that changed since they were last loaded and publish a new rules snapshot if
+   * any did. If a file cannot be loaded, the current snapshot is kept.
+   *
+   * @return true if a new snapshot was published, false otherwise
+   * @throws Exception if unable to load rules from one of the files
+   */
+  public synchronized boolean refresh() throws Exception {
+    Map<Path, LoadedFile> changedFiles = new LinkedHashMap<>();
+    for (Path file : files) {
+      FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+      long size = Files.size(file);
+      LoadedFile loadedFile = loadedFiles.get(file);
+      if (loadedFile == null || !loadedFile.isSameAs(lastModifiedTime, size)) {
+        changedFiles.put(file, load(file, lastModifiedTime, size));
+      }
+    }
+    if (changedFiles.isEmpty()) {
+      return false;
+    }
+    loadedFiles.putAll(changedFiles);
+    List<Rule> allRules = new ArrayList<>();
+    for (LoadedFile loadedFile : loadedFiles.values()) {
+      allRules.addAll(loadedFile.rules);
+    }
+    Rules snapshot = new RulesSnapshot(allRules.toArray(new Rule[0]));
+    rules.set(snapshot);
+    LOGGER.info("Loaded {} rules, reloaded files: {}", snapshot.size(), changedFiles.keySet());
+    return true;
+  }
+
+  /**
+   * Periodically check rule files for changes and reload them. Errors while reloading are logged
+   * and the current snapshot is kept.
+   *
+   * @param scheduler used to check rule files
+   * @param period    between two checks
+   * @param unit      of the period
+   * @return the scheduled check, which can be cancelled to stop watching rule files
+   */
+  public ScheduledFuture<?> watch(ScheduledExecutorService scheduler, long period,
+      TimeUnit unit) {
+    return scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        refresh();
+      } catch (Exception e) {
+        LOGGER.error("Unable to reload rules from {}", files, e);
+      }
+    }, period, period, unit);
+  }
+
+  private LoadedFile load(Path file, FileTime lastModifiedTime, long size) throws Exception {
+    List<Rule> fileRules = new ArrayList<>();
+    try (Reader fileReader = Files.newBufferedReader(file)) {
+      for (Rule rule : loader.load(fileReader)) {
+        fileRules.add(rule);
+      }
+    }
+    return new LoadedFile(lastModifiedTime, size, fileRules);
+  }
+
+  /**
+   * Strategy used by a {@link RulesRepository} to create rules from a rule descriptor.
+   */
+  @FunctionalInterface
+  public interface RulesLoader {
+
+    /**
+     * Create rules from the given rule descriptor.
+     *
+     * @param rulesDescriptor descriptor of rule definitions
+     * @return the rules of the descriptor
+     * @throws Exception if unable to create rules from the descriptor
+     */
+    Rules load(Reader rulesDescriptor) throws Exception;
+  }
+
+  private static final class LoadedFile {
+
+    private final FileTime lastModifiedTime;
+    private final long size;
+    private final List<Rule> rules;
+
+    LoadedFile(FileTime lastModifiedTime, long size, List<Rule> rules) {
+      this.lastModifiedTime = lastModifiedTime;
+      this.size = size;
+      this.rules = rules;
+    }
+
+    boolean isSameAs(FileTime lastModifiedTime, long size) {
+      return this.lastModifiedTime.equals(lastModifiedTime) && this.size == size;
+    }
+  }
+}
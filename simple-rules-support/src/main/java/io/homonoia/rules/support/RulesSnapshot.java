@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import java.util.Iterator;
+
+/**
+ * Read-only {@link Rules} published by a {@link RulesRepository}.
+ */
+final class RulesSnapshot extends Rules {
+
+  RulesSnapshot(Rule... rules) {
+    super(rules);
+  }
+
+  @Override
+  public Iterator<Rule> iterator() {
+    Iterator<Rule> iterator = super.iterator();
+    return new Iterator<Rule>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Rule next() {
+        return iterator.next();
+      }
+    };
+  }
+
+  @Override
+  public void register(Object... rules) {
+    throw new UnsupportedOperationException("Rules snapshots cannot be modified");
+  }
+
+  @Override
+  public void unregister(Object... rules) {
+    throw new UnsupportedOperationException("Rules snapshots cannot be modified");
+  }
+
+  @Override
+  public void unregister(String ruleName) {
+    throw new UnsupportedOperationException("Rules snapshots cannot be modified");
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("Rules snapshots cannot be modified");
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe pool of strings used to share a single instance of each distinct string read from
+ * rule descriptors, such as rule names, descriptions and expressions.
+ * <p>
+ * Unlike {@link String#intern()}, strings are only kept as long as the pool itself, which can be
+ * shared by several readers or {@link #clear() cleared} once rules have been created.
+ */
+public class StringPool {
+
+  // approximate size of a string object and of the header of its backing array
+  private static final int STRING_OVERHEAD = 24 + 16;
+
+  private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+  private final LongAdder lookupCount = new LongAdder();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder savedBytes = new LongAdder();
+
+  /**
+   * Return the pooled instance of the given string, adding it to the pool if absent.
+   *
+   * @param string to intern, may be null
+   * @return the pooled instance equal to the string, or null if the string is null
+   */
+  public String intern(String string) {
+    if (string == null) {
+      return null;
+    }
+    lookupCount.increment();
+    String pooled = strings.putIfAbsent(string, string);
+    if (pooled == null) {
+      return string;
+    }
+    if (pooled != string) {
+      hitCount.increment();
+      savedBytes.add(STRING_OVERHEAD + string.length());
+    }
+    return pooled;
+  }
+
+  /**
+   * Return the number of distinct strings in the pool.
+   *
+   * @return the number of distinct strings
+   */
+  public int size() {
+    return strings.size();
+  }
+
+  /**
+   * Remove all strings from the pool. Strings already returned by the pool are not affected.
+   */
+  public void clear() {
+    strings.clear();
+  }
+
+  /**
+   * Return a report of the memory saved by the pool since it was created.
+   *
+   * @return a memory report
+   */
+  public MemoryReport report() {
+    return new MemoryReport(strings.size(), lookupCount.sum(), hitCount.sum(), savedBytes.sum());
+  }
+
+  /**
+   * Memory usage report of a {@link StringPool}.
+   */
+  public static final class MemoryReport {
+
+    private final int distinctStrings;
+    private final long lookupCount;
+    private final long hitCount;
+    private final long savedBytes;
+
+    MemoryReport(int distinctStrings, long lookupCount, long hitCount, long savedBytes) {
+      this.distinctStrings = distinctStrings;
+      this.lookupCount = lookupCount;
+      this.hitCount = hitCount;
+      this.savedBytes = savedBytes;
+    }
+
+    public int getDistinctStrings() {
+      return distinctStrings;
+    }
+
+    public long getLookupCount() {
+      return lookupCount;
+    }
+
+    /**
+     * Return the number of strings that were replaced by an already pooled instance.
+     *
+     * @return the number of duplicate strings
+     */
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    /**
+     * Return an estimate, assuming compact Latin-1 strings, of the heap saved by sharing duplicate
+     * strings.
+     *
+     * @return the estimated number of bytes saved
+     */
+    public long getSavedBytes() {
+      return savedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return "String pool memory report { " +
+          "distinctStrings = " + distinctStrings +
+          ", lookupCount = " + lookupCount +
+          ", hitCount = " + hitCount +
+          ", savedBytes = " + savedBytes +
+          " }";
+    }
+  }
+}
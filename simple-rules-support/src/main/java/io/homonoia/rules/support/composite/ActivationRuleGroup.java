@@ -26,6 +26,9 @@ package io.homonoia.rules.support.composite;
 
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.TreeSet;
 
 /**
@@ -33,14 +36,10 @@ import java.util.TreeSet;
  * other rules in the group (XOR logic). Rules are first sorted by their natural order (priority by
  * default) within the group.
  *
- * <strong>This class is not thread-safe.</strong>
- *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class ActivationRuleGroup extends CompositeRule {
 
-  private Rule selectedRule;
-
   /**
    * Create an activation rule group.
    */
@@ -83,19 +82,66 @@ public class ActivationRuleGroup extends CompositeRule {
 
   @Override
   public boolean evaluate(Facts facts) {
-    for (Rule rule : rules) {
+    ExecutionContext context = getExecutionContext();
+    context.begin(facts);
+    if (getExecutor() != null) {
+      return evaluateInParallel(facts, context);
+    }
+    for (Rule rule : getSortedRules()) {
       if (rule.evaluate(facts)) {
-        selectedRule = rule;
+        context.select(rule);
         return true;
       }
     }
+    context.end();
+    return false;
+  }
+
+  private boolean evaluateInParallel(Facts facts, ExecutionContext context) {
+    Rule[] sortedRules = getSortedRules();
+    ParallelEvaluation evaluation = evaluateInParallel(sortedRules, facts);
+    try {
+      // the first rule in natural order that evaluates to true wins, whatever finishes first
+      for (int index = 0; index < sortedRules.length; index++) {
+        if (evaluation.get(index)) {
+          context.select(sortedRules[index]);
+          return true;
+        }
+      }
+    } finally {
+      evaluation.cancel();
+    }
+    context.end();
     return false;
   }
 
   @Override
   public void execute(Facts facts) throws Exception {
-    if (selectedRule != null) {
-      selectedRule.execute(facts);
+    ExecutionContext context = getExecutionContext();
+    if (!context.isFor(facts) && !evaluate(facts)) {
+      return;
+    }
+    Rule selectedRule = context.getSelectedRule();
+    context.end();
+    selectedRule.execute(facts);
+  }
+
+  /**
+   * The group is triggered as soon as one of its composing rules is, so it only requires the facts
+   * required by all of them.
+   *
+   * @param sortedRules the composing rules sorted in their natural order
+   * @return names of the facts required by all composing rules
+   */
+  @Override
+  protected Set<String> combineRequiredFacts(Rule[] sortedRules) {
+    if (sortedRules.length == 0) {
+      return Collections.emptySet();
+    }
+    Set<String> requiredFacts = new LinkedHashSet<>(sortedRules[0].getRequiredFacts());
+    for (int index = 1; index < sortedRules.length && !requiredFacts.isEmpty(); index++) {
+      requiredFacts.retainAll(sortedRules[index].getRequiredFacts());
     }
+    return requiredFacts;
   }
 }
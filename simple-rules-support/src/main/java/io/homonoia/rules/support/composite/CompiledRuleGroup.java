@@ -0,0 +1,253 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.support.composite;
+
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.support.Compilable;
+import io.homonoia.rules.support.composite.CompositeRule.ExecutionContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A tree of {@link UnitRuleGroup}s, {@link ActivationRuleGroup}s and {@link ConditionalRuleGroup}s
+ * flattened into a single rule. The tree is compiled once into a linear plan of instructions with
+ * jumps implementing the short-circuits of each group, so that deep groups are evaluated in a
+ * single loop, without recursion or iterators.
+ * <p>
+ * The evaluation records which groups and composing rules evaluated to true (in an execution
+ * context bound to the current thread, as composite rules do). The execution then walks the
+ * nodes of the tree in pre-order, skipping the subtrees of the composing rules that are not
+ * executed by their group.
+ * <p>
+ * Composite rules of other types are not flattened and are evaluated as plain composing rules.
+ * The tree is copied when flattened: changes made afterwards to the groups are ignored, as well
+ * as their executor and adaptive evaluation settings.
+ */
+public final class CompiledRuleGroup extends BasicRule implements Compilable {
+
+  private static final int EVALUATE = 0;
+  private static final int STORE = 1;
+  private static final int JUMP_IF_FALSE = 2;
+  private static final int JUMP_IF_TRUE = 3;
+  private static final int LOAD = 4;
+
+  // evaluation plan: each instruction has an operation code and an operand
+  private final int[] operations;
+  private final int[] operands;
+
+  // nodes of the tree in pre-order, composing rules are null for groups
+  private final Rule[] rules;
+  private final int[] subtreeEnds;
+  private final boolean[] executedIfTrue;
+  private final Set<String> requiredFacts;
+
+  private final ThreadLocal<ExecutionContext> executionContexts =
+      ThreadLocal.withInitial(ExecutionContext::new);
+
+  private CompiledRuleGroup(CompositeRule compositeRule, Compiler compiler) {
+    super(compositeRule.getName(), compositeRule.getDescription(), compositeRule.getPriority(),
+        compositeRule.getLoop());
+    this.operations = compiler.operations.stream().mapToInt(Integer::intValue).toArray();
+    this.operands = compiler.operands.stream().mapToInt(Integer::intValue).toArray();
+    this.rules = compiler.rules.toArray(new Rule[0]);
+    this.subtreeEnds = compiler.subtreeEnds.stream().mapToInt(Integer::intValue).toArray();
+    this.executedIfTrue = new boolean[rules.length];
+    this.requiredFacts = compositeRule.getRequiredFacts();
+    for (int node = 0; node < rules.length; node++) {
+      executedIfTrue[node] = compiler.executedIfTrue.get(node);
+    }
+  }
+
+  /**
+   * Flatten a composite rule into a single compiled rule.
+   *
+   * @param compositeRule to flatten
+   * @return the compiled rule
+   * @throws IllegalArgumentException if a group of the tree is invalid
+   */
+  public static CompiledRuleGroup flatten(CompositeRule compositeRule) {
+    Compiler compiler = new Compiler();
+    compiler.compile(compositeRule, false);
+    return new CompiledRuleGroup(compositeRule, compiler);
+  }
+
+  /**
+   * Get the names of the facts required by the flattened composite rule.
+   *
+   * @return names of the facts required by the flattened composite rule
+   */
+  @Override
+  public Set<String> getRequiredFacts() {
+    return requiredFacts;
+  }
+
+  @Override
+  public boolean evaluate(Facts facts) {
+    ExecutionContext context = executionContexts.get();
+    context.begin(facts);
+    boolean result = false;
+    int instruction = 0;
+    while (instruction < operations.length) {
+      int operand = operands[instruction];
+      switch (operations[instruction]) {
+        case EVALUATE:
+          result = rules[operand].evaluate(facts);
+          instruction++;
+          break;
+        case STORE:
+          if (result) {
+            context.select(operand);
+          }
+          instruction++;
+          break;
+        case JUMP_IF_FALSE:
+          instruction = result ? instruction + 1 : operand;
+          break;
+        case JUMP_IF_TRUE:
+          instruction = result ? operand : instruction + 1;
+          break;
+        default:
+          result = operand != 0;
+          instruction++;
+      }
+    }
+    if (!result) {
+      context.end();
+    }
+    return result;
+  }
+
+  @Override
+  public void execute(Facts facts) throws Exception {
+    ExecutionContext context = executionContexts.get();
+    if (!context.isFor(facts) && !evaluate(facts)) {
+      return;
+    }
+    try {
+      int node = 0;
+      while (node < rules.length) {
+        if (executedIfTrue[node] && !context.isSelected(node)) {
+          node = subtreeEnds[node];
+          continue;
+        }
+        if (rules[node] != null) {
+          rules[node].execute(facts);
+        }
+        node++;
+      }
+    } finally {
+      context.end();
+    }
+  }
+
+  /**
+   * Compile the composing rules that support lazy compilation.
+   */
+  @Override
+  public void compile() {
+    for (Rule rule : rules) {
+      if (rule instanceof Compilable) {
+        ((Compilable) rule).compile();
+      }
+    }
+  }
+
+  private static final class Compiler {
+
+    private final List<Integer> operations = new ArrayList<>();
+    private final List<Integer> operands = new ArrayList<>();
+    private final List<Rule> rules = new ArrayList<>();
+    private final List<Integer> subtreeEnds = new ArrayList<>();
+    private final List<Boolean> executedIfTrue = new ArrayList<>();
+
+    /*
+     * Every node leaves its evaluation result in the result register and stores it, jumps of a
+     * group go to the store of the group with the result that decided it.
+     */
+    void compile(Rule rule, boolean isExecutedIfTrue) {
+      int node = rules.size();
+      executedIfTrue.add(isExecutedIfTrue);
+      subtreeEnds.add(-1);
+      List<Integer> jumps = new ArrayList<>();
+      Class<?> type = rule.getClass();
+      if (type != UnitRuleGroup.class && type != ActivationRuleGroup.class
+          && type != ConditionalRuleGroup.class) {
+        rules.add(rule);
+        emit(EVALUATE, node);
+      } else {
+        rules.add(null);
+        compileGroup((CompositeRule) rule, jumps);
+      }
+      subtreeEnds.set(node, rules.size());
+      int store = emit(STORE, node);
+      for (int jump : jumps) {
+        operands.set(jump, store);
+      }
+    }
+
+    private void compileGroup(CompositeRule group, List<Integer> jumps) {
+      Rule[] composingRules = group.getSortedRules();
+      if (composingRules.length == 0) {
+        emit(LOAD, 0);
+        return;
+      }
+      boolean unit = group instanceof UnitRuleGroup;
+      boolean activation = group instanceof ActivationRuleGroup;
+      for (int index = 0; index < composingRules.length; index++) {
+        boolean last = index == composingRules.length - 1;
+        if (unit) {
+          // all composing rules must evaluate to true, they are all executed
+          compile(composingRules[index], false);
+          if (!last) {
+            jumps.add(emit(JUMP_IF_FALSE, -1));
+          }
+        } else if (activation) {
+          // the first composing rule that evaluates to true is the only one executed
+          compile(composingRules[index], true);
+          if (!last) {
+            jumps.add(emit(JUMP_IF_TRUE, -1));
+          }
+        } else {
+          // the first composing rule is the condition, the other ones are executed if true
+          compile(composingRules[index], true);
+          if (index == 0) {
+            jumps.add(emit(JUMP_IF_FALSE, -1));
+          }
+        }
+      }
+      if (!unit && !activation) {
+        emit(LOAD, 1);
+      }
+    }
+
+    private int emit(int operation, int operand) {
+      operations.add(operation);
+      operands.add(operand);
+      return operations.size() - 1;
+    }
+  }
+}
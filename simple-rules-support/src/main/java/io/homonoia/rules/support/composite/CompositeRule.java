@@ -28,26 +28,42 @@ import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.core.BasicRule;
 import io.homonoia.rules.core.RuleProxy;
+import io.homonoia.rules.support.Compilable;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Base class representing a composite rule composed of a set of rules.
- *
- * <strong>This class is not thread-safe.
- * Sub-classes are inherently not thread-safe.</strong>
+ * <p>
+ * The state computed when a composite rule is evaluated and used when it is executed (like the
+ * composing rules selected by the evaluation) is kept in an {@link ExecutionContext} bound to the
+ * current thread, so that composite rules can be fired concurrently. Adding or removing composing
+ * rules while the composite rule is fired is not thread-safe.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
-public abstract class CompositeRule extends BasicRule {
+public abstract class CompositeRule extends BasicRule implements Compilable {
 
   /**
    * The set of composing rules.
    */
   protected Set<Rule> rules;
   private final Map<Object, Rule> proxyRules;
+  private volatile Rule[] sortedRules;
+  private volatile Set<String> requiredFacts;
+  private Executor executor;
+  private final ThreadLocal<ExecutionContext> executionContexts =
+      ThreadLocal.withInitial(ExecutionContext::new);
 
   /**
    * Create a new {@link CompositeRule}.
@@ -94,6 +110,130 @@ public abstract class CompositeRule extends BasicRule {
   @Override
   public abstract void execute(Facts facts) throws Exception;
 
+  /**
+   * Compile the composing rules that support lazy compilation.
+   */
+  @Override
+  public void compile() {
+    for (Rule rule : getSortedRules()) {
+      if (rule instanceof Compilable) {
+        ((Compilable) rule).compile();
+      }
+    }
+  }
+
+  /**
+   * Get the composing rules as an array sorted in their natural order. The array is built and
+   * {@link #validate(Rule[]) validated} once after composing rules are added or removed, and must
+   * not be modified.
+   *
+   * @return the sorted composing rules
+   */
+  protected Rule[] getSortedRules() {
+    Rule[] sorted = sortedRules;
+    if (sorted == null) {
+      sorted = sortRules();
+      validate(sorted);
+      sortedRules = sorted;
+    }
+    return sorted;
+  }
+
+  private Rule[] sortRules() {
+    Rule[] sorted = rules.toArray(new Rule[0]);
+    if (!(rules instanceof SortedSet)) {
+      Arrays.sort(sorted);
+    }
+    return sorted;
+  }
+
+  /**
+   * Get the names of the facts this composite rule requires, combined from the required facts of
+   * its composing rules by {@link #combineRequiredFacts(Rule[])} once after composing rules are
+   * added or removed. Composing rules are not {@link #validate(Rule[]) validated} here, so that
+   * invalid groups fail when they are evaluated.
+   *
+   * @return names of the facts required by this composite rule
+   */
+  @Override
+  public Set<String> getRequiredFacts() {
+    Set<String> combined = requiredFacts;
+    if (combined == null) {
+      combined = Collections.unmodifiableSet(combineRequiredFacts(sortRules()));
+      requiredFacts = combined;
+    }
+    return combined;
+  }
+
+  /**
+   * Combine the required facts of the composing rules into the facts required by this composite
+   * rule: the composite rule must not be triggered when one of them is missing. Returns no facts
+   * by default.
+   *
+   * @param sortedRules the composing rules sorted in their natural order
+   * @return names of the facts required by this composite rule
+   */
+  protected Set<String> combineRequiredFacts(Rule[] sortedRules) {
+    return Collections.emptySet();
+  }
+
+  /**
+   * Validate the composing rules when their sorted array is built. Does nothing by default.
+   *
+   * @param sortedRules the composing rules sorted in their natural order
+   * @throws IllegalArgumentException if the composing rules are not valid for this composite rule
+   */
+  protected void validate(Rule[] sortedRules) {
+    // no op
+  }
+
+  /**
+   * Get the executor used to evaluate composing rules in parallel.
+   *
+   * @return the executor, or null if composing rules are evaluated serially
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Set the executor used to evaluate composing rules in parallel. This is worth it when composing
+   * rules are expensive to evaluate; their conditions must then be safe to evaluate concurrently
+   * and must not modify facts. Evaluations that can no longer change the result of the composite
+   * rule are cancelled.
+   * <p>
+   * Composing rules that are themselves groups are evaluated on the calling thread, while the
+   * other composing rules run on the executor: a group keeps the result of its evaluation on the
+   * evaluating thread for its execution, and waiting on the executor for a group that waits on the
+   * same executor for its own composing rules could exhaust a bounded executor.
+   *
+   * @param executor to use, or null (the default) to evaluate composing rules serially on the
+   *                 calling thread
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Start evaluating the given composing rules in parallel with the executor of this rule.
+   *
+   * @param rules to evaluate
+   * @param facts against which rules are evaluated
+   * @return the evaluation in progress
+   */
+  protected ParallelEvaluation evaluateInParallel(Rule[] rules, Facts facts) {
+    return new ParallelEvaluation(rules, facts, executor);
+  }
+
+  /**
+   * Get the execution context of the current thread.
+   *
+   * @return the execution context of the current thread
+   */
+  protected ExecutionContext getExecutionContext() {
+    return executionContexts.get();
+  }
+
   /**
    * Add a rule to the composite rule.
    *
@@ -103,6 +243,8 @@ public abstract class CompositeRule extends BasicRule {
     Rule proxy = RuleProxy.asRule(rule);
     rules.add(proxy);
     proxyRules.put(rule, proxy);
+    sortedRules = null;
+    requiredFacts = null;
   }
 
   /**
@@ -114,7 +256,206 @@ public abstract class CompositeRule extends BasicRule {
     Rule proxy = proxyRules.get(rule);
     if (proxy != null) {
       rules.remove(proxy);
+      sortedRules = null;
+      requiredFacts = null;
+    }
+  }
+
+  /**
+   * State handed from the evaluation of a composite rule to its execution on the same thread. A
+   * context is reused by all the evaluations of a composite rule on a thread, so that they do not
+   * allocate. The evaluated facts are weakly referenced: an evaluation that is not followed by an
+   * execution (when the rule is only checked or skipped) does not keep them alive.
+   */
+  protected static final class ExecutionContext {
+
+    private static final WeakReference<Facts> NO_FACTS = new WeakReference<>(null);
+
+    private final BitSet selectedRules = new BitSet();
+    private WeakReference<Facts> facts = NO_FACTS;
+    private boolean evaluated;
+    private Rule selectedRule;
+
+    /**
+     * Start a new evaluation on the given facts, forgetting the previous selections.
+     *
+     * @param facts being evaluated
+     */
+    public void begin(Facts facts) {
+      if (this.facts.get() != facts) {
+        this.facts = facts == null ? NO_FACTS : new WeakReference<>(facts);
+      }
+      this.evaluated = facts != null;
+      this.selectedRule = null;
+      this.selectedRules.clear();
+    }
+
+    /**
+     * End the current evaluation and forget its selections.
+     */
+    public void end() {
+      this.evaluated = false;
+      this.selectedRule = null;
+      this.selectedRules.clear();
+    }
+
+    /**
+     * Check if the selections of this context result from the evaluation of the given facts.
+     *
+     * @param facts to check
+     * @return true if the last evaluation was made on the given facts and has not ended
+     */
+    public boolean isFor(Facts facts) {
+      return evaluated && facts != null && this.facts.get() == facts;
+    }
+
+    /**
+     * Get the weak reference to the facts of the last evaluation.
+     */
+    WeakReference<Facts> getFactsReference() {
+      return facts;
+    }
+
+    /**
+     * Select a composing rule.
+     *
+     * @param rule to select
+     */
+    public void select(Rule rule) {
+      this.selectedRule = rule;
+    }
+
+    /**
+     * Get the selected composing rule.
+     *
+     * @return the selected rule, or null if no rule has been selected
+     */
+    public Rule getSelectedRule() {
+      return selectedRule;
+    }
+
+    /**
+     * Select a composing rule by its index in the sorted composing rules.
+     *
+     * @param index of the rule to select
+     */
+    public void select(int index) {
+      selectedRules.set(index);
+    }
+
+    /**
+     * Check if a composing rule has been selected by its index.
+     *
+     * @param index of the rule
+     * @return true if the rule has been selected
+     */
+    public boolean isSelected(int index) {
+      return selectedRules.get(index);
     }
   }
 
+  /**
+   * Evaluation of composing rules in progress on an executor. Results are read by index, in the
+   * order of the evaluated rules, and exceptions thrown by an evaluation are rethrown when its
+   * result is read. Composing groups are evaluated on the calling thread once the other composing
+   * rules have been submitted.
+   */
+  protected static final class ParallelEvaluation {
+
+    private final CompletableFuture<Boolean>[] results;
+
+    @SuppressWarnings("unchecked")
+    private ParallelEvaluation(Rule[] rules, Facts facts, Executor executor) {
+      results = new CompletableFuture[rules.length];
+      for (int index = 0; index < rules.length; index++) {
+        Rule rule = rules[index];
+        if (!isGroup(rule)) {
+          results[index] = CompletableFuture.supplyAsync(() -> rule.evaluate(facts), executor);
+        }
+      }
+      for (int index = 0; index < rules.length; index++) {
+        if (results[index] == null) {
+          results[index] = evaluate(rules[index], facts);
+        }
+      }
+    }
+
+    private static boolean isGroup(Rule rule) {
+      return rule instanceof CompositeRule || rule instanceof CompiledRuleGroup;
+    }
+
+    private static CompletableFuture<Boolean> evaluate(Rule rule, Facts facts) {
+      try {
+        return CompletableFuture.completedFuture(rule.evaluate(facts));
+      } catch (RuntimeException | Error exception) {
+        return CompletableFuture.failedFuture(exception);
+      }
+    }
+
+    /**
+     * Wait for the result of the evaluation of a rule.
+     *
+     * @param index of the rule
+     * @return the evaluation result of the rule
+     */
+    public boolean get(int index) {
+      return join(results[index]);
+    }
+
+    /**
+     * Wait until all rules evaluate to true or one of them evaluates to false, whichever comes
+     * first, and cancel the remaining evaluations.
+     *
+     * @return true if all rules evaluated to true
+     */
+    public boolean allTrue() {
+      CompletableFuture<Boolean> decision = new CompletableFuture<>();
+      for (CompletableFuture<Boolean> result : results) {
+        result.whenComplete((evaluationResult, exception) -> {
+          if (exception != null) {
+            decision.completeExceptionally(exception);
+          } else if (!evaluationResult) {
+            decision.complete(false);
+          }
+        });
+      }
+      CompletableFuture.allOf(results).whenComplete((ignored, exception) -> {
+        if (exception != null) {
+          decision.completeExceptionally(exception);
+        } else {
+          decision.complete(Arrays.stream(results).allMatch(CompletableFuture::join));
+        }
+      });
+      try {
+        return join(decision);
+      } finally {
+        cancel();
+      }
+    }
+
+    /**
+     * Cancel the evaluations that have not started yet. Results of evaluations in progress are
+     * ignored.
+     */
+    public void cancel() {
+      for (CompletableFuture<Boolean> result : results) {
+        result.cancel(false);
+      }
+    }
+
+    private static boolean join(CompletableFuture<Boolean> result) {
+      try {
+        return result.join();
+      } catch (CompletionException exception) {
+        Throwable cause = exception.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw exception;
+      }
+    }
+  }
 }
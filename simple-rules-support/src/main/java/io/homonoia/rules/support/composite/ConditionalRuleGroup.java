@@ -26,26 +26,18 @@ package io.homonoia.rules.support.composite;
 
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Collections;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * A conditional rule group is a composite rule where the rule with the highest priority acts as a
  * condition: if the rule with the highest priority evaluates to true, then we try to evaluate the
  * rest of the rules and execute the ones that evaluate to true.
  *
- * <strong>This class is not thread-safe.</strong>
- *
  * @author Dag Framstad (dagframstad@gmail.com)
  */
 public class ConditionalRuleGroup extends CompositeRule {
 
-  private Set<Rule> successfulEvaluations;
-  private Rule conditionalRule;
-
   /**
    * Create a conditional rule group.
    */
@@ -91,16 +83,45 @@ public class ConditionalRuleGroup extends CompositeRule {
    */
   @Override
   public boolean evaluate(Facts facts) {
-    successfulEvaluations = new HashSet<>();
-    conditionalRule = getRuleWithHighestPriority();
-    if (conditionalRule.evaluate(facts)) {
-      for (Rule rule : rules) {
-        if (rule != conditionalRule && rule.evaluate(facts)) {
-          successfulEvaluations.add(rule);
+    Rule[] sortedRules = getSortedRules();
+    if (sortedRules.length == 0) {
+      return false;
+    }
+    ExecutionContext context = getExecutionContext();
+    context.begin(facts);
+    if (getExecutor() != null) {
+      return evaluateInParallel(sortedRules, facts, context);
+    }
+    // the rule with the highest priority comes first and acts as the condition of the group
+    if (sortedRules[0].evaluate(facts)) {
+      for (int index = 1; index < sortedRules.length; index++) {
+        if (sortedRules[index].evaluate(facts)) {
+          context.select(index);
         }
       }
+      context.select(sortedRules[0]);
       return true;
     }
+    context.end();
+    return false;
+  }
+
+  private boolean evaluateInParallel(Rule[] sortedRules, Facts facts, ExecutionContext context) {
+    ParallelEvaluation evaluation = evaluateInParallel(sortedRules, facts);
+    try {
+      if (evaluation.get(0)) {
+        for (int index = 1; index < sortedRules.length; index++) {
+          if (evaluation.get(index)) {
+            context.select(index);
+          }
+        }
+        context.select(sortedRules[0]);
+        return true;
+      }
+    } finally {
+      evaluation.cancel();
+    }
+    context.end();
     return false;
   }
 
@@ -113,24 +134,45 @@ public class ConditionalRuleGroup extends CompositeRule {
    */
   @Override
   public void execute(Facts facts) throws Exception {
-    conditionalRule.execute(facts);
-    for (Rule rule : sort(successfulEvaluations)) {
-      rule.execute(facts);
+    ExecutionContext context = getExecutionContext();
+    if (!context.isFor(facts) && !evaluate(facts)) {
+      return;
+    }
+    try {
+      Rule[] sortedRules = getSortedRules();
+      sortedRules[0].execute(facts);
+      for (int index = 1; index < sortedRules.length; index++) {
+        if (context.isSelected(index)) {
+          sortedRules[index].execute(facts);
+        }
+      }
+    } finally {
+      context.end();
     }
   }
 
-  private Rule getRuleWithHighestPriority() {
-    List<Rule> copy = sort(rules);
-    // make sure we only have one rule with the highest priority
-    Rule highest = copy.get(0);
-    if (copy.size() > 1 && copy.get(1).getPriority() == highest.getPriority()) {
+  /**
+   * Make sure only one rule has the highest priority.
+   *
+   * @param sortedRules the composing rules sorted in their natural order
+   * @throws IllegalArgumentException if several rules have the highest priority
+   */
+  @Override
+  protected void validate(Rule[] sortedRules) {
+    if (sortedRules.length > 1 && sortedRules[1].getPriority() == sortedRules[0].getPriority()) {
       throw new IllegalArgumentException("Only one rule can have highest priority");
     }
-    return highest;
   }
 
-  private List<Rule> sort(Set<Rule> rules) {
-    return new ArrayList<>(new TreeSet<>(rules));
+  /**
+   * The conditional rule (the one with the highest priority) acts as the condition of the group,
+   * so the group requires its facts.
+   *
+   * @param sortedRules the composing rules sorted in their natural order
+   * @return names of the facts required by the conditional rule
+   */
+  @Override
+  protected Set<String> combineRequiredFacts(Rule[] sortedRules) {
+    return sortedRules.length == 0 ? Collections.emptySet() : sortedRules[0].getRequiredFacts();
   }
-
 }
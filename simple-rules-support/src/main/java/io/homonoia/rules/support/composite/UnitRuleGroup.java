@@ -26,6 +26,12 @@ package io.homonoia.rules.support.composite;
 
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 /**
  * A unit rule group is a composite rule that acts as a unit: Either all rules are applied or
@@ -37,6 +43,9 @@ import io.homonoia.rules.api.Rule;
  */
 public class UnitRuleGroup extends CompositeRule {
 
+  private boolean adaptive;
+  private volatile EvaluationStatistics statistics;
+
   /**
    * Create a unit rule group.
    */
@@ -73,23 +82,140 @@ public class UnitRuleGroup extends CompositeRule {
     super(name, description, priority);
   }
 
+  /**
+   * Check if the evaluation order of composing rules adapts to their observed cost and pass rate.
+   *
+   * @return true if the evaluation order is adaptive
+   */
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  /**
+   * Set whether the evaluation order of composing rules adapts to their observed cost and pass
+   * rate. When adaptive, the group measures the time taken by each composing rule to evaluate and
+   * how often it evaluates to true, and periodically reorders evaluations so that the rules most
+   * likely to fail fast are evaluated first. Rules are still executed in their natural order.
+   * <p>
+   * Composing rules must not depend on being evaluated in their natural order to use this mode,
+   * which does not apply when composing rules are evaluated in parallel.
+   *
+   * @param adaptive true to adapt the evaluation order, false (the default) to evaluate composing
+   *                 rules in their natural order
+   */
+  public void setAdaptive(boolean adaptive) {
+    this.adaptive = adaptive;
+  }
+
   @Override
   public boolean evaluate(Facts facts) {
-    if (!rules.isEmpty()) {
-      for (Rule rule : rules) {
-        if (!rule.evaluate(facts)) {
-          return false;
-        }
+    Rule[] sortedRules = getSortedRules();
+    if (sortedRules.length == 0) {
+      return false;
+    }
+    if (getExecutor() != null) {
+      return evaluateInParallel(sortedRules, facts).allTrue();
+    }
+    if (adaptive) {
+      return getStatistics(sortedRules).evaluate(facts);
+    }
+    for (Rule rule : sortedRules) {
+      if (!rule.evaluate(facts)) {
+        return false;
       }
-      return true;
     }
-    return false;
+    return true;
   }
 
   @Override
   public void execute(Facts facts) throws Exception {
-    for (Rule rule : rules) {
+    for (Rule rule : getSortedRules()) {
       rule.execute(facts);
     }
   }
+
+  /**
+   * The group is triggered only when all its composing rules are, so it requires the facts
+   * required by any of them.
+   *
+   * @param sortedRules the composing rules sorted in their natural order
+   * @return names of the facts required by the composing rules
+   */
+  @Override
+  protected Set<String> combineRequiredFacts(Rule[] sortedRules) {
+    Set<String> requiredFacts = new LinkedHashSet<>();
+    for (Rule rule : sortedRules) {
+      requiredFacts.addAll(rule.getRequiredFacts());
+    }
+    return requiredFacts;
+  }
+
+  private EvaluationStatistics getStatistics(Rule[] sortedRules) {
+    EvaluationStatistics current = statistics;
+    // statistics are reset when composing rules change
+    if (current == null || current.rules != sortedRules) {
+      current = new EvaluationStatistics(sortedRules);
+      statistics = current;
+    }
+    return current;
+  }
+
+  /*
+   * Observed cost and pass rate of composing rules. Rules are evaluated by increasing expected cost
+   * per failure (average cost divided by failure rate), which minimizes the expected cost of a
+   * conjunction evaluated with short-circuit. Rules that never failed come last, in their natural
+   * order. Statistics are updated without locking: lost updates only make them slightly less
+   * accurate.
+   */
+  private static final class EvaluationStatistics {
+
+    private static final int REORDER_INTERVAL = 1024;
+
+    private final Rule[] rules;
+    private final AtomicLongArray evaluations;
+    private final AtomicLongArray passes;
+    private final AtomicLongArray nanos;
+    private final AtomicLong groupEvaluations = new AtomicLong();
+    private volatile int[] order;
+
+    EvaluationStatistics(Rule[] rules) {
+      this.rules = rules;
+      this.evaluations = new AtomicLongArray(rules.length);
+      this.passes = new AtomicLongArray(rules.length);
+      this.nanos = new AtomicLongArray(rules.length);
+      this.order = IntStream.range(0, rules.length).toArray();
+    }
+
+    boolean evaluate(Facts facts) {
+      if (groupEvaluations.incrementAndGet() % REORDER_INTERVAL == 0) {
+        reorder();
+      }
+      for (int index : order) {
+        long start = System.nanoTime();
+        boolean result = rules[index].evaluate(facts);
+        nanos.addAndGet(index, System.nanoTime() - start);
+        evaluations.incrementAndGet(index);
+        if (!result) {
+          return false;
+        }
+        passes.incrementAndGet(index);
+      }
+      return true;
+    }
+
+    private void reorder() {
+      double[] scores = new double[rules.length];
+      for (int index = 0; index < rules.length; index++) {
+        long evaluated = evaluations.get(index);
+        long failures = evaluated - passes.get(index);
+        // rules never evaluated yet come first so that their statistics get collected
+        scores[index] = evaluated == 0 ? 0 : failures == 0 ? Double.POSITIVE_INFINITY
+            : (double) nanos.get(index) / failures;
+      }
+      order = IntStream.range(0, rules.length).boxed()
+          .sorted(Comparator.comparingDouble(index -> scores[index]))
+          .mapToInt(Integer::intValue)
+          .toArray();
+    }
+  }
 }
@@ -26,10 +26,16 @@ package io.homonoia.rules.support.reader;
 
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.support.RuleDefinition;
+import io.homonoia.rules.support.StringPool;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Base class for {@link RuleDefinitionReader}s.
@@ -38,17 +44,69 @@ import java.util.Map;
  */
 public abstract class AbstractRuleDefinitionReader implements RuleDefinitionReader {
 
+  private StringPool stringPool;
+
+  /**
+   * Return the pool used to share identical strings between rule definitions read by this reader,
+   * if one was set.
+   *
+   * @return the string pool of this reader, or null if each read uses its own pool
+   */
+  public StringPool getStringPool() {
+    return stringPool;
+  }
+
+  /**
+   * Set the pool used to share identical strings between rule definitions of different reads. A
+   * pool can be shared by several readers, and is kept until it is {@link StringPool#clear()
+   * cleared}. By default, each read uses its own pool, which is discarded with the read.
+   *
+   * @param stringPool the string pool to use, or null to use a pool per read
+   */
+  public void setStringPool(StringPool stringPool) {
+    this.stringPool = stringPool;
+  }
+
   public List<RuleDefinition> read(Reader reader) throws Exception {
     List<RuleDefinition> ruleDefinitions = new ArrayList<>();
     Iterable<Map<String, Object>> rules = loadRules(reader);
-    for (Map<String, Object> rule : rules) {
-      ruleDefinitions.add(createRuleDefinition(rule));
+    StringPool pool = stringPool();
+    try {
+      for (Map<String, Object> rule : rules) {
+        ruleDefinitions.add(createRuleDefinition(rule, pool));
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
     return ruleDefinitions;
   }
 
+  @Override
+  public Stream<RuleDefinition> stream(Reader reader) throws Exception {
+    Iterable<Map<String, Object>> rules = loadRules(reader);
+    StringPool pool = stringPool();
+    return StreamSupport.stream(rules.spliterator(), false)
+        .map(rule -> createRuleDefinition(rule, pool))
+        .onClose(() -> close(rules));
+  }
+
+  private static void close(Iterable<Map<String, Object>> rules) {
+    if (rules instanceof Closeable) {
+      try {
+        ((Closeable) rules).close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
   /**
    * Load rules from the given reader as an iterable of Maps.
+   * <p>
+   * The returned iterable may read rules lazily from the reader as it is iterated. If it holds
+   * resources of its own, such as a parser, it should implement {@link Closeable} so that they
+   * are released when the stream returned by {@link #stream(Reader)} is closed. Closing them must
+   * not close the given reader, which belongs to the caller.
    *
    * @param reader to read rules from
    * @return an iterable of rule Maps
@@ -56,6 +114,10 @@ public abstract class AbstractRuleDefinitionReader implements RuleDefinitionRead
    */
   protected abstract Iterable<Map<String, Object>> loadRules(Reader reader) throws Exception;
 
+  private StringPool stringPool() {
+    return stringPool != null ? stringPool : new StringPool();
+  }
+
   /**
    * Create a rule definition.
    *
@@ -63,13 +125,25 @@ public abstract class AbstractRuleDefinitionReader implements RuleDefinitionRead
    * @return a rule definition
    */
   protected RuleDefinition createRuleDefinition(Map<String, Object> map) {
+    return createRuleDefinition(map, stringPool());
+  }
+
+  /**
+   * Create a rule definition, sharing its strings through the given pool.
+   *
+   * @param map        of rule properties
+   * @param stringPool used to share identical strings between rule definitions
+   * @return a rule definition
+   */
+  protected RuleDefinition createRuleDefinition(Map<String, Object> map, StringPool stringPool) {
     RuleDefinition ruleDefinition = new RuleDefinition();
 
     String name = (String) map.get("name");
-    ruleDefinition.setName(name != null ? name : Rule.DEFAULT_NAME);
+    ruleDefinition.setName(name != null ? stringPool.intern(name) : Rule.DEFAULT_NAME);
 
     String description = (String) map.get("description");
-    ruleDefinition.setDescription(description != null ? description : Rule.DEFAULT_DESCRIPTION);
+    ruleDefinition.setDescription(
+        description != null ? stringPool.intern(description) : Rule.DEFAULT_DESCRIPTION);
 
     Integer priority = (Integer) map.get("priority");
     ruleDefinition.setPriority(priority != null ? priority : Rule.DEFAULT_PRIORITY);
@@ -78,34 +152,62 @@ public abstract class AbstractRuleDefinitionReader implements RuleDefinitionRead
     ruleDefinition.setLoop(loop != null ? loop : Rule.DEFAULT_LOOP);
 
     String compositeRuleType = (String) map.get("compositeRuleType");
-
     String condition = (String) map.get("condition");
+    List<String> actions = (List<String>) map.get("actions");
+    List<Object> composingRules = (List<Object>) map.get("composingRules");
+    validate(condition, actions, composingRules, compositeRuleType);
+
+    ruleDefinition.setCondition(stringPool.intern(condition));
+    ruleDefinition.setActions(internAll(actions, stringPool));
+    if (composingRules != null && !composingRules.isEmpty()) {
+      List<RuleDefinition> composingRuleDefinitions = new ArrayList<>(composingRules.size());
+      for (Object rule : composingRules) {
+        Map<String, Object> composingRuleMap = (Map<String, Object>) rule;
+        composingRuleDefinitions.add(createRuleDefinition(composingRuleMap, stringPool));
+      }
+      ruleDefinition.setComposingRules(composingRuleDefinitions);
+      ruleDefinition.setCompositeRuleType(stringPool.intern(compositeRuleType));
+    }
+
+    return ruleDefinition;
+  }
+
+  /**
+   * Check that the properties of a rule definition are consistent, as expected by rule factories.
+   *
+   * @param condition         of the rule, may be null
+   * @param actions           of the rule, may be null
+   * @param composingRules    of the rule, may be null
+   * @param compositeRuleType of the rule, null if it is not a composite rule
+   * @throws IllegalArgumentException if the rule definition is not valid
+   */
+  static void validate(String condition, List<?> actions, List<?> composingRules,
+      String compositeRuleType) {
     if (condition == null && compositeRuleType == null) {
       throw new IllegalArgumentException("The rule condition must be specified");
     }
-    ruleDefinition.setCondition(condition);
-
-    List<String> actions = (List<String>) map.get("actions");
     if ((actions == null || actions.isEmpty()) && compositeRuleType == null) {
       throw new IllegalArgumentException("The rule action(s) must be specified");
     }
-    ruleDefinition.setActions(actions);
-
-    List<Object> composingRules = (List<Object>) map.get("composingRules");
     if ((composingRules != null && !composingRules.isEmpty()) && compositeRuleType == null) {
       throw new IllegalArgumentException("Non-composite rules cannot have composing rules");
     } else if ((composingRules == null || composingRules.isEmpty()) && compositeRuleType != null) {
       throw new IllegalArgumentException("Composite rules must have composing rules specified");
-    } else if (composingRules != null) {
-      List<RuleDefinition> composingRuleDefinitions = new ArrayList<>();
-      for (Object rule : composingRules) {
-        Map<String, Object> composingRuleMap = (Map<String, Object>) rule;
-        composingRuleDefinitions.add(createRuleDefinition(composingRuleMap));
-      }
-      ruleDefinition.setComposingRules(composingRuleDefinitions);
-      ruleDefinition.setCompositeRuleType(compositeRuleType);
     }
+  }
 
-    return ruleDefinition;
+  // lists stay mutable like those of a new rule definition, but are sized to their content
+  private static List<String> internAll(List<String> strings, StringPool stringPool) {
+    if (strings == null || strings.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<String> interned = new ArrayList<>(strings.size());
+    for (String string : strings) {
+      if (string == null) {
+        throw new IllegalArgumentException("The rule action(s) must be specified");
+      }
+      interned.add(stringPool.intern(string));
+    }
+    return interned;
   }
 }
@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support.reader;
+
+import io.homonoia.rules.support.RuleDefinition;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reader of rule definitions written by {@link BinaryRuleDefinitionWriter}.
+ * <p>
+ * Files are memory-mapped rather than read through a stream, and each string of the string table
+ * is decoded once and shared by all the rule definitions that reference it. Rule definitions are
+ * validated like those read by the YAML and JSON readers.
+ * <p>
+ * This reader can also be given to rule factories. As a {@link RuleDefinitionReader}, it reads
+ * the bytes of the file as characters decoded with ISO-8859-1, which maps each byte to the
+ * character of the same value: use {@link #newReader(Path)} to open such a reader.
+ */
+public class BinaryRuleDefinitionReader implements RuleDefinitionReader {
+
+  static final int MAGIC = 0x53524442;
+  static final short VERSION = 1;
+  static final int NULL = -1;
+
+  /**
+   * Open a file of binary rule definitions as a reader that can be given to
+   * {@link #read(Reader)}, or to rule factories created with this reader.
+   *
+   * @param path of the file to read rule definitions from
+   * @return a reader of the file, decoding each byte as one character
+   * @throws IOException if unable to open the file
+   */
+  public static Reader newReader(Path path) throws IOException {
+    return Files.newBufferedReader(path, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Read rule definitions from a reader opened with {@link #newReader(Path)}. The reader is not
+   * closed.
+   *
+   * @param reader of binary rule definitions, decoding each byte as one character
+   * @return a list of rule definitions
+   * @throws IOException if unable to read rule definitions, or if the reader returns characters
+   *                     that are not bytes
+   */
+  @Override
+  public List<RuleDefinition> read(Reader reader) throws IOException {
+    byte[] bytes = new byte[8192];
+    char[] chars = new char[8192];
+    int length = 0;
+    int read;
+    while ((read = reader.read(chars)) != -1) {
+      if (length + read > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(length + read, bytes.length * 2));
+      }
+      for (int i = 0; i < read; i++) {
+        char c = chars[i];
+        if (c > 0xFF) {
+          throw new IOException("Binary rule definitions must be read with the ISO-8859-1 charset");
+        }
+        bytes[length++] = (byte) c;
+      }
+    }
+    return read(ByteBuffer.wrap(bytes, 0, length));
+  }
+
+  /**
+   * Read rule definitions from a file.
+   *
+   * @param path of the file to read rule definitions from
+   * @return a list of rule definitions
+   * @throws IOException if unable to read rule definitions
+   */
+  public List<RuleDefinition> read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return read(buffer);
+    }
+  }
+
+  /**
+   * Read rule definitions from a buffer, starting at its current position.
+   *
+   * @param buffer to read rule definitions from
+   * @return a list of rule definitions
+   * @throws IOException              if the buffer does not contain binary rule definitions
+   * @throws IllegalArgumentException if a rule definition is not valid
+   */
+  public List<RuleDefinition> read(ByteBuffer buffer) throws IOException {
+    List<RuleDefinition> ruleDefinitions = readFormat(buffer);
+    validate(ruleDefinitions);
+    return ruleDefinitions;
+  }
+
+  private static List<RuleDefinition> readFormat(ByteBuffer buffer) throws IOException {
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("Not a binary rule definitions file");
+      }
+      short version = buffer.getShort();
+      if (version != VERSION) {
+        throw new IOException("Unsupported binary rule definitions version " + version);
+      }
+      String[] strings = new String[buffer.getInt()];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+      return readRuleDefinitions(buffer, strings);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+        | NegativeArraySizeException e) {
+      throw new IOException("Truncated or corrupted binary rule definitions", e);
+    }
+  }
+
+  private static List<RuleDefinition> readRuleDefinitions(ByteBuffer buffer, String[] strings) {
+    int count = buffer.getInt();
+    if (count == NULL) {
+      return null;
+    }
+    List<RuleDefinition> ruleDefinitions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      RuleDefinition ruleDefinition = new RuleDefinition();
+      ruleDefinition.setName(readString(buffer, strings));
+      ruleDefinition.setDescription(readString(buffer, strings));
+      ruleDefinition.setPriority(buffer.getInt());
+      ruleDefinition.setLoop(buffer.get() != 0);
+      ruleDefinition.setCondition(readString(buffer, strings));
+      ruleDefinition.setCompositeRuleType(readString(buffer, strings));
+      int actionCount = buffer.getInt();
+      if (actionCount == NULL) {
+        ruleDefinition.setActions(null);
+      } else {
+        List<String> actions = new ArrayList<>(actionCount);
+        for (int j = 0; j < actionCount; j++) {
+          actions.add(readString(buffer, strings));
+        }
+        ruleDefinition.setActions(actions);
+      }
+      ruleDefinition.setComposingRules(readRuleDefinitions(buffer, strings));
+      ruleDefinitions.add(ruleDefinition);
+    }
+    return ruleDefinitions;
+  }
+
+  private static void validate(List<RuleDefinition> ruleDefinitions) {
+    if (ruleDefinitions == null) {
+      return;
+    }
+    for (RuleDefinition ruleDefinition : ruleDefinitions) {
+      AbstractRuleDefinitionReader.validate(ruleDefinition.getCondition(),
+          ruleDefinition.getActions(), ruleDefinition.getComposingRules(),
+          ruleDefinition.getCompositeRuleType());
+      validate(ruleDefinition.getComposingRules());
+    }
+  }
+
+  private static String readString(ByteBuffer buffer, String[] strings) {
+    int index = buffer.getInt();
+    return index == NULL ? null : strings[index];
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support.reader;
+
+import io.homonoia.rules.support.RuleDefinition;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of the binary rule definitions format read by {@link BinaryRuleDefinitionReader}.
+ * <p>
+ * Rule definitions are typically read once from their YAML or JSON descriptor at build time and
+ * written in this format, which can be loaded without any parsing at startup. Each distinct string
+ * is written once, in a string table referenced by index from the rule definitions.
+ * <p>
+ * Only rule definitions are written: conditions and actions are still compiled when rules are
+ * created from them. The compiled forms of MVEL, SpEL and JEXL expressions depend on the classes
+ * and parser configuration of the runtime, so they are not written until the format can record
+ * and check them.
+ * <p>
+ * This class can be run as a build tool:
+ *
+ * <pre>
+ *     java io.homonoia.rules.support.reader.BinaryRuleDefinitionWriter rules.yml rules.bin
+ * </pre>
+ */
+public class BinaryRuleDefinitionWriter {
+
+  /**
+   * Write the given rule definitions to an output stream.
+   *
+   * @param ruleDefinitions to write
+   * @param outputStream    to write rule definitions to
+   * @throws IOException if unable to write rule definitions
+   */
+  public void write(List<RuleDefinition> ruleDefinitions, OutputStream outputStream)
+      throws IOException {
+    Map<String, Integer> indexes = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+    for (RuleDefinition ruleDefinition : ruleDefinitions) {
+      collectStrings(ruleDefinition, indexes, strings);
+    }
+
+    DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+    output.writeInt(BinaryRuleDefinitionReader.MAGIC);
+    output.writeShort(BinaryRuleDefinitionReader.VERSION);
+    output.writeInt(strings.size());
+    for (String string : strings) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+    writeRuleDefinitions(ruleDefinitions, indexes, output);
+    output.flush();
+  }
+
+  /**
+   * Write the given rule definitions to a file.
+   *
+   * @param ruleDefinitions to write
+   * @param path            of the file to write rule definitions to
+   * @throws IOException if unable to write rule definitions
+   */
+  public void write(List<RuleDefinition> ruleDefinitions, Path path) throws IOException {
+    try (OutputStream outputStream = Files.newOutputStream(path)) {
+      write(ruleDefinitions, outputStream);
+    }
+  }
+
+  private static void collectStrings(RuleDefinition ruleDefinition, Map<String, Integer> indexes,
+      List<String> strings) {
+    addString(ruleDefinition.getName(), indexes, strings);
+    addString(ruleDefinition.getDescription(), indexes, strings);
+    addString(ruleDefinition.getCondition(), indexes, strings);
+    addString(ruleDefinition.getCompositeRuleType(), indexes, strings);
+    if (ruleDefinition.getActions() != null) {
+      for (String action : ruleDefinition.getActions()) {
+        addString(action, indexes, strings);
+      }
+    }
+    if (ruleDefinition.getComposingRules() != null) {
+      for (RuleDefinition composingRule : ruleDefinition.getComposingRules()) {
+        collectStrings(composingRule, indexes, strings);
+      }
+    }
+  }
+
+  private static void addString(String string, Map<String, Integer> indexes,
+      List<String> strings) {
+    if (string != null && !indexes.containsKey(string)) {
+      indexes.put(string, strings.size());
+      strings.add(string);
+    }
+  }
+
+  private static void writeRuleDefinitions(List<RuleDefinition> ruleDefinitions,
+      Map<String, Integer> indexes, DataOutputStream output) throws IOException {
+    if (ruleDefinitions == null) {
+      output.writeInt(BinaryRuleDefinitionReader.NULL);
+      return;
+    }
+    output.writeInt(ruleDefinitions.size());
+    for (RuleDefinition ruleDefinition : ruleDefinitions) {
+      writeString(ruleDefinition.getName(), indexes, output);
+      writeString(ruleDefinition.getDescription(), indexes, output);
+      output.writeInt(ruleDefinition.getPriority());
+      output.writeBoolean(ruleDefinition.getLoop());
+      writeString(ruleDefinition.getCondition(), indexes, output);
+      writeString(ruleDefinition.getCompositeRuleType(), indexes, output);
+      List<String> actions = ruleDefinition.getActions();
+      if (actions == null) {
+        output.writeInt(BinaryRuleDefinitionReader.NULL);
+      } else {
+        output.writeInt(actions.size());
+        for (String action : actions) {
+          writeString(action, indexes, output);
+        }
+      }
+      writeRuleDefinitions(ruleDefinition.getComposingRules(), indexes, output);
+    }
+  }
+
+  private static void writeString(String string, Map<String, Integer> indexes,
+      DataOutputStream output) throws IOException {
+    output.writeInt(string == null ? BinaryRuleDefinitionReader.NULL : indexes.get(string));
+  }
+
+  /**
+   * Convert a YAML or JSON rules descriptor, encoded in UTF-8, to the binary rule definitions
+   * format.
+   *
+   * @param args the rules descriptor followed by the file to write
+   * @throws Exception if unable to convert the rules descriptor
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2) {
+      System.err.println("Usage: BinaryRuleDefinitionWriter <rules.yml|rules.json> <output>");
+      System.exit(1);
+    }
+    String descriptor = args[0];
+    RuleDefinitionReader reader = descriptor.endsWith(".json")
+        ? new JsonRuleDefinitionReader() : new YamlRuleDefinitionReader();
+    List<RuleDefinition> ruleDefinitions;
+    try (Reader rulesDescriptor =
+        Files.newBufferedReader(Paths.get(descriptor), StandardCharsets.UTF_8)) {
+      ruleDefinitions = reader.read(rulesDescriptor);
+    }
+    new BinaryRuleDefinitionWriter().write(ruleDefinitions, Paths.get(args[1]));
+  }
+}
@@ -24,11 +24,18 @@
 
 package io.homonoia.rules.support.reader;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.Reader;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Rule definition reader based on <a href="https://github.com/FasterXML/jackson">Jackson</a>.
@@ -41,9 +48,12 @@ import java.util.Map;
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
-@SuppressWarnings("unchecked")
 public class JsonRuleDefinitionReader extends AbstractRuleDefinitionReader {
 
+  private static final TypeReference<Map<String, Object>> RULE_TYPE =
+      new TypeReference<Map<String, Object>>() {
+      };
+
   private final ObjectMapper objectMapper;
 
   /**
@@ -64,12 +74,81 @@ public class JsonRuleDefinitionReader extends AbstractRuleDefinitionReader {
 
   @Override
   protected Iterable<Map<String, Object>> loadRules(Reader reader) throws Exception {
-    List<Map<String, Object>> rulesList = new ArrayList<>();
-    Object[] rules = objectMapper.readValue(reader, Object[].class);
-    for (Object rule : rules) {
-      rulesList.add((Map<String, Object>) rule);
+    JsonParser parser = objectMapper.getFactory().createParser(reader);
+    // the reader belongs to the caller, closing the parser must not close it
+    parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    if (parser.nextToken() != JsonToken.START_ARRAY) {
+      parser.close();
+      throw new JsonParseException(parser, "Expected an array of rule definitions");
+    }
+    return new RuleIterable(new RuleIterator(parser));
+  }
+
+  /**
+   * Iterable over the rule definitions of a parser, closing the parser (but not its source) when
+   * closed.
+   */
+  private static class RuleIterable implements Iterable<Map<String, Object>>, Closeable {
+
+    private final RuleIterator iterator;
+
+    RuleIterable(RuleIterator iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+      return iterator;
+    }
+
+    @Override
+    public void close() throws IOException {
+      iterator.parser.close();
+    }
+  }
+
+  /**
+   * Iterator that binds rule definitions one at a time, so that only the current rule is held in
+   * memory.
+   */
+  private class RuleIterator implements Iterator<Map<String, Object>> {
+
+    private final JsonParser parser;
+    private JsonToken nextToken;
+
+    RuleIterator(JsonParser parser) {
+      this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextToken == null) {
+        try {
+          nextToken = parser.nextToken();
+          if (nextToken == JsonToken.END_ARRAY) {
+            parser.close();
+          } else if (nextToken == null) {
+            throw new JsonParseException(parser, "Unexpected end of rule definitions");
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return nextToken != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      try {
+        nextToken = null;
+        return objectMapper.readValue(parser, RULE_TYPE);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
-    return rulesList;
   }
 
 }
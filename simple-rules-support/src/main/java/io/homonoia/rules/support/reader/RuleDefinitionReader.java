@@ -27,6 +27,7 @@ package io.homonoia.rules.support.reader;
 import io.homonoia.rules.support.RuleDefinition;
 import java.io.Reader;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Strategy interface for {@link io.homonoia.rules.support.RuleDefinition} readers.
@@ -50,4 +51,21 @@ public interface RuleDefinitionReader {
    */
   List<RuleDefinition> read(Reader reader) throws Exception;
 
+  /**
+   * Read rule definitions from a rule descriptor as a stream.
+   * <p>
+   * Readers that support it parse the descriptor lazily, one rule definition at a time, as the
+   * stream is consumed. Errors that occur while consuming the stream are thrown as unchecked
+   * exceptions. Closing the stream releases the resources used to parse the descriptor; the given
+   * reader is left open, closing it is up to the caller. The default implementation reads all
+   * rule definitions with {@link #read(Reader)}.
+   *
+   * @param reader of the rules descriptor
+   * @return a stream of rule definitions
+   * @throws Exception if a problem occurs before rule definitions can be read
+   */
+  default Stream<RuleDefinition> stream(Reader reader) throws Exception {
+    return read(reader).stream();
+  }
+
 }
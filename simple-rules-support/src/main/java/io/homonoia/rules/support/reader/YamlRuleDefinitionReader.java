@@ -25,8 +25,6 @@
 package io.homonoia.rules.support.reader;
 
 import java.io.Reader;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import org.yaml.snakeyaml.Yaml;
 
@@ -68,11 +66,8 @@ public class YamlRuleDefinitionReader extends AbstractRuleDefinitionReader {
 
   @Override
   protected Iterable<Map<String, Object>> loadRules(Reader reader) {
-    List<Map<String, Object>> rulesList = new ArrayList<>();
-    Iterable<Object> rules = yaml.loadAll(reader);
-    for (Object rule : rules) {
-      rulesList.add((Map<String, Object>) rule);
-    }
-    return rulesList;
+    // documents are loaded one at a time as the iterable is consumed
+    Iterable<?> rules = yaml.loadAll(reader);
+    return (Iterable<Map<String, Object>>) rules;
   }
 }
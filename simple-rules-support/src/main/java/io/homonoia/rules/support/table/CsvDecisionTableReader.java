@@ -0,0 +1,288 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.support.table;
+
+import io.homonoia.rules.api.FactConstraint;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reader of {@link DecisionTable}s written in CSV. The first record declares the columns of the
+ * table: input columns are prefixed with {@code when:}, output columns with {@code then:} and an
+ * optional {@code priority} column gives the priority of each row. For example:
+ *
+ * <pre>
+ *     when:region,when:age,then:discount,priority
+ *     EU,[18..65),0.1,2
+ *     EU,&gt;=65,0.2,1
+ *     -,-,0,3
+ * </pre>
+ * <p>
+ * Input cells are either empty or {@code -} to accept any value, a range such as {@code [18..65)}
+ * (a bound can be omitted), a comparison such as {@code >=65}, or a value the fact must be equal
+ * to. Values are read as booleans, integral numbers ({@link Long}), decimal numbers
+ * ({@link Double}) or strings; a value enclosed in single quotes is always read as a string. Equal
+ * cells are shared between rows to keep large tables compact in memory.
+ * <p>
+ * The name and hit policy of the table can be set on the returned table.
+ */
+public class CsvDecisionTableReader {
+
+  private static final String INPUT_PREFIX = "when:";
+  private static final String OUTPUT_PREFIX = "then:";
+  private static final String PRIORITY_COLUMN = "priority";
+  private static final Pattern INTEGRAL = Pattern.compile("[-+]?\\d+");
+  private static final Pattern DECIMAL = Pattern.compile("[-+]?\\d*\\.?\\d+([eE][-+]?\\d+)?");
+
+  private final char separator;
+
+  /**
+   * Create a new {@link CsvDecisionTableReader} reading comma separated values.
+   */
+  public CsvDecisionTableReader() {
+    this(',');
+  }
+
+  /**
+   * Create a new {@link CsvDecisionTableReader}.
+   *
+   * @param separator of the values of a record
+   */
+  public CsvDecisionTableReader(char separator) {
+    this.separator = separator;
+  }
+
+  /**
+   * Read a decision table from the given reader.
+   *
+   * @param reader from which the table is read
+   * @return the decision table
+   * @throws IOException if the table cannot be read or is invalid
+   */
+  public DecisionTable read(Reader reader) throws IOException {
+    Records records = new Records(
+        reader instanceof BufferedReader ? reader : new BufferedReader(reader));
+    List<String> header = records.next();
+    if (header == null) {
+      throw new IOException("Decision table is empty");
+    }
+    List<String> inputs = new ArrayList<>();
+    List<String> outputs = new ArrayList<>();
+    List<Integer> inputColumns = new ArrayList<>();
+    List<Integer> outputColumns = new ArrayList<>();
+    int priorityColumn = -1;
+    for (int column = 0; column < header.size(); column++) {
+      String name = header.get(column).trim();
+      if (name.startsWith(INPUT_PREFIX)) {
+        inputs.add(name.substring(INPUT_PREFIX.length()).trim());
+        inputColumns.add(column);
+      } else if (name.startsWith(OUTPUT_PREFIX)) {
+        outputs.add(name.substring(OUTPUT_PREFIX.length()).trim());
+        outputColumns.add(column);
+      } else if (name.equals(PRIORITY_COLUMN)) {
+        priorityColumn = column;
+      } else {
+        throw new IOException(String.format(
+            "Column '%s' must be prefixed with '%s' or '%s'", name, INPUT_PREFIX, OUTPUT_PREFIX));
+      }
+    }
+    DecisionTable decisionTable = new DecisionTable()
+        .inputs(inputs.toArray(new String[0]))
+        .outputs(outputs.toArray(new String[0]));
+
+    Map<Object, Object> sharedCells = new HashMap<>();
+    List<String> record;
+    while ((record = records.next()) != null) {
+      if (record.size() != header.size()) {
+        throw new IOException(String.format("Record at line %d has %d values instead of %d",
+            records.line, record.size(), header.size()));
+      }
+      try {
+        List<FactConstraint> conditions = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+          FactConstraint condition = parseCondition(inputs.get(i), record.get(inputColumns.get(i)));
+          conditions.add(condition == null ? null
+              : (FactConstraint) sharedCells.computeIfAbsent(condition, cell -> cell));
+        }
+        List<Object> outputValues = new ArrayList<>(outputs.size());
+        for (Integer outputColumn : outputColumns) {
+          String text = record.get(outputColumn).trim();
+          outputValues.add(text.isEmpty() ? null
+              : sharedCells.computeIfAbsent(parseValue(text), cell -> cell));
+        }
+        if (priorityColumn < 0 || record.get(priorityColumn).trim().isEmpty()) {
+          decisionTable.row(conditions, outputValues);
+        } else {
+          decisionTable.row(Integer.parseInt(record.get(priorityColumn).trim()), conditions,
+              outputValues);
+        }
+      } catch (IllegalArgumentException exception) {
+        throw new IOException(String.format("Invalid record at line %d: %s", records.line,
+            exception.getMessage()), exception);
+      }
+    }
+    return decisionTable;
+  }
+
+  private static FactConstraint parseCondition(String factName, String cell) {
+    String text = cell.trim();
+    if (text.isEmpty() || text.equals("-")) {
+      return null;
+    }
+    char first = text.charAt(0);
+    char last = text.charAt(text.length() - 1);
+    int separatorIndex = text.indexOf("..");
+    if ((first == '[' || first == '(') && (last == ']' || last == ')') && separatorIndex > 0) {
+      return FactConstraint.range(factName,
+          parseBound(text.substring(1, separatorIndex)), first == '[',
+          parseBound(text.substring(separatorIndex + 2, text.length() - 1)), last == ']');
+    }
+    if (text.startsWith(">=")) {
+      return FactConstraint.atLeast(factName, parseBound(text.substring(2)));
+    }
+    if (text.startsWith("<=")) {
+      return FactConstraint.atMost(factName, parseBound(text.substring(2)));
+    }
+    if (first == '>') {
+      return FactConstraint.greaterThan(factName, parseBound(text.substring(1)));
+    }
+    if (first == '<') {
+      return FactConstraint.lessThan(factName, parseBound(text.substring(1)));
+    }
+    return FactConstraint.equalTo(factName, parseValue(text));
+  }
+
+  private static Comparable<?> parseBound(String text) {
+    String bound = text.trim();
+    return bound.isEmpty() ? null : (Comparable<?>) parseValue(bound);
+  }
+
+  private static Object parseValue(String text) {
+    if (text.length() >= 2 && text.charAt(0) == '\'' && text.charAt(text.length() - 1) == '\'') {
+      return text.substring(1, text.length() - 1);
+    }
+    if (text.equals("true") || text.equals("false")) {
+      return Boolean.valueOf(text);
+    }
+    if (INTEGRAL.matcher(text).matches()) {
+      return Long.valueOf(text);
+    }
+    if (DECIMAL.matcher(text).matches()) {
+      return Double.valueOf(text);
+    }
+    return text;
+  }
+
+  /*
+   * Minimal RFC 4180 parser: values may be enclosed in double quotes to contain separators, line
+   * breaks or (doubled) double quotes. Blank lines are ignored.
+   */
+  private final class Records {
+
+    private final Reader reader;
+    private int line;
+    private int nextLine = 1;
+    private int lookahead = -2;
+
+    Records(Reader reader) {
+      this.reader = reader;
+    }
+
+    List<String> next() throws IOException {
+      List<String> record = new ArrayList<>();
+      StringBuilder value = new StringBuilder();
+      boolean quoted = false;
+      boolean empty = true;
+      line = nextLine;
+      int c;
+      while ((c = read()) != -1) {
+        if (quoted) {
+          if (c == '"') {
+            if (peek() == '"') {
+              value.append('"');
+              read();
+            } else {
+              quoted = false;
+            }
+          } else {
+            if (c == '\n') {
+              nextLine++;
+            }
+            value.append((char) c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+          empty = false;
+        } else if (c == separator) {
+          record.add(value.toString());
+          value.setLength(0);
+          empty = false;
+        } else if (c == '\n' || c == '\r') {
+          if (c == '\r' && peek() == '\n') {
+            read();
+          }
+          nextLine++;
+          if (!empty || value.length() > 0) {
+            record.add(value.toString());
+            return record;
+          }
+          line = nextLine;
+        } else {
+          value.append((char) c);
+          empty = false;
+        }
+      }
+      if (quoted) {
+        throw new IOException(String.format("Unterminated quoted value at line %d", line));
+      }
+      if (!empty || value.length() > 0) {
+        record.add(value.toString());
+        return record;
+      }
+      return null;
+    }
+
+    private int read() throws IOException {
+      if (lookahead != -2) {
+        int c = lookahead;
+        lookahead = -2;
+        return c;
+      }
+      return reader.read();
+    }
+
+    private int peek() throws IOException {
+      if (lookahead == -2) {
+        lookahead = reader.read();
+      }
+      return lookahead;
+    }
+  }
+}
@@ -0,0 +1,507 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.support.table;
+
+import io.homonoia.rules.api.FactConstraint;
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.core.RangeIndex;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A decision table compiled into a single rule. Each row of the table holds one
+ * {@link FactConstraint} per input column (or null when the row accepts any value) and one value
+ * per output column. The rule is triggered when at least one row matches the facts, and its
+ * execution sets the output facts according to the {@link HitPolicy} of the table.
+ * <p>
+ * Rows are not evaluated one after the other: the table is indexed by its most selective input
+ * column, either with a hash index when the column only holds equality constraints, or with a
+ * {@link RangeIndex} when the column only holds range constraints, which may overlap. The index is
+ * built lazily on first use and rebuilt when rows are added.
+ * <p>
+ * The rows selected when the table is evaluated are kept for the current thread and reused when
+ * the table is then executed on the same, unchanged facts.
+ *
+ * @see CsvDecisionTableReader
+ */
+public class DecisionTable extends BasicRule {
+
+  private static final int[] NO_ROWS = new int[0];
+
+  private HitPolicy hitPolicy = HitPolicy.FIRST;
+  private final List<String> inputs = new ArrayList<>();
+  private final List<String> outputs = new ArrayList<>();
+  private final List<Row> rows = new ArrayList<>();
+  private volatile Index index;
+  private final ThreadLocal<Selection> selections = ThreadLocal.withInitial(Selection::new);
+
+  /**
+   * Create a new decision table.
+   */
+  public DecisionTable() {
+    super(Rule.DEFAULT_NAME, Rule.DEFAULT_DESCRIPTION, Rule.DEFAULT_PRIORITY, Rule.DEFAULT_LOOP);
+  }
+
+  /**
+   * Set rule name.
+   *
+   * @param name of the rule
+   * @return this rule
+   */
+  public DecisionTable name(String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * Set rule description.
+   *
+   * @param description of the rule
+   * @return this rule
+   */
+  public DecisionTable description(String description) {
+    this.description = description;
+    return this;
+  }
+
+  /**
+   * Set rule priority.
+   *
+   * @param priority of the rule
+   * @return this rule
+   */
+  public DecisionTable priority(int priority) {
+    this.priority = priority;
+    return this;
+  }
+
+  /**
+   * Set rule loop.
+   *
+   * @param loop of the rule
+   * @return this rule
+   */
+  public DecisionTable loop(boolean loop) {
+    this.loop = loop;
+    return this;
+  }
+
+  /**
+   * Set the hit policy of the table, {@link HitPolicy#FIRST} by default.
+   *
+   * @param hitPolicy of the table
+   * @return this rule
+   */
+  public DecisionTable hitPolicy(HitPolicy hitPolicy) {
+    this.hitPolicy = hitPolicy;
+    return this;
+  }
+
+  /**
+   * Add input columns to the table. Columns must be declared before rows are added.
+   *
+   * @param factNames names of the facts matched by the columns
+   * @return this rule
+   */
+  public DecisionTable inputs(String... factNames) {
+    checkNoRows();
+    inputs.addAll(Arrays.asList(factNames));
+    return this;
+  }
+
+  /**
+   * Add output columns to the table. Columns must be declared before rows are added.
+   *
+   * @param factNames names of the facts set by the columns
+   * @return this rule
+   */
+  public DecisionTable outputs(String... factNames) {
+    checkNoRows();
+    outputs.addAll(Arrays.asList(factNames));
+    return this;
+  }
+
+  /**
+   * Add a row to the table, with the default rule priority.
+   *
+   * @param conditions   one constraint per input column, null to accept any value
+   * @param outputValues one value per output column, null to leave the output fact untouched
+   * @return this rule
+   */
+  public DecisionTable row(List<FactConstraint> conditions, List<?> outputValues) {
+    return row(Rule.DEFAULT_PRIORITY, conditions, outputValues);
+  }
+
+  /**
+   * Add a row to the table.
+   *
+   * @param priority     of the row, used by the {@link HitPolicy#PRIORITY} hit policy
+   * @param conditions   one constraint per input column, null to accept any value
+   * @param outputValues one value per output column, null to leave the output fact untouched
+   * @return this rule
+   */
+  public synchronized DecisionTable row(int priority, List<FactConstraint> conditions,
+      List<?> outputValues) {
+    if (conditions.size() != inputs.size() || outputValues.size() != outputs.size()) {
+      throw new IllegalArgumentException(String.format(
+          "Row %d has %d conditions and %d outputs but the table has %d inputs and %d outputs",
+          rows.size() + 1, conditions.size(), outputValues.size(), inputs.size(),
+          outputs.size()));
+    }
+    for (int column = 0; column < conditions.size(); column++) {
+      FactConstraint condition = conditions.get(column);
+      if (condition != null && !condition.getFactName().equals(inputs.get(column))) {
+        throw new IllegalArgumentException(String.format(
+            "Condition on '%s' of row %d does not match input column '%s'",
+            condition.getFactName(), rows.size() + 1, inputs.get(column)));
+      }
+    }
+    rows.add(new Row(priority, conditions.toArray(new FactConstraint[0]),
+        outputValues.toArray()));
+    index = null;
+    return this;
+  }
+
+  /**
+   * Get the hit policy of the table.
+   *
+   * @return the hit policy
+   */
+  public HitPolicy getHitPolicy() {
+    return hitPolicy;
+  }
+
+  /**
+   * Get the names of the facts matched by the input columns.
+   *
+   * @return the input columns
+   */
+  public List<String> getInputs() {
+    return Collections.unmodifiableList(inputs);
+  }
+
+  /**
+   * Get the names of the facts set by the output columns.
+   *
+   * @return the output columns
+   */
+  public List<String> getOutputs() {
+    return Collections.unmodifiableList(outputs);
+  }
+
+  /**
+   * Get the number of rows of the table.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  @Override
+  public boolean evaluate(Facts facts) {
+    if (!getLoop() && fired.get()) {
+      return false;
+    }
+    Selection selection = selections.get();
+    select(index(), facts, selection);
+    return selection.count > 0;
+  }
+
+  @Override
+  public void execute(Facts facts) {
+    fired.getAndSet(true);
+    Index current = index();
+    Selection selection = selections.get();
+    if (!selection.isFor(current, facts)) {
+      select(current, facts, selection);
+    }
+    try {
+      if (hitPolicy == HitPolicy.COLLECT) {
+        for (int column = 0; column < current.outputs.length; column++) {
+          List<Object> values = new ArrayList<>(selection.count);
+          for (int i = 0; i < selection.count; i++) {
+            Object value = current.rows[selection.rows[i]].outputValues[column];
+            if (value != null) {
+              values.add(value);
+            }
+          }
+          facts.put(current.outputs[column], values);
+        }
+      } else if (selection.count > 0) {
+        Row selected = current.rows[selection.rows[0]];
+        for (int column = 0; column < current.outputs.length; column++) {
+          if (selected.outputValues[column] != null) {
+            facts.put(current.outputs[column], selected.outputValues[column]);
+          }
+        }
+      }
+    } finally {
+      selection.clear();
+    }
+  }
+
+  /*
+   * Select the rows matching the facts according to the hit policy: the first matching row for
+   * FIRST, the matching row with the highest priority for PRIORITY, and all matching rows in order
+   * for COLLECT.
+   */
+  private void select(Index current, Facts facts, Selection selection) {
+    selection.begin(current, facts);
+    int[] keyedRows = current.allRows;
+    int[] wildcardRows = NO_ROWS;
+    if (current.keyFact != null) {
+      Object value = facts.get(current.keyFact);
+      keyedRows = current.keyedRows(value);
+      wildcardRows = current.wildcardRows;
+    }
+    // both arrays are sorted, rows are visited in table order
+    int i = 0;
+    int j = 0;
+    int selected = -1;
+    while (i < keyedRows.length || j < wildcardRows.length) {
+      int row = j == wildcardRows.length || (i < keyedRows.length && keyedRows[i] < wildcardRows[j])
+          ? keyedRows[i++] : wildcardRows[j++];
+      if (!current.matches(row, facts)) {
+        continue;
+      }
+      if (hitPolicy == HitPolicy.FIRST) {
+        selected = row;
+        break;
+      } else if (hitPolicy == HitPolicy.PRIORITY) {
+        if (selected < 0 || current.rows[row].priority < current.rows[selected].priority) {
+          selected = row;
+        }
+      } else {
+        selection.add(row);
+      }
+    }
+    if (selected >= 0) {
+      selection.add(selected);
+    }
+  }
+
+  private Index index() {
+    Index current = index;
+    if (current == null) {
+      synchronized (this) {
+        current = index;
+        if (current == null) {
+          current = new Index(inputs.toArray(new String[0]), outputs.toArray(new String[0]),
+              rows.toArray(new Row[0]));
+          index = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private void checkNoRows() {
+    if (!rows.isEmpty()) {
+      throw new IllegalStateException("Columns must be declared before rows are added");
+    }
+  }
+
+  /**
+   * Rows selected by the last evaluation of the table on the current thread. The facts are weakly
+   * referenced so that a selection does not retain them.
+   */
+  private static final class Selection {
+
+    private static final WeakReference<Facts> NO_FACTS = new WeakReference<>(null);
+
+    private WeakReference<Facts> facts = NO_FACTS;
+    private long version;
+    private Index index;
+    private int[] rows = new int[1];
+    private int count;
+
+    void begin(Index index, Facts facts) {
+      if (this.facts.get() != facts) {
+        this.facts = new WeakReference<>(facts);
+      }
+      this.version = facts.getVersion();
+      this.index = index;
+      this.count = 0;
+    }
+
+    boolean isFor(Index index, Facts facts) {
+      return this.index == index && this.facts.get() == facts && version == facts.getVersion();
+    }
+
+    void add(int row) {
+      if (count == rows.length) {
+        rows = Arrays.copyOf(rows, count * 2);
+      }
+      rows[count++] = row;
+    }
+
+    void clear() {
+      facts = NO_FACTS;
+      index = null;
+      count = 0;
+    }
+  }
+
+  private static final class Row {
+
+    private final int priority;
+    private final FactConstraint[] conditions;
+    private final Object[] outputValues;
+
+    Row(int priority, FactConstraint[] conditions, Object[] outputValues) {
+      this.priority = priority;
+      this.conditions = conditions;
+      this.outputValues = outputValues;
+    }
+  }
+
+  private static final class Index {
+
+    private final String[] inputs;
+    private final String[] outputs;
+    private final Row[] rows;
+    private final int[] allRows;
+    private final int keyColumn;
+    private String keyFact;
+    private int[] wildcardRows = NO_ROWS;
+    private Map<Object, int[]> equalityRows;
+    private int[] rangeRows;
+    private RangeIndex rangeIndex;
+
+    Index(String[] inputs, String[] outputs, Row[] rows) {
+      this.inputs = inputs;
+      this.outputs = outputs;
+      this.rows = rows;
+      this.allRows = new int[rows.length];
+      for (int row = 0; row < rows.length; row++) {
+        allRows[row] = row;
+      }
+      keyColumn = selectKeyColumn();
+      if (keyColumn < 0) {
+        return;
+      }
+      keyFact = inputs[keyColumn];
+      List<Integer> wildcards = new ArrayList<>();
+      Map<Object, List<Integer>> equalities = new HashMap<>();
+      List<Integer> ranges = new ArrayList<>();
+      for (int row = 0; row < rows.length; row++) {
+        FactConstraint condition = rows[row].conditions[keyColumn];
+        if (condition == null) {
+          wildcards.add(row);
+        } else if (condition.isEquality()) {
+          equalities.computeIfAbsent(condition.getValue(), value -> new ArrayList<>()).add(row);
+        } else {
+          ranges.add(row);
+        }
+      }
+      wildcardRows = toArray(wildcards);
+      if (ranges.isEmpty()) {
+        equalityRows = new HashMap<>(equalities.size() * 4 / 3 + 1);
+        equalities.forEach((value, matchingRows) -> equalityRows.put(value, toArray(matchingRows)));
+      } else {
+        rangeRows = toArray(ranges);
+        List<FactConstraint> constraints = new ArrayList<>(rangeRows.length);
+        for (int row : rangeRows) {
+          constraints.add(rows[row].conditions[keyColumn]);
+        }
+        rangeIndex = new RangeIndex(constraints);
+      }
+    }
+
+    /*
+     * The key column holds either only equalities or only ranges (besides wildcards). Equality
+     * columns are preferred, then the column with the fewest wildcards.
+     */
+    private int selectKeyColumn() {
+      int selected = -1;
+      boolean selectedIsEquality = false;
+      int selectedWildcards = Integer.MAX_VALUE;
+      for (int column = 0; column < inputs.length; column++) {
+        int wildcards = 0;
+        int equalities = 0;
+        int ranges = 0;
+        for (Row row : rows) {
+          FactConstraint condition = row.conditions[column];
+          if (condition == null) {
+            wildcards++;
+          } else if (condition.isEquality()) {
+            equalities++;
+          } else {
+            ranges++;
+          }
+        }
+        if (wildcards == rows.length || (equalities > 0 && ranges > 0)) {
+          continue;
+        }
+        boolean isEquality = ranges == 0;
+        if (selected < 0 || (isEquality && !selectedIsEquality)
+            || (isEquality == selectedIsEquality && wildcards < selectedWildcards)) {
+          selected = column;
+          selectedIsEquality = isEquality;
+          selectedWildcards = wildcards;
+        }
+      }
+      return selected;
+    }
+
+    // rows whose key condition matches the value, in table order, wildcards excluded
+    int[] keyedRows(Object value) {
+      if (value == null) {
+        return NO_ROWS;
+      }
+      if (equalityRows != null) {
+        return equalityRows.getOrDefault(FactConstraint.indexKey(value), NO_ROWS);
+      }
+      // range rows are in table order, so positions in ascending order map to rows in table order
+      int[] matching = rangeIndex.lookup(value);
+      for (int i = 0; i < matching.length; i++) {
+        matching[i] = rangeRows[matching[i]];
+      }
+      return matching;
+    }
+
+    boolean matches(int row, Facts facts) {
+      FactConstraint[] conditions = rows[row].conditions;
+      for (int column = 0; column < conditions.length; column++) {
+        FactConstraint condition = conditions[column];
+        if (condition != null && !condition.test(facts.get(inputs[column]))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+      return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+}
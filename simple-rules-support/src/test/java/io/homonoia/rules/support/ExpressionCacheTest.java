@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.homonoia.rules.support.ExpressionCache.EvictionPolicy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class ExpressionCacheTest {
+
+  private final AtomicInteger compilations = new AtomicInteger();
+  private final Function<String, String> compiler = expression -> {
+    compilations.incrementAndGet();
+    return expression.toUpperCase();
+  };
+
+  @Test
+  public void identicalExpressionsShouldBeCompiledOncePerScope() {
+    // given
+    ExpressionCache<String> cache = new ExpressionCache<>();
+
+    // when
+    String first = cache.get("scope", "a == b", compiler);
+    String second = cache.get("scope", "a == b", compiler);
+    cache.get("other scope", "a == b", compiler);
+
+    // then
+    assertThat(first).isEqualTo("A == B").isSameAs(second);
+    assertThat(compilations).hasValue(2);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.stats().getHitCount()).isEqualTo(1);
+    assertThat(cache.stats().getMissCount()).isEqualTo(2);
+    assertThat(cache.stats().getHitRate()).isEqualTo(1.0 / 3);
+  }
+
+  @Test
+  public void nullScopeShouldBeSupported() {
+    // given
+    ExpressionCache<String> cache = new ExpressionCache<>();
+
+    // when
+    cache.get(null, "a", compiler);
+    cache.get(null, "a", compiler);
+
+    // then
+    assertThat(compilations).hasValue(1);
+  }
+
+  @Test
+  public void leastRecentlyUsedExpressionShouldBeEvicted() {
+    // given
+    ExpressionCache<String> cache = new ExpressionCache<>(2, EvictionPolicy.LRU);
+    cache.get(null, "a", compiler);
+    cache.get(null, "b", compiler);
+    cache.get(null, "a", compiler);
+
+    // when
+    cache.get(null, "c", compiler);
+    cache.get(null, "a", compiler);
+    cache.get(null, "b", compiler);
+
+    // then
+    assertThat(compilations).hasValue(4);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.stats().getEvictionCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void leastFrequentlyUsedExpressionShouldBeEvicted() {
+    // given
+    ExpressionCache<String> cache = new ExpressionCache<>(2, EvictionPolicy.LFU);
+    cache.get(null, "a", compiler);
+    cache.get(null, "a", compiler);
+    cache.get(null, "a", compiler);
+    cache.get(null, "b", compiler);
+
+    // when
+    cache.get(null, "c", compiler);
+    cache.get(null, "a", compiler);
+
+    // then
+    assertThat(compilations).hasValue(3);
+    assertThat(cache.stats().getEvictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void clearShouldRemoveAllExpressions() {
+    // given
+    ExpressionCache<String> cache = new ExpressionCache<>();
+    cache.get(null, "a", compiler);
+
+    // when
+    cache.clear();
+
+    // then
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void maximumSizeMustBePositive() {
+    assertThatThrownBy(() -> new ExpressionCache<String>(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
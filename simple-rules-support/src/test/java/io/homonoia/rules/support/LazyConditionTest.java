@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.homonoia.rules.api.Condition;
+import io.homonoia.rules.api.Facts;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class LazyConditionTest {
+
+  private final Facts facts = new Facts();
+
+  @Test
+  public void conditionShouldBeCompiledOnceOnFirstEvaluation() {
+    // given
+    AtomicInteger compilations = new AtomicInteger();
+    LazyCondition condition = new LazyCondition(() -> {
+      compilations.incrementAndGet();
+      return Condition.TRUE;
+    });
+    assertThat(compilations).hasValue(0);
+
+    // when
+    boolean first = condition.evaluate(facts);
+    boolean second = condition.evaluate(facts);
+    condition.compile();
+
+    // then
+    assertThat(first).isTrue();
+    assertThat(second).isTrue();
+    assertThat(compilations).hasValue(1);
+  }
+
+  @Test
+  public void failedCompilationShouldBeRetried() {
+    // given
+    AtomicInteger compilations = new AtomicInteger();
+    LazyCondition condition = new LazyCondition(() -> {
+      if (compilations.incrementAndGet() == 1) {
+        throw new IllegalArgumentException("invalid expression");
+      }
+      return Condition.FALSE;
+    });
+
+    // when
+    Assertions.assertThatThrownBy(condition::compile)
+        .isInstanceOf(IllegalArgumentException.class);
+    boolean result = condition.evaluate(facts);
+
+    // then
+    assertThat(result).isFalse();
+    assertThat(compilations).hasValue(2);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.core.BasicRule;
+import io.homonoia.rules.support.reader.RuleDefinitionReader;
+import io.homonoia.rules.support.reader.YamlRuleDefinitionReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RulesRepositoryTest {
+
+  private static final String ADULT_RULE = "name: adult rule\n"
+      + "priority: 1\n"
+      + "condition: \"person.age > 18\"\n"
+      + "actions:\n"
+      + "  - \"person.setAdult(true);\"\n";
+
+  private static final String WEATHER_RULE = "name: weather rule\n"
+      + "priority: 2\n"
+      + "condition: \"rain == true\"\n"
+      + "actions:\n"
+      + "  - \"takeAnUmbrella();\"\n";
+
+  @org.junit.Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path rulesFile;
+  private final RuleDefinitionReader reader = new YamlRuleDefinitionReader();
+  private final AbstractRuleFactory factory = new AbstractRuleFactory() {
+    @Override
+    protected Rule createSimpleRule(RuleDefinition ruleDefinition) {
+      return new BasicRule(ruleDefinition.getName(), ruleDefinition.getDescription(),
+          ruleDefinition.getPriority());
+    }
+  };
+
+  @Before
+  public void setup() throws Exception {
+    rulesFile = temporaryFolder.newFile("rules.yml").toPath();
+    Files.write(rulesFile, ADULT_RULE.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void rulesShouldBeLoadedOnCreation() throws Exception {
+    // when
+    RulesRepository repository = new RulesRepository(
+        rulesDescriptor -> factory.createRules(reader.stream(rulesDescriptor)), rulesFile);
+
+    // then
+    assertThat(names(repository.getRules())).containsExactly("adult rule");
+  }
+
+  @Test
+  public void refreshShouldPublishANewSnapshotWhenAFileChanges() throws Exception {
+    // given
+    RulesRepository repository = new RulesRepository(
+        rulesDescriptor -> factory.createRules(reader.stream(rulesDescriptor)), rulesFile);
+    Rules previousRules = repository.getRules();
+    assertThat(repository.refresh()).isFalse();
+
+    // when
+    Files.write(rulesFile, (ADULT_RULE + "---\n" + WEATHER_RULE).getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(rulesFile,
+        FileTime.fromMillis(Files.getLastModifiedTime(rulesFile).toMillis() + 1000));
+
+    // then
+    assertThat(repository.refresh()).isTrue();
+    assertThat(names(repository.getRules())).containsExactly("adult rule", "weather rule");
+    assertThat(names(previousRules)).containsExactly("adult rule");
+  }
+
+  @Test
+  public void refreshShouldKeepTheCurrentSnapshotWhenAFileCannotBeLoaded() throws Exception {
+    // given
+    RulesRepository repository = new RulesRepository(
+        rulesDescriptor -> factory.createRules(reader.stream(rulesDescriptor)), rulesFile);
+    Rules previousRules = repository.getRules();
+
+    // when
+    Files.write(rulesFile, "name: invalid rule\n".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(rulesFile,
+        FileTime.fromMillis(Files.getLastModifiedTime(rulesFile).toMillis() + 1000));
+
+    // then
+    Assertions.assertThatThrownBy(repository::refresh)
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(repository.getRules()).isSameAs(previousRules);
+  }
+
+  @Test
+  public void snapshotsShouldNotBeModifiable() throws Exception {
+    // given
+    RulesRepository repository = new RulesRepository(
+        rulesDescriptor -> factory.createRules(reader.stream(rulesDescriptor)), rulesFile);
+
+    // when
+    Assertions.assertThatThrownBy(() -> repository.getRules().clear())
+        // then
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void snapshotIteratorsShouldNotRemoveRules() throws Exception {
+    // given
+    RulesRepository repository = new RulesRepository(
+        rulesDescriptor -> factory.createRules(reader.stream(rulesDescriptor)), rulesFile);
+    Iterator<Rule> iterator = repository.getRules().iterator();
+    iterator.next();
+
+    // when
+    Assertions.assertThatThrownBy(iterator::remove)
+        // then
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThat(repository.getRules()).hasSize(1);
+  }
+
+  private static List<String> names(Rules rules) {
+    List<String> names = new ArrayList<>();
+    for (Rule rule : rules) {
+      names.add(rule.getName());
+    }
+    return names;
+  }
+}
@@ -32,6 +32,13 @@ import io.homonoia.rules.annotation.Rule;
 import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.core.DefaultRulesEngine;
+import io.homonoia.rules.core.RuleBuilder;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -104,6 +111,120 @@ public class ActivationRuleGroupTest {
     assertThat(rule4.isExecuted()).isFalse();
   }
 
+  @Test
+  public void selectedRuleShouldBeBoundToTheEvaluatingThread() throws Exception {
+    // given
+    List<String> executedRules = new CopyOnWriteArrayList<>();
+    ActivationRuleGroup activationRuleGroup = new ActivationRuleGroup("my activation rule",
+        "adult xor minor");
+    activationRuleGroup.addRule(new RuleBuilder().name("adult").priority(1)
+        .when(facts -> facts.<Integer>get("age") >= 18)
+        .then(facts -> executedRules.add("adult"))
+        .build());
+    activationRuleGroup.addRule(new RuleBuilder().name("minor").priority(2)
+        .when(facts -> facts.<Integer>get("age") < 18)
+        .then(facts -> executedRules.add("minor"))
+        .build());
+    Facts adultFacts = new Facts();
+    adultFacts.put("age", 30);
+    Facts minorFacts = new Facts();
+    minorFacts.put("age", 10);
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    // when
+    activationRuleGroup.evaluate(adultFacts);
+    executorService.submit(() -> activationRuleGroup.evaluate(minorFacts)).get();
+    activationRuleGroup.execute(adultFacts);
+    executorService.submit(() -> {
+      activationRuleGroup.execute(minorFacts);
+      return null;
+    }).get();
+    executorService.shutdown();
+
+    // then
+    assertThat(executedRules).containsExactly("adult", "minor");
+  }
+
+  @Test
+  public void checkedFactsShouldNotBeRetainedByTheGroup() {
+    // given
+    ActivationRuleGroup activationRuleGroup = new ActivationRuleGroup("my activation rule",
+        "rule1 xor rule2");
+    activationRuleGroup.addRule(new Rule1());
+    activationRuleGroup.addRule(new Rule2());
+    rules.register(activationRuleGroup);
+    Facts checkedFacts = new Facts();
+
+    // when
+    assertThat(rulesEngine.check(rules, checkedFacts)).containsValue(true);
+
+    // then
+    CompositeRule.ExecutionContext context = activationRuleGroup.getExecutionContext();
+    WeakReference<Facts> reference = context.getFactsReference();
+    assertThat(reference.get()).isSameAs(checkedFacts);
+    assertThat(context.isFor(checkedFacts)).isTrue();
+
+    // when the checked facts are collected
+    reference.clear();
+
+    // then
+    assertThat(context.isFor(checkedFacts)).isFalse();
+  }
+
+  @Test
+  public void whenEvaluatedInParallel_thenFirstApplicableRuleInNaturalOrderShouldBeSelected()
+      throws Exception {
+    // given
+    List<String> executedRules = new CopyOnWriteArrayList<>();
+    ActivationRuleGroup activationRuleGroup = new ActivationRuleGroup("my activation rule",
+        "slow xor fast");
+    activationRuleGroup.addRule(new RuleBuilder().name("slow").priority(1)
+        .when(facts -> {
+          sleep(100);
+          return true;
+        })
+        .then(facts -> executedRules.add("slow"))
+        .build());
+    activationRuleGroup.addRule(new RuleBuilder().name("fast").priority(2)
+        .when(facts -> true)
+        .then(facts -> executedRules.add("fast"))
+        .build());
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    activationRuleGroup.setExecutor(executorService);
+    rules.register(activationRuleGroup);
+
+    // when
+    rulesEngine.fire(rules, facts);
+    executorService.shutdown();
+
+    // then
+    assertThat(executedRules).containsExactly("slow");
+  }
+
+  @Test
+  public void whenComposingRulesRequireFacts_thenTheGroupShouldRequireTheFactsTheyAllRequire() {
+    // given
+    ActivationRuleGroup group = new ActivationRuleGroup();
+    group.addRule(new RuleBuilder().name("ab").priority(1).when(facts -> true).pure("a", "b")
+        .build());
+    group.addRule(new RuleBuilder().name("bc").priority(2).when(facts -> true).pure("b", "c")
+        .build());
+
+    // when
+    Set<String> requiredFacts = group.getRequiredFacts();
+
+    // then
+    assertThat(requiredFacts).containsExactly("b");
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   @Rule(priority = 1)
   public static class Rule1 {
 
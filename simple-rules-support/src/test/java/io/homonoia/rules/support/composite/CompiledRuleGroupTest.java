@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.support.composite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rule;
+import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.core.DefaultRulesEngine;
+import io.homonoia.rules.core.RuleBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledRuleGroupTest {
+
+  private final List<String> actions = new ArrayList<>();
+  private final Facts facts = new Facts();
+
+  private UnitRuleGroup unitRuleGroup;
+  private ActivationRuleGroup activationRuleGroup;
+  private ConditionalRuleGroup conditionalRuleGroup;
+
+  @Before
+  public void setUp() {
+    facts.put("value", 5);
+    activationRuleGroup = new ActivationRuleGroup("activation", "activation", 2);
+    activationRuleGroup.addRule(rule("small", 1, false));
+    activationRuleGroup.addRule(rule("medium", 2, true));
+    activationRuleGroup.addRule(rule("large", 3, true));
+    conditionalRuleGroup = new ConditionalRuleGroup("conditional", "conditional", 3);
+    conditionalRuleGroup.addRule(rule("condition", 1, true));
+    conditionalRuleGroup.addRule(rule("selected", 2, true));
+    conditionalRuleGroup.addRule(rule("unselected", 3, false));
+    unitRuleGroup = new UnitRuleGroup("unit");
+    unitRuleGroup.addRule(rule("first", 1, true));
+    unitRuleGroup.addRule(activationRuleGroup);
+    unitRuleGroup.addRule(conditionalRuleGroup);
+  }
+
+  @Test
+  public void compiledRuleShouldBeExecutedLikeTheTree() throws Exception {
+    // given
+    CompiledRuleGroup compiledRule = CompiledRuleGroup.flatten(unitRuleGroup);
+
+    // when
+    boolean evaluationResult = compiledRule.evaluate(facts);
+    compiledRule.execute(facts);
+
+    // then
+    assertThat(evaluationResult).isTrue();
+    assertThat(actions).containsExactly("first", "medium", "condition", "selected");
+    assertThat(compiledRule.getName()).isEqualTo("unit");
+  }
+
+  @Test
+  public void whenAComposingRuleIsFalse_thenTheCompiledRuleShouldBeFalse() {
+    // given
+    conditionalRuleGroup.removeRule(conditionalRuleGroup.getSortedRules()[0]);
+    conditionalRuleGroup.addRule(rule("condition", 1, false));
+    CompiledRuleGroup compiledRule = CompiledRuleGroup.flatten(unitRuleGroup);
+    Rules rules = new Rules(compiledRule);
+
+    // when
+    new DefaultRulesEngine().fire(rules, facts);
+
+    // then
+    assertThat(actions).isEmpty();
+  }
+
+  @Test
+  public void whenNoComposingRuleOfAnActivationGroupIsTrue_thenTheCompiledRuleShouldBeFalse() {
+    // given
+    ActivationRuleGroup group = new ActivationRuleGroup("activation");
+    group.addRule(rule("small", 1, false));
+    group.addRule(rule("large", 2, false));
+
+    // when
+    boolean evaluationResult = CompiledRuleGroup.flatten(group).evaluate(facts);
+
+    // then
+    assertThat(evaluationResult).isFalse();
+  }
+
+  @Test
+  public void whenTheCompiledRuleIsExecutedWithoutEvaluation_thenItShouldBeEvaluatedFirst()
+      throws Exception {
+    // given
+    CompiledRuleGroup compiledRule = CompiledRuleGroup.flatten(activationRuleGroup);
+
+    // when
+    compiledRule.execute(facts);
+
+    // then
+    assertThat(actions).containsExactly("medium");
+  }
+
+  @Test
+  public void emptyGroupsShouldEvaluateToFalse() {
+    assertThat(CompiledRuleGroup.flatten(new UnitRuleGroup()).evaluate(facts)).isFalse();
+    assertThat(CompiledRuleGroup.flatten(new ConditionalRuleGroup()).evaluate(facts)).isFalse();
+  }
+
+  private Rule rule(String name, int priority, boolean evaluationResult) {
+    return new RuleBuilder()
+        .name(name)
+        .priority(priority)
+        .when(facts -> evaluationResult)
+        .then(facts -> actions.add(name))
+        .build();
+  }
+}
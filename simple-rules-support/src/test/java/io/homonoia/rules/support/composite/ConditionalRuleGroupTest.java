@@ -34,8 +34,10 @@ import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.core.BasicRule;
 import io.homonoia.rules.core.DefaultRulesEngine;
+import io.homonoia.rules.core.RuleBuilder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.assertj.core.api.Assertions;
 import org.junit.After;
 import org.junit.Before;
@@ -172,6 +174,21 @@ public class ConditionalRuleGroupTest {
     conditionalRuleGroup.evaluate(facts);
   }
 
+  @Test
+  public void priorityValidationShouldBeDoneAgainWhenRulesChange() {
+    // given
+    MyOtherRule rule = new MyOtherRule(0); // same priority as conditionalRule
+    conditionalRuleGroup.addRule(rule);
+    Assertions.assertThatThrownBy(() -> conditionalRuleGroup.evaluate(facts))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    // when
+    conditionalRuleGroup.removeRule(rule);
+
+    // then
+    assertThat(conditionalRuleGroup.evaluate(facts)).isTrue();
+  }
+
   @Test
   public void twoRulesWithSamePriorityIsAllowedIfAnotherRuleHasHigherPriority() {
     MyOtherRule rule1 = new MyOtherRule(3);
@@ -214,6 +231,22 @@ public class ConditionalRuleGroupTest {
         "rule2");
   }
 
+  @Test
+  public void theFactsOfTheConditionalRuleShouldBeRequiredByTheGroup() {
+    // given
+    ConditionalRuleGroup group = new ConditionalRuleGroup();
+    group.addRule(new RuleBuilder().name("ab").priority(1).when(facts -> true).pure("a", "b")
+        .build());
+    group.addRule(new RuleBuilder().name("bc").priority(2).when(facts -> true).pure("b", "c")
+        .build());
+
+    // when
+    Set<String> requiredFacts = group.getRequiredFacts();
+
+    // then
+    assertThat(requiredFacts).containsExactly("a", "b");
+  }
+
   @Rule
   public static class MyRule {
 
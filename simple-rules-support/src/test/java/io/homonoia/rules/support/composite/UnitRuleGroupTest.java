@@ -35,6 +35,17 @@ import io.homonoia.rules.api.Facts;
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.api.Rules;
 import io.homonoia.rules.core.DefaultRulesEngine;
+import io.homonoia.rules.core.RuleBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -62,6 +73,111 @@ public class UnitRuleGroupTest {
     when(rule2.compareTo(rule1)).thenReturn(1);
   }
 
+  @Test
+  public void whenAdaptive_thenRulesMostLikelyToFailShouldBeEvaluatedFirst() throws Exception {
+    // given
+    AtomicInteger evaluations = new AtomicInteger();
+    List<String> executedRules = new ArrayList<>();
+    unitRuleGroup = new UnitRuleGroup();
+    unitRuleGroup.setAdaptive(true);
+    unitRuleGroup.addRule(new RuleBuilder().name("alwaysTrue").priority(1)
+        .when(facts -> evaluations.incrementAndGet() > 0)
+        .then(facts -> executedRules.add("alwaysTrue"))
+        .build());
+    unitRuleGroup.addRule(new RuleBuilder().name("adult").priority(2)
+        .when(facts -> facts.<Integer>get("age") >= 18)
+        .then(facts -> executedRules.add("adult"))
+        .build());
+    Facts minor = new Facts();
+    minor.put("age", 10);
+    for (int i = 0; i < 2048; i++) {
+      unitRuleGroup.evaluate(minor);
+    }
+    evaluations.set(0);
+
+    // when
+    boolean evaluationResult = unitRuleGroup.evaluate(minor);
+
+    // then
+    assertThat(evaluationResult).isFalse();
+    assertThat(evaluations).hasValue(0);
+
+    // when
+    Facts adult = new Facts();
+    adult.put("age", 30);
+    evaluationResult = unitRuleGroup.evaluate(adult);
+    unitRuleGroup.execute(adult);
+
+    // then
+    assertThat(evaluationResult).isTrue();
+    assertThat(executedRules).containsExactly("alwaysTrue", "adult");
+  }
+
+  @Test
+  public void whenEvaluatedInParallel_thenAFailingRuleShouldDecideWithoutWaitingForOthers()
+      throws Exception {
+    // given
+    CountDownLatch blocked = new CountDownLatch(1);
+    unitRuleGroup = new UnitRuleGroup();
+    unitRuleGroup.addRule(new RuleBuilder().name("blocked").priority(1)
+        .when(facts -> {
+          try {
+            return blocked.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+          }
+        })
+        .build());
+    unitRuleGroup.addRule(new RuleBuilder().name("failing").priority(2)
+        .when(facts -> false)
+        .build());
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    unitRuleGroup.setExecutor(executorService);
+
+    // when
+    boolean evaluationResult = unitRuleGroup.evaluate(facts);
+
+    // then
+    assertThat(evaluationResult).isFalse();
+    assertThat(blocked.getCount()).isEqualTo(1);
+    blocked.countDown();
+    executorService.shutdown();
+  }
+
+  @Test
+  public void whenNestedGroupsShareABoundedExecutor_thenTheyShouldBeEvaluatedAndExecuted()
+      throws Exception {
+    // given
+    List<String> executedRules = new CopyOnWriteArrayList<>();
+    ExecutorService executorService = Executors.newFixedThreadPool(1);
+    UnitRuleGroup nestedGroup = new UnitRuleGroup("nested", "nested group", 1);
+    nestedGroup.addRule(new RuleBuilder().name("inner1").priority(1)
+        .when(facts -> true)
+        .then(facts -> executedRules.add("inner1"))
+        .build());
+    nestedGroup.addRule(new RuleBuilder().name("inner2").priority(2)
+        .when(facts -> true)
+        .then(facts -> executedRules.add("inner2"))
+        .build());
+    nestedGroup.setExecutor(executorService);
+    unitRuleGroup = new UnitRuleGroup();
+    unitRuleGroup.addRule(nestedGroup);
+    unitRuleGroup.addRule(new RuleBuilder().name("outer").priority(2)
+        .when(facts -> true)
+        .then(facts -> executedRules.add("outer"))
+        .build());
+    unitRuleGroup.setExecutor(executorService);
+    rules.register(unitRuleGroup);
+
+    // when
+    CompletableFuture.runAsync(() -> rulesEngine.fire(rules, facts)).get(5, TimeUnit.SECONDS);
+    executorService.shutdown();
+
+    // then
+    assertThat(executedRules).containsExactly("inner1", "inner2", "outer");
+  }
+
   @Test
   public void whenNoComposingRulesAreRegistered_thenUnitRuleGroupShouldEvaluateToFalse() {
     // given
@@ -169,6 +285,22 @@ public class UnitRuleGroupTest {
     assertThat(annotatedRule.isExecuted()).isFalse();
   }
 
+  @Test
+  public void whenComposingRulesRequireFacts_thenTheGroupShouldRequireAllOfThem() {
+    // given
+    unitRuleGroup = new UnitRuleGroup();
+    unitRuleGroup.addRule(new RuleBuilder().name("ab").priority(1).when(facts -> true)
+        .pure("a", "b").build());
+    unitRuleGroup.addRule(new RuleBuilder().name("bc").priority(2).when(facts -> true)
+        .pure("b", "c").build());
+
+    // when
+    Set<String> requiredFacts = unitRuleGroup.getRequiredFacts();
+
+    // then
+    assertThat(requiredFacts).containsExactly("a", "b", "c");
+  }
+
   @io.homonoia.rules.annotation.Rule
   public static class MyRule {
 
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package io.homonoia.rules.support.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.homonoia.rules.support.RuleDefinition;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryRuleDefinitionReaderTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final BinaryRuleDefinitionWriter writer = new BinaryRuleDefinitionWriter();
+  private final BinaryRuleDefinitionReader reader = new BinaryRuleDefinitionReader();
+
+  @Test
+  public void testRuleDefinitionsRoundTrip() throws Exception {
+    // given
+    List<RuleDefinition> ruleDefinitions = new YamlRuleDefinitionReader()
+        .read(new FileReader("src/test/resources/composite-rules.yml"));
+    File file = temporaryFolder.newFile("rules.bin");
+    writer.write(ruleDefinitions, file.toPath());
+
+    // when
+    List<RuleDefinition> readRuleDefinitions = reader.read(file.toPath());
+
+    // then
+    assertThat(readRuleDefinitions).hasSize(2);
+    RuleDefinition compositeRule = readRuleDefinitions.get(0);
+    assertThat(compositeRule.getName()).isEqualTo("Movie id rule");
+    assertThat(compositeRule.getCompositeRuleType()).isEqualTo("UnitRuleGroup");
+    assertThat(compositeRule.getPriority()).isEqualTo(1);
+    assertThat(compositeRule.getCondition()).isNull();
+    assertThat(compositeRule.getComposingRules()).hasSize(2);
+
+    RuleDefinition composingRule = compositeRule.getComposingRules().get(0);
+    assertThat(composingRule.getName()).isEqualTo("Time is evening");
+    assertThat(composingRule.getDescription()).isEqualTo("If it's later than 7pm");
+    assertThat(composingRule.getCondition()).isEqualTo("day.hour > 19");
+    assertThat(composingRule.getActions())
+        .isEqualTo(Collections.singletonList("person.shouldProvideId(true);"));
+    // identical strings are shared
+    assertThat(compositeRule.getComposingRules().get(1).getActions().get(0))
+        .isSameAs(composingRule.getActions().get(0));
+
+    RuleDefinition simpleRule = readRuleDefinitions.get(1);
+    assertThat(simpleRule.getName()).isEqualTo("weather rule");
+    assertThat(simpleRule.getDescription()).isEqualTo("when it rains, then take an umbrella");
+    assertThat(simpleRule.getCondition()).isEqualTo("rain == True");
+    assertThat(simpleRule.isCompositeRule()).isFalse();
+  }
+
+  @Test
+  public void testReadingInvalidContent() {
+    // given
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6});
+
+    // when
+    Assertions.assertThatThrownBy(() -> reader.read(buffer))
+        // then
+        .isInstanceOf(IOException.class)
+        .hasMessage("Not a binary rule definitions file");
+  }
+
+  @Test
+  public void testRuleDefinitionsReadThroughAReader() throws Exception {
+    // given
+    List<RuleDefinition> ruleDefinitions = new YamlRuleDefinitionReader()
+        .read(new FileReader("src/test/resources/composite-rules.yml"));
+    File file = temporaryFolder.newFile("rules.bin");
+    writer.write(ruleDefinitions, file.toPath());
+
+    // when
+    List<RuleDefinition> readRuleDefinitions;
+    try (Reader rulesDescriptor = BinaryRuleDefinitionReader.newReader(file.toPath())) {
+      readRuleDefinitions = reader.read(rulesDescriptor);
+    }
+
+    // then
+    assertThat(readRuleDefinitions).hasSize(2);
+    assertThat(readRuleDefinitions.get(0).getComposingRules()).hasSize(2);
+    assertThat(readRuleDefinitions.get(1).getName()).isEqualTo("weather rule");
+    assertThat(readRuleDefinitions.get(1).getCondition()).isEqualTo("rain == True");
+  }
+
+  @Test
+  public void testReadingInvalidRuleDefinition() throws Exception {
+    // given
+    RuleDefinition ruleDefinition = new RuleDefinition();
+    ruleDefinition.setName("rule without condition");
+    ruleDefinition.setActions(Collections.singletonList("person.setAdult(true);"));
+    File file = temporaryFolder.newFile("rules.bin");
+    writer.write(Collections.singletonList(ruleDefinition), file.toPath());
+
+    // when
+    Assertions.assertThatThrownBy(() -> reader.read(file.toPath()))
+        // then
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The rule condition must be specified");
+  }
+}
@@ -28,8 +28,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.homonoia.rules.api.Rule;
 import io.homonoia.rules.support.RuleDefinition;
+import io.homonoia.rules.support.StringPool;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -38,6 +41,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -185,6 +191,105 @@ public class RuleDefinitionReaderTest {
         Collections.singletonList("System.out.println(\"It rains, take an umbrella!\");"));
   }
 
+  @Test
+  public void testRulesDefinitionStreaming() throws Exception {
+    // given
+    File rulesDescriptor = new File("src/test/resources/rules." + fileExtension);
+
+    // when
+    List<String> names;
+    try (Stream<RuleDefinition> ruleDefinitions = ruleDefinitionReader
+        .stream(new FileReader(rulesDescriptor))) {
+      names = ruleDefinitions.map(RuleDefinition::getName).collect(Collectors.toList());
+    }
+
+    // then
+    assertThat(names).containsExactly("adult rule", "weather rule");
+  }
+
+  @Test
+  public void testRulesDefinitionStreamDoesNotCloseReader() throws Exception {
+    // given
+    File rulesDescriptor = new File("src/test/resources/rules." + fileExtension);
+    AtomicBoolean closed = new AtomicBoolean();
+    Reader reader = new FileReader(rulesDescriptor) {
+      @Override
+      public void close() throws IOException {
+        closed.set(true);
+        super.close();
+      }
+    };
+
+    // when
+    try (Stream<RuleDefinition> ruleDefinitions = ruleDefinitionReader.stream(reader)) {
+      assertThat(ruleDefinitions.findFirst()).isPresent();
+    }
+
+    // then
+    assertThat(closed).isFalse();
+    reader.close();
+  }
+
+  @Test
+  public void testRuleDefinitionListsAreMutable() throws Exception {
+    // given
+    File adultRuleDescriptor = new File("src/test/resources/adult-rule." + fileExtension);
+
+    // when
+    RuleDefinition adultRuleDefinition = ruleDefinitionReader
+        .read(new FileReader(adultRuleDescriptor)).get(0);
+    adultRuleDefinition.getActions().add("person.setMinor(false);");
+    RuleDefinition newRuleDefinition = new RuleDefinition();
+    newRuleDefinition.getActions().add("person.setAdult(true);");
+    newRuleDefinition.getComposingRules().add(adultRuleDefinition);
+
+    // then
+    assertThat(adultRuleDefinition.getActions()).hasSize(2);
+    assertThat(newRuleDefinition.getComposingRules()).containsExactly(adultRuleDefinition);
+  }
+
+  @Test
+  public void testRuleDefinitionStringsAreSharedWithinARead() throws Exception {
+    // given
+    File rulesDescriptor = new File("src/test/resources/composite-rules." + fileExtension);
+
+    // when
+    List<RuleDefinition> ruleDefinitions = ruleDefinitionReader
+        .read(new FileReader(rulesDescriptor));
+
+    // then
+    List<RuleDefinition> composingRules = ruleDefinitions.get(0).getComposingRules();
+    assertThat(composingRules.get(1).getActions().get(0))
+        .isSameAs(composingRules.get(0).getActions().get(0));
+    assertThat(((AbstractRuleDefinitionReader) ruleDefinitionReader).getStringPool()).isNull();
+  }
+
+  @Test
+  public void testRuleDefinitionStringsAreSharedThroughAStringPool() throws Exception {
+    // given
+    File rulesDescriptor = new File("src/test/resources/composite-rules." + fileExtension);
+    StringPool stringPool = new StringPool();
+    AbstractRuleDefinitionReader reader = (AbstractRuleDefinitionReader) ruleDefinitionReader;
+    reader.setStringPool(stringPool);
+
+    // when
+    List<RuleDefinition> first;
+    List<RuleDefinition> second;
+    try {
+      first = reader.read(new FileReader(rulesDescriptor));
+      second = reader.read(new FileReader(rulesDescriptor));
+    } finally {
+      reader.setStringPool(null);
+    }
+
+    // then
+    assertThat(second.get(0).getName()).isSameAs(first.get(0).getName());
+    assertThat(second.get(1).getCondition()).isSameAs(first.get(1).getCondition());
+    StringPool.MemoryReport report = stringPool.report();
+    assertThat(report.getHitCount()).isPositive();
+    assertThat(report.getSavedBytes()).isPositive();
+  }
+
   @Test
   public void testEmptyRulesDefinitionReading() throws Exception {
     // given
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.support.table;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.homonoia.rules.api.Facts;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CsvDecisionTableReaderTest {
+
+  private final CsvDecisionTableReader reader = new CsvDecisionTableReader();
+  private DecisionTable decisionTable;
+
+  @Before
+  public void setUp() throws Exception {
+    decisionTable = reader.read(new FileReader("src/test/resources/pricing-table.csv"))
+        .name("pricing");
+  }
+
+  @Test
+  public void testDecisionTableColumnsAndRows() {
+    assertThat(decisionTable.getName()).isEqualTo("pricing");
+    assertThat(decisionTable.getInputs()).containsExactly("region", "age");
+    assertThat(decisionTable.getOutputs()).containsExactly("discount", "label");
+    assertThat(decisionTable.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void testFirstHitPolicy() throws Exception {
+    // given
+    Facts facts = new Facts();
+    facts.put("region", "EU");
+    facts.put("age", 70);
+
+    // when
+    boolean triggered = decisionTable.evaluate(facts);
+    decisionTable.execute(facts);
+
+    // then
+    assertThat(triggered).isTrue();
+    assertThat((Object) facts.get("discount")).isEqualTo(0.2);
+    assertThat((Object) facts.get("label")).isEqualTo("senior");
+  }
+
+  @Test
+  public void testQuotedValues() throws Exception {
+    // given
+    Facts facts = new Facts();
+    facts.put("region", "EU");
+    facts.put("age", 30);
+    decisionTable.execute(facts);
+    assertThat((Object) facts.get("label")).isEqualTo("adult, EU");
+
+    // when
+    facts.put("region", "US");
+    decisionTable.execute(facts);
+
+    // then
+    assertThat((Object) facts.get("discount")).isEqualTo(0.05);
+    assertThat((Object) facts.get("label")).isEqualTo("007");
+  }
+
+  @Test
+  public void testPriorityHitPolicy() throws Exception {
+    // given
+    decisionTable.hitPolicy(HitPolicy.PRIORITY);
+    Facts facts = new Facts();
+    facts.put("region", "FR");
+
+    // when
+    decisionTable.execute(facts);
+
+    // then
+    assertThat((Object) facts.get("discount")).isEqualTo(0L);
+    assertThat((Object) facts.get("label")).isEqualTo("default");
+  }
+
+  @Test
+  public void testCollectHitPolicy() throws Exception {
+    // given
+    decisionTable.hitPolicy(HitPolicy.COLLECT);
+    Facts facts = new Facts();
+    facts.put("region", "EU");
+    facts.put("age", 70);
+
+    // when
+    decisionTable.execute(facts);
+
+    // then
+    assertThat((Object) facts.get("discount")).isEqualTo(Arrays.asList(0.2, 0L));
+    assertThat((Object) facts.get("label")).isEqualTo(Arrays.asList("senior", "default"));
+  }
+
+  @Test
+  public void testInvalidDecisionTables() {
+    assertThatThrownBy(() -> reader.read(new StringReader("")))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Decision table is empty");
+    assertThatThrownBy(() -> reader.read(new StringReader("when:a,b\n1,2")))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Column 'b' must be prefixed with 'when:' or 'then:'");
+    assertThatThrownBy(() -> reader.read(new StringReader("when:a,then:b\n1,2\n\n3")))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Record at line 4 has 1 values instead of 2");
+    assertThatThrownBy(() -> reader.read(new StringReader("when:a,priority\n1,high")))
+        .isInstanceOf(IOException.class)
+        .hasMessageStartingWith("Invalid record at line 2");
+  }
+}
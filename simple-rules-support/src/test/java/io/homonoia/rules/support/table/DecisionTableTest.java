@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2022, Alex Parlett (alex.parlett@homonoia-studios.co.uk)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.homonoia.rules.support.table;
+
+import static io.homonoia.rules.api.FactConstraint.atLeast;
+import static io.homonoia.rules.api.FactConstraint.equalTo;
+import static io.homonoia.rules.api.FactConstraint.range;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.homonoia.rules.api.Facts;
+import io.homonoia.rules.api.Rules;
+import io.homonoia.rules.core.DefaultRulesEngine;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class DecisionTableTest {
+
+  @Test
+  public void whenNoRowMatches_thenTheTableShouldNotBeTriggered() {
+    // given
+    DecisionTable decisionTable = new DecisionTable()
+        .inputs("region")
+        .outputs("discount")
+        .row(Collections.singletonList(equalTo("region", "EU")), Collections.singletonList(0.1));
+    Facts facts = new Facts();
+    facts.put("region", "US");
+
+    // when
+    boolean triggered = decisionTable.evaluate(facts);
+
+    // then
+    assertThat(triggered).isFalse();
+  }
+
+  @Test
+  public void rangesShouldBeLookedUpInLargeTables() {
+    // given 10000 consecutive price tiers
+    DecisionTable decisionTable = new DecisionTable().name("tiers").inputs("price").outputs("tier");
+    for (long tier = 0; tier < 10000; tier++) {
+      decisionTable.row(
+          Collections.singletonList(range("price", tier * 10, true, tier * 10 + 10, false)),
+          Collections.singletonList(tier));
+    }
+    Facts facts = new Facts();
+    facts.put("price", 12345.5);
+
+    // when
+    new DefaultRulesEngine().fire(new Rules(decisionTable), facts);
+
+    // then
+    assertThat((Object) facts.get("tier")).isEqualTo(1234L);
+  }
+
+  @Test
+  public void overlappingRangesShouldAllMatch() {
+    // given
+    DecisionTable decisionTable = new DecisionTable()
+        .hitPolicy(HitPolicy.COLLECT)
+        .inputs("age")
+        .outputs("segment")
+        .row(Collections.singletonList(range("age", 18, true, 65, false)),
+            Collections.singletonList("adult"))
+        .row(Collections.singletonList(atLeast("age", 60)), Collections.singletonList("senior"))
+        .row(Collections.singletonList(range("age", 0, true, 18, false)),
+            Collections.singletonList("minor"));
+    Facts facts = new Facts();
+    facts.put("age", 62);
+
+    // when
+    decisionTable.execute(facts);
+
+    // then
+    assertThat((Object) facts.get("segment")).isEqualTo(Arrays.asList("adult", "senior"));
+  }
+
+  @Test
+  public void overlappingRangesShouldBeLookedUpInLargeTables() {
+    // given 50000 windows of 100 consecutive values
+    DecisionTable decisionTable = new DecisionTable().name("windows").hitPolicy(HitPolicy.PRIORITY)
+        .inputs("value").outputs("window");
+    for (long start = 0; start < 50000; start++) {
+      decisionTable.row((int) (50000 - start),
+          Collections.singletonList(range("value", start, true, start + 100, false)),
+          Collections.singletonList(start));
+    }
+    Facts facts = new Facts();
+    facts.put("value", 12345.5);
+
+    // when
+    new DefaultRulesEngine().fire(new Rules(decisionTable), facts);
+
+    // then the matching window starting last has the highest priority
+    assertThat((Object) facts.get("window")).isEqualTo(12345L);
+  }
+
+  @Test
+  public void rowsShouldBeSelectedAgainWhenFactsChangeAfterEvaluation() {
+    // given
+    DecisionTable decisionTable = new DecisionTable()
+        .inputs("region")
+        .outputs("discount")
+        .row(Collections.singletonList(equalTo("region", "EU")), Collections.singletonList(0.1))
+        .row(Collections.singletonList(equalTo("region", "US")), Collections.singletonList(0.2));
+    Facts facts = new Facts();
+    facts.put("region", "EU");
+    assertThat(decisionTable.evaluate(facts)).isTrue();
+
+    // when
+    facts.put("region", "US");
+    decisionTable.execute(facts);
+
+    // then
+    assertThat((Object) facts.get("discount")).isEqualTo(0.2);
+  }
+
+  @Test
+  public void rowsShouldMatchTheColumnsOfTheTable() {
+    DecisionTable decisionTable = new DecisionTable().inputs("region").outputs("discount");
+
+    assertThatThrownBy(() -> decisionTable.row(Collections.singletonList(null),
+        Arrays.asList(0.1, 0.2)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> decisionTable.row(Collections.singletonList(equalTo("age", 18)),
+        Collections.singletonList(0.1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Condition on 'age' of row 1 does not match input column 'region'");
+  }
+}